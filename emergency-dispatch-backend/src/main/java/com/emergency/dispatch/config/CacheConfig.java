@@ -0,0 +1,201 @@
+package com.emergency.dispatch.config;
+
+import com.emergency.dispatch.dto.IncidentMonitorRow;
+import com.emergency.dispatch.dto.UnitMonitorRow;
+import com.emergency.dispatch.model.EmergencyUnit;
+import com.emergency.dispatch.model.Incident;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.interceptor.CacheErrorHandler;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.cache.BatchStrategies;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through caches for the hot GET endpoints. Uses Redis when it answers at startup and falls back
+ * to in-process Caffeine caches otherwise, with the same cache names and TTLs either way.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig implements CachingConfigurer {
+
+    public static final String INCIDENTS = "incidents";
+    public static final String EMERGENCY_UNITS = "emergencyUnits";
+    public static final String INCIDENTS_MONITOR = "incidentsMonitor";
+    public static final String UNITS_MONITOR = "unitsMonitor";
+    public static final String DISPATCH_METRICS = "dispatchMetrics";
+
+    // Cache failures are logged at most this often (ms) so a Redis outage does not flood the log
+    private static final long ERROR_LOG_INTERVAL_MS = 10_000;
+
+    private final AtomicLong lastErrorLogged = new AtomicLong();
+
+    @Bean
+    public CacheManager cacheManager(ObjectProvider<RedisConnectionFactory> redisConnectionFactory,
+                                     ObjectMapper objectMapper, Environment environment) {
+        Map<String, Duration> ttls = new LinkedHashMap<>();
+        ttls.put(INCIDENTS, ttl(environment, "incidents", 2));
+        ttls.put(EMERGENCY_UNITS, ttl(environment, "emergency-units", 2));
+        ttls.put(INCIDENTS_MONITOR, ttl(environment, "incidents-monitor", 2));
+        ttls.put(UNITS_MONITOR, ttl(environment, "units-monitor", 2));
+        ttls.put(DISPATCH_METRICS, ttl(environment, "dispatch-metrics", 60));
+
+        RedisConnectionFactory connectionFactory = redisConnectionFactory.getIfAvailable();
+        if (connectionFactory != null && redisAvailable(connectionFactory)) {
+            System.out.println("[CacheConfig] Using Redis cache");
+            return redisCacheManager(connectionFactory, objectMapper, ttls);
+        }
+        long maxEntries = environment.getProperty("cache.caffeine.max-entries", Long.class, 1000L);
+        System.out.println("[CacheConfig] Redis not reachable, using in-process Caffeine cache");
+        return caffeineCacheManager(ttls, maxEntries);
+    }
+
+    /**
+     * A failing cache read counts as a miss and a failing write or eviction is skipped,
+     * so requests fall through to MySQL instead of erroring when Redis goes away.
+     */
+    @Override
+    public CacheErrorHandler errorHandler() {
+        return new CacheErrorHandler() {
+            @Override
+            public void handleCacheGetError(RuntimeException exception, Cache cache, Object key) {
+                logError("read", cache, exception);
+            }
+
+            @Override
+            public void handleCachePutError(RuntimeException exception, Cache cache, Object key, Object value) {
+                logError("write", cache, exception);
+            }
+
+            @Override
+            public void handleCacheEvictError(RuntimeException exception, Cache cache, Object key) {
+                logError("evict", cache, exception);
+            }
+
+            @Override
+            public void handleCacheClearError(RuntimeException exception, Cache cache) {
+                logError("clear", cache, exception);
+            }
+        };
+    }
+
+    private void logError(String operation, Cache cache, RuntimeException exception) {
+        long now = System.currentTimeMillis();
+        long last = lastErrorLogged.get();
+        if (now - last >= ERROR_LOG_INTERVAL_MS && lastErrorLogged.compareAndSet(last, now)) {
+            System.err.println("[CacheConfig] Cache " + operation + " failed on " + cache.getName() + ": " + exception.getMessage());
+        }
+    }
+
+    private static Duration ttl(Environment environment, String name, long defaultSeconds) {
+        return Duration.ofSeconds(environment.getProperty("cache.ttl-seconds." + name, Long.class, defaultSeconds));
+    }
+
+    private static boolean redisAvailable(RedisConnectionFactory connectionFactory) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            return "PONG".equalsIgnoreCase(connection.ping());
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static CacheManager redisCacheManager(RedisConnectionFactory connectionFactory, ObjectMapper objectMapper,
+                                                  Map<String, Duration> ttls) {
+        // Smile is Jackson's binary JSON: same mapping as the HTTP responses, smaller and faster to parse
+        ObjectMapper smileMapper = objectMapper.copyWith(new SmileFactory());
+        TypeFactory types = smileMapper.getTypeFactory();
+        Map<String, JavaType> valueTypes = new HashMap<>();
+        valueTypes.put(INCIDENTS, types.constructCollectionType(List.class, Incident.class));
+        valueTypes.put(EMERGENCY_UNITS, types.constructCollectionType(List.class, EmergencyUnit.class));
+        valueTypes.put(INCIDENTS_MONITOR, types.constructCollectionType(List.class, IncidentMonitorRow.class));
+        valueTypes.put(UNITS_MONITOR, types.constructCollectionType(List.class, UnitMonitorRow.class));
+        valueTypes.put(DISPATCH_METRICS, types.constructMapType(Map.class, String.class, Object.class));
+
+        Map<String, RedisCacheConfiguration> configurations = new HashMap<>();
+        ttls.forEach((name, ttl) -> configurations.put(name, RedisCacheConfiguration.defaultCacheConfig()
+            .entryTtl(ttl)
+            .disableCachingNullValues()
+            .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                new SmileSerializer(smileMapper, valueTypes.get(name))))));
+
+        // SCAN rather than KEYS when a write clears a cache, so Redis is never blocked on a large keyspace
+        return RedisCacheManager.builder(RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory, BatchStrategies.scan(1000)))
+            .withInitialCacheConfigurations(configurations)
+            .disableCreateOnMissingCache()
+            .enableStatistics()
+            .build();
+    }
+
+    private static CacheManager caffeineCacheManager(Map<String, Duration> ttls, long maxEntries) {
+        List<Cache> caches = new ArrayList<>();
+        ttls.forEach((name, ttl) -> caches.add(new CaffeineCache(name, Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .maximumSize(maxEntries)
+            .recordStats()
+            .build())));
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(caches);
+        return cacheManager;
+    }
+
+    /**
+     * Cache values as Smile bytes for one known value type, so no class names are stored with each entry.
+     */
+    private static final class SmileSerializer implements RedisSerializer<Object> {
+        private final ObjectMapper mapper;
+        private final JavaType type;
+
+        SmileSerializer(ObjectMapper mapper, JavaType type) {
+            this.mapper = mapper;
+            this.type = type;
+        }
+
+        @Override
+        public byte[] serialize(Object value) {
+            if (value == null) return new byte[0];
+            try {
+                return mapper.writeValueAsBytes(value);
+            } catch (IOException e) {
+                throw new SerializationException("Could not write cache value: " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public Object deserialize(byte[] bytes) {
+            if (bytes == null || bytes.length == 0) return null;
+            try {
+                return mapper.readValue(bytes, type);
+            } catch (IOException e) {
+                throw new SerializationException("Could not read cache value: " + e.getMessage(), e);
+            }
+        }
+    }
+}
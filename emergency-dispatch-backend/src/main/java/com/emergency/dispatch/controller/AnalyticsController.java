@@ -1,11 +1,13 @@
 package com.emergency.dispatch.controller;
 
+import com.emergency.dispatch.service.AnalyticsRollupService;
 import com.emergency.dispatch.service.ReportService;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -18,9 +20,11 @@ import java.util.Map;
 public class AnalyticsController {
 
     private final ReportService reportService;
+    private final AnalyticsRollupService analyticsRollupService;
 
-    public AnalyticsController(ReportService reportService) {
+    public AnalyticsController(ReportService reportService, AnalyticsRollupService analyticsRollupService) {
         this.reportService = reportService;
+        this.analyticsRollupService = analyticsRollupService;
     }
 
     @GetMapping(value = "/dispatch", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -41,4 +45,36 @@ public class AnalyticsController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
         }
     }
+
+    @GetMapping(value = "/rollups", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Object> rollupStatus() {
+        return ResponseEntity.ok(analyticsRollupService.status());
+    }
+
+    /**
+     * Recompute the analytics rollups for a date range (same formats as /dispatch; no range = all history)
+     * from the raw incident and assignment tables.
+     */
+    @PostMapping(value = "/rollups/rebuild", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Object> rebuildRollups(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        try {
+            var parsed = ReportController.ReportParams.parse(from, to);
+            long fromMs = parsed.from == null ? 0L
+                : parsed.from.atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli();
+            long toMs = parsed.to == null ? System.currentTimeMillis()
+                : parsed.to.atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli();
+            if (!analyticsRollupService.rebuild(fromMs, toMs)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "A rollup rebuild is already running"));
+            }
+            return ResponseEntity.ok(analyticsRollupService.status());
+        } catch (Exception e) {
+            e.printStackTrace();
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Error rebuilding rollups");
+            errorResponse.put("message", e.getMessage() != null ? e.getMessage() : "Unknown error");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
 }
@@ -1,7 +1,6 @@
 package com.emergency.dispatch.controller;
 
 import java.util.List;
-import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -10,8 +9,10 @@ import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.emergency.dispatch.dto.UnitMonitorRow;
 import com.emergency.dispatch.service.EmergencyUnitMonitorService;
 
 
@@ -24,11 +25,24 @@ public class EmergencyUnitMonitorController {
     @Autowired
     private EmergencyUnitMonitorService monitorService;
 
+    /**
+     * Units with their active assignment. Without parameters returns all of them; afterId/limit page
+     * through them in ID order and minLat/maxLat/minLon/maxLon restrict to a bounding box.
+     */
     @GetMapping("/units")
-    public ResponseEntity<List<Map<String, Object>>> getAllUnitsStatus() {
+    public ResponseEntity<List<UnitMonitorRow>> getAllUnitsStatus(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Double minLat,
+            @RequestParam(required = false) Double maxLat,
+            @RequestParam(required = false) Double minLon,
+            @RequestParam(required = false) Double maxLon) {
         try {
-            List<Map<String, Object>> unitsData = monitorService.getAllUnitsWithStatus();
+            List<UnitMonitorRow> unitsData = monitorService.getUnitsWithStatus(
+                afterId, limit, minLat, maxLat, minLon, maxLon);
             return ResponseEntity.ok(unitsData);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
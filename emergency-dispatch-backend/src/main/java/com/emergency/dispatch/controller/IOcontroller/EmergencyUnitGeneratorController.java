@@ -10,7 +10,11 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/emergency-units/generator")
@@ -28,4 +32,28 @@ public class EmergencyUnitGeneratorController {
             return ResponseEntity.internalServerError().build();
         }
     }
+
+    // Bulk fleet provisioning; returns a summary instead of the created units
+    @PostMapping("/provision")
+    public ResponseEntity<Map<String, Object>> provisionUnits(@RequestParam("count") int count) {
+        try {
+            return ResponseEntity.ok(emergencyUnitGeneratorService.provisionRandomUnits(count));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+
+    // Multipart upload of a .csv or .geojson fleet file
+    @PostMapping("/import")
+    public ResponseEntity<Map<String, Object>> importUnits(@RequestParam("file") MultipartFile file) {
+        try (InputStream input = file.getInputStream()) {
+            return ResponseEntity.ok(emergencyUnitGeneratorService.importUnits(input, file.getOriginalFilename()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
 }
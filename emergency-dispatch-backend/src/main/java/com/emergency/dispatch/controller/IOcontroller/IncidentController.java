@@ -18,10 +18,12 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.CrossOrigin;
 
+import com.emergency.dispatch.dto.IncidentSummary;
 import com.emergency.dispatch.model.Incident;
 import com.emergency.dispatch.service.IncidentService;
 import com.emergency.dispatch.enums.IncidentType;
 import com.emergency.dispatch.enums.IncidentStatus;
+import com.emergency.dispatch.enums.SeverityLevel;
 
 @RestController
 @RequestMapping("/api/incidents")
@@ -103,14 +105,39 @@ public class IncidentController {
 
     @GetMapping("/by-severity")
     public ResponseEntity<List<Incident>> getIncidentsBySeverity(@RequestParam String severity) {
+        SeverityLevel severityLevel;
         try {
-            List<Incident> incidents = incidentService.getIncidentsBySeverity(severity);
+            severityLevel = SeverityLevel.valueOf(severity.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            List<Incident> incidents = incidentService.getIncidentsBySeverity(severityLevel);
             return ResponseEntity.ok(incidents);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    // Keyset-paged history: pass nextAfterId from the previous response to get the next page
+    @GetMapping("/history")
+    public ResponseEntity<Map<String, Object>> getIncidentHistory(@RequestParam(defaultValue = "COMPLETED") String status,
+                                                                  @RequestParam(defaultValue = "0") long afterId,
+                                                                  @RequestParam(defaultValue = "100") int limit) {
+        IncidentStatus incidentStatus;
+        try {
+            incidentStatus = IncidentStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = Math.max(1, Math.min(limit, 1000));
+        List<IncidentSummary> page = incidentService.getIncidentPage(incidentStatus, afterId, pageSize);
+        Map<String, Object> body = new java.util.LinkedHashMap<>();
+        body.put("items", page);
+        body.put("nextAfterId", page.size() < pageSize ? null : page.get(page.size() - 1).incidentId());
+        return ResponseEntity.ok(body);
+    }
+
     @GetMapping("/live")
     public List<Incident> getLiveIncidents() {
         return incidentService.getLiveIncidents();
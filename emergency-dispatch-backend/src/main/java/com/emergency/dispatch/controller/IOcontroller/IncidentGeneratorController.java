@@ -1,5 +1,7 @@
 package com.emergency.dispatch.controller.IOcontroller;
 
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,4 +20,32 @@ public class IncidentGeneratorController {
         incidentGeneratorService.generateRandomIncidents(count);
         return ResponseEntity.ok(count + " random incidents generated and broadcasted.");
     }
+
+    // Sustained load, e.g. ?rate=500&durationSeconds=60&model=hotspot&hotspots=5
+    @PostMapping("/load/start")
+    public ResponseEntity<String> startLoad(@RequestParam double rate,
+                                            @RequestParam(defaultValue = "0") long durationSeconds,
+                                            @RequestParam(defaultValue = "poisson") String model,
+                                            @RequestParam(defaultValue = "5") int hotspots,
+                                            @RequestParam(required = false) Long seed) {
+        try {
+            if (!incidentGeneratorService.startLoad(rate, durationSeconds, model, hotspots, seed)) {
+                return ResponseEntity.status(409).body("Load generator already running.");
+            }
+            return ResponseEntity.ok("Load generator started at " + rate + " incidents/s.");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/load/stop")
+    public ResponseEntity<String> stopLoad() {
+        incidentGeneratorService.stopLoad();
+        return ResponseEntity.ok("Load generator stopped.");
+    }
+
+    @GetMapping("/load/metrics")
+    public Map<String, Object> getLoadMetrics() {
+        return incidentGeneratorService.loadMetrics();
+    }
 }
@@ -1,11 +1,20 @@
 package com.emergency.dispatch.controller.IOcontroller;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.emergency.dispatch.enums.EmergencyUnitType;
+import com.emergency.dispatch.service.BroadcastCoalescer;
+import com.emergency.dispatch.service.IOservice.CapacityPlanningService;
 import com.emergency.dispatch.service.IOservice.SimulationService;
 import com.emergency.dispatch.service.IOservice.IncidentMonService;
 
@@ -25,6 +34,12 @@ public class SimulationController {
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
 
+    @Autowired
+    private BroadcastCoalescer broadcastCoalescer;
+
+    @Autowired
+    private CapacityPlanningService capacityPlanningService;
+
     @PostMapping("/start")
     public String startSimulation() {
         simulationService.startSimulation();
@@ -38,4 +53,40 @@ public class SimulationController {
         incidentMonitorService.disableMonitoring();
         return "Simulation stopped.";
     }
+
+    @GetMapping("/metrics")
+    public Map<String, Object> getMetrics() {
+        return simulationService.metrics();
+    }
+
+    // Full state for clients that missed a delta version
+    @GetMapping("/snapshot")
+    public Map<String, Object> getSnapshot() {
+        return broadcastCoalescer.snapshot();
+    }
+
+    // Replay a period (default: the last 24 hours) in virtual time against a resized fleet
+    @PostMapping("/capacity-plan")
+    public ResponseEntity<Map<String, Object>> runCapacityPlan(
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(defaultValue = "42") long seed,
+            @RequestParam(defaultValue = "1.0") double fleetScale,
+            @RequestParam(required = false) Integer fireUnits,
+            @RequestParam(required = false) Integer ambulanceUnits,
+            @RequestParam(required = false) Integer policeUnits,
+            @RequestParam(required = false) Long onSceneMinMs,
+            @RequestParam(required = false) Long onSceneMaxMs) {
+        long end = to != null ? to : System.currentTimeMillis();
+        long start = from != null ? from : end - 24L * 60 * 60 * 1000;
+        Map<EmergencyUnitType, Integer> unitCounts = new EnumMap<>(EmergencyUnitType.class);
+        if (fireUnits != null) unitCounts.put(EmergencyUnitType.FIRE, fireUnits);
+        if (ambulanceUnits != null) unitCounts.put(EmergencyUnitType.AMBULANCE, ambulanceUnits);
+        if (policeUnits != null) unitCounts.put(EmergencyUnitType.POLICE, policeUnits);
+        try {
+            return ResponseEntity.ok(capacityPlanningService.run(start, end, seed, fleetScale, unitCounts, onSceneMinMs, onSceneMaxMs));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
 }
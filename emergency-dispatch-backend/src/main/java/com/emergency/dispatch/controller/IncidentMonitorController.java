@@ -10,8 +10,10 @@ import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.emergency.dispatch.dto.IncidentMonitorRow;
 import com.emergency.dispatch.service.IOservice.IncidentMonService;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,12 +31,24 @@ public class IncidentMonitorController {
     @Autowired
     private com.emergency.dispatch.service.IncidentMonitorService incidentMonitorService;
 
+    /**
+     * Incidents with enriched data (assignment status, counts, etc.). Without parameters returns all of them;
+     * afterId/limit page through them in ID order and minLat/maxLat/minLon/maxLon restrict to a bounding box.
+     */
     @GetMapping("/incidents")
-    public ResponseEntity<java.util.List<java.util.Map<String, Object>>> getAllIncidentsStatus() {
+    public ResponseEntity<List<IncidentMonitorRow>> getAllIncidentsStatus(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Double minLat,
+            @RequestParam(required = false) Double maxLat,
+            @RequestParam(required = false) Double minLon,
+            @RequestParam(required = false) Double maxLon) {
         try {
-            // Return all incidents with enriched data (assignment status, counts, etc.)
-            java.util.List<java.util.Map<String, Object>> incidentsData = incidentMonitorService.getAllIncidentsWithStatus();
+            List<IncidentMonitorRow> incidentsData = incidentMonitorService.getIncidentsWithStatus(
+                afterId, limit, minLat, maxLat, minLon, maxLon);
             return ResponseEntity.ok(incidentsData);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.internalServerError().build();
@@ -1,12 +1,22 @@
 package com.emergency.dispatch.controller;
 
+import com.emergency.dispatch.service.ReportJobService;
 import com.emergency.dispatch.service.ReportService;
 
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -16,27 +26,78 @@ import org.springframework.web.bind.annotation.RestController;
 public class ReportController {
 
     private final ReportService reportService;
+    private final ReportJobService reportJobService;
 
-    public ReportController(ReportService reportService) {
+    public ReportController(ReportService reportService, ReportJobService reportJobService) {
         this.reportService = reportService;
+        this.reportJobService = reportJobService;
     }
 
+    /**
+     * Renders on the report job pool at high priority (or reuses a matching job) and answers once the
+     * PDF is written, so concurrent downloads share the pool's limits instead of each rendering here.
+     */
     @GetMapping(value = "/dispatch/pdf", produces = MediaType.APPLICATION_PDF_VALUE)
-    public ResponseEntity<byte[]> downloadDispatchReportPdf(
+    public CompletableFuture<ResponseEntity<Resource>> downloadDispatchReportPdf(
             @RequestParam(required = false) String from,
             @RequestParam(required = false) String to,
             @RequestParam(required = false) Integer topN,
             @RequestParam(required = false) Integer heatmapK) {
         try {
             var parsed = ReportParams.parse(from, to);
-            byte[] pdf = reportService.generateDispatchReportPdf(parsed.from, parsed.to, topN, heatmapK);
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", "dispatch_report.pdf");
-            return new ResponseEntity<>(pdf, headers, HttpStatus.OK);
+            return reportJobService.submitForDownload(parsed.from, parsed.to, topN, heatmapK)
+                .thenApply(ReportController::pdfResponse)
+                .exceptionally(e -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+        } catch (IllegalStateException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+        }
+    }
+
+    /**
+     * Queue a PDF render (priority high, normal or low) and return the job. Clients poll the job or
+     * listen on /topic/reports, then download from the job's downloadUrl.
+     */
+    @PostMapping(value = "/dispatch/jobs", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Object> submitDispatchReportJob(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) Integer topN,
+            @RequestParam(required = false) Integer heatmapK,
+            @RequestParam(required = false) String priority) {
+        try {
+            var parsed = ReportParams.parse(from, to);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(reportJobService.submit(parsed.from, parsed.to, topN, heatmapK, priority));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid priority: " + priority));
+        }
+    }
+
+    @GetMapping(value = "/dispatch/jobs/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Object> getDispatchReportJob(@PathVariable String jobId) {
+        Map<String, Object> job = reportJobService.getJob(jobId);
+        return job == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(job);
+    }
+
+    @GetMapping(value = "/dispatch/jobs/{jobId}/pdf", produces = MediaType.APPLICATION_PDF_VALUE)
+    public ResponseEntity<Resource> downloadDispatchReportJob(@PathVariable String jobId) {
+        Path file = reportJobService.getArtifact(jobId);
+        if (file == null) {
+            return ResponseEntity.notFound().build();
         }
+        return pdfResponse(file);
+    }
+
+    private static ResponseEntity<Resource> pdfResponse(Path file) {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_PDF)
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("dispatch_report.pdf").build().toString())
+            .body(new FileSystemResource(file));
     }
 
     @GetMapping(value = "/dispatch/metrics", produces = MediaType.APPLICATION_JSON_VALUE)
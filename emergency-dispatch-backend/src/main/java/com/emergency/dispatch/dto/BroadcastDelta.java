@@ -0,0 +1,15 @@
+package com.emergency.dispatch.dto;
+
+import java.util.List;
+
+/**
+ * Changes to one topic since the previous delta. Versions increase by one per message,
+ * so a client that sees a gap should reload the snapshot. A resync delta carries no rows
+ * and tells clients to reload the snapshot right away (e.g. after a bulk import).
+ */
+public record BroadcastDelta(long version, List<?> upserts, List<Long> removed, boolean resync) {
+
+    public BroadcastDelta(long version, List<?> upserts, List<Long> removed) {
+        this(version, upserts, removed, false);
+    }
+}
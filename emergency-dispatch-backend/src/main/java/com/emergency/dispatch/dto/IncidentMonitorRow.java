@@ -0,0 +1,22 @@
+package com.emergency.dispatch.dto;
+
+import java.util.List;
+
+import com.emergency.dispatch.enums.EmergencyUnitType;
+import com.emergency.dispatch.enums.IncidentStatus;
+import com.emergency.dispatch.enums.IncidentType;
+import com.emergency.dispatch.enums.SeverityLevel;
+
+/**
+ * One incident on the monitor with its active assignments and assignment counts.
+ * Field names match the JSON the monitor pages already read.
+ */
+public record IncidentMonitorRow(Long incidentId, IncidentType type, Double latitude, Double longtitude, Integer needs,
+                                 SeverityLevel severityLevel, Long reportedTime, IncidentStatus status,
+                                 List<ActiveAssignment> activeAssignments, boolean hasActiveAssignments,
+                                 int assignedUnitsCount, boolean hasAssignments, int totalAssignmentsCount) {
+
+    public record ActiveAssignment(Long assignmentId, Long assignmentTime, Boolean isActive, Long unitId,
+                                   EmergencyUnitType unitType, Long userId, String userName) {
+    }
+}
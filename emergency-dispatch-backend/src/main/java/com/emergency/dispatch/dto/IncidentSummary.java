@@ -0,0 +1,12 @@
+package com.emergency.dispatch.dto;
+
+import com.emergency.dispatch.enums.IncidentStatus;
+import com.emergency.dispatch.enums.IncidentType;
+import com.emergency.dispatch.enums.SeverityLevel;
+
+/**
+ * Incident columns without the assignment and notification collections, for list views over history.
+ */
+public record IncidentSummary(Long incidentId, IncidentType type, IncidentStatus status, SeverityLevel severityLevel,
+                              Double latitude, Double longtitude, Integer needs, Long reportedTime) {
+}
@@ -0,0 +1,17 @@
+package com.emergency.dispatch.dto;
+
+import com.emergency.dispatch.enums.EmergencyUnitType;
+import com.emergency.dispatch.enums.IncidentType;
+import com.emergency.dispatch.enums.SeverityLevel;
+
+/**
+ * One unit on the monitor with its active assignment, if any.
+ * Field names match the JSON the monitor pages already read.
+ */
+public record UnitMonitorRow(Long unitID, EmergencyUnitType type, Double latitude, Double longtitude, Integer capacity,
+                             Boolean status, ActiveAssignment activeAssignment, boolean hasActiveAssignment) {
+
+    public record ActiveAssignment(Long assignmentId, Long assignmentTime, Long userId, String userName,
+                                   Long incidentId, IncidentType incidentType, SeverityLevel incidentSeverity) {
+    }
+}
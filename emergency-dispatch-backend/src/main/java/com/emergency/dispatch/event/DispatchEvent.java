@@ -0,0 +1,8 @@
+package com.emergency.dispatch.event;
+
+/**
+ * Marker for domain events the dispatch engine reacts to. Services publish them through
+ * Spring's ApplicationEventPublisher whenever an incident or unit changes.
+ */
+public interface DispatchEvent {
+}
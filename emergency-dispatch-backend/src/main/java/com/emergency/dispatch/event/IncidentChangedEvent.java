@@ -0,0 +1,9 @@
+package com.emergency.dispatch.event;
+
+import com.emergency.dispatch.model.Incident;
+
+/**
+ * An incident was created or its status, severity or position changed.
+ */
+public record IncidentChangedEvent(Incident incident) implements DispatchEvent {
+}
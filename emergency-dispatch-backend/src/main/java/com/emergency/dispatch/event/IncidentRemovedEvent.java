@@ -0,0 +1,7 @@
+package com.emergency.dispatch.event;
+
+/**
+ * An incident was deleted.
+ */
+public record IncidentRemovedEvent(Long incidentId) implements DispatchEvent {
+}
@@ -0,0 +1,10 @@
+package com.emergency.dispatch.event;
+
+import java.util.List;
+
+/**
+ * The dispatch engine committed a pass that sent units to these incidents.
+ * Not a DispatchEvent: the engine publishes it and never consumes it.
+ */
+public record IncidentsDispatchedEvent(List<Long> incidentIds) {
+}
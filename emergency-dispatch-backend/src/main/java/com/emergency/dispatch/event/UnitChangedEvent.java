@@ -0,0 +1,9 @@
+package com.emergency.dispatch.event;
+
+import com.emergency.dispatch.model.EmergencyUnit;
+
+/**
+ * An emergency unit was created, freed, made busy or moved.
+ */
+public record UnitChangedEvent(EmergencyUnit unit) implements DispatchEvent {
+}
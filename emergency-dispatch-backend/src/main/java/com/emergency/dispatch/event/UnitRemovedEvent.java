@@ -0,0 +1,7 @@
+package com.emergency.dispatch.event;
+
+/**
+ * An emergency unit was deleted.
+ */
+public record UnitRemovedEvent(Long unitId) implements DispatchEvent {
+}
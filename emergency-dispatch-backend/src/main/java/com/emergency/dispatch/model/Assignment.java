@@ -11,6 +11,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -20,7 +21,11 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
-@Table (name = "Assignment")
+@Table (name = "Assignment", indexes = {
+    @Index(name = "idx_assignment_active_unit_incident", columnList = "isActive, unit_id, incidentId"),
+    // Time first for analytics over an assignment-time range; covers the utilisation counts and rollup rebuilds
+    @Index(name = "idx_assignment_time_unit_resolution", columnList = "AssignmentTime, unit_id, resolutionTime, isActive, incidentId")
+})
 public class Assignment {
 @Id
 @GeneratedValue(strategy = GenerationType.IDENTITY)    
@@ -13,6 +13,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.EnumType;
@@ -23,7 +24,9 @@ import lombok.NoArgsConstructor;
 @Entity
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name="EmergencyUnit")
+@Table(name="EmergencyUnit", indexes = {
+    @Index(name = "idx_unit_type_status", columnList = "type, status")
+})
 @Data
 @JsonIgnoreProperties({"assignments", "notifications"})
 public class EmergencyUnit {
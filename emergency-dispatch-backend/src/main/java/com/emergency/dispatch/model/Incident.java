@@ -18,6 +18,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.EnumType;
@@ -28,7 +29,12 @@ import lombok.NoArgsConstructor;
 @Entity
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name="Incident")
+@Table(name="Incident", indexes = {
+    // Status first: every hot query filters on the (small) live status set, never on history
+    @Index(name = "idx_incident_status_type_severity_time", columnList = "status, type, severityLevel, reportedTime"),
+    // Time first for analytics and replays over a reported-time range; covers the status/severity counts
+    @Index(name = "idx_incident_time_type_status", columnList = "reportedTime, type, status, severityLevel")
+})
 @Data
 @JsonIgnoreProperties({"assignments", "notifications"})
 public class Incident {
@@ -1,11 +1,15 @@
 package com.emergency.dispatch.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.emergency.dispatch.enums.IncidentStatus;
 import com.emergency.dispatch.model.Assignment;
 import com.emergency.dispatch.model.EmergencyUnit;
 import com.emergency.dispatch.model.User;
@@ -33,10 +37,38 @@ public interface AssignmentRepository extends JpaRepository<Assignment, Long> {
     
     // Find all assignments by incident ID
     List<Assignment> findByIncident_IncidentId(Long incidentId);
+
+    // Find all assignments for a set of incidents
+    List<Assignment> findByIncident_IncidentIdIn(Collection<Long> incidentIds);
+
+    // Active assignments of the given incidents with unit, incident and user in the same query
+    @Query("SELECT a FROM Assignment a JOIN FETCH a.incident i JOIN FETCH a.emergencyUnit LEFT JOIN FETCH a.user"
+         + " WHERE a.isActive = true AND i.incidentId IN :ids")
+    List<Assignment> findActiveByIncidentIdIn(@Param("ids") List<Long> ids);
+
+    // Active assignments of the given units with unit, incident and user in the same query
+    @Query("SELECT a FROM Assignment a JOIN FETCH a.emergencyUnit u JOIN FETCH a.incident LEFT JOIN FETCH a.user"
+         + " WHERE a.isActive = true AND u.unitID IN :ids")
+    List<Assignment> findActiveByUnitIdIn(@Param("ids") List<Long> ids);
+
+    // Number of assignments (active or finished) per given incident: [incidentId, count]
+    @Query("SELECT a.incident.incidentId, COUNT(a) FROM Assignment a WHERE a.incident.incidentId IN :ids"
+         + " GROUP BY a.incident.incidentId")
+    List<Object[]> countByIncidentIdIn(@Param("ids") List<Long> ids);
+
+    // Whether any unit was ever assigned to the incident
+    boolean existsByIncident_IncidentId(Long incidentId);
+
+    // Number of assignments (active or finished) of one incident
+    long countByIncident_IncidentId(Long incidentId);
     
     // Find active assignments by incident ID
     List<Assignment> findByIncident_IncidentIdAndIsActiveTrue(Long incidentId);
     
+    // Number of assignments (active or finished) per incident with the given status: [incidentId, count]
+    @Query("SELECT a.incident.incidentId, COUNT(a) FROM Assignment a WHERE a.incident.status = :status GROUP BY a.incident.incidentId")
+    List<Object[]> countByIncidentStatus(@Param("status") IncidentStatus status);
+
     // Find all assignments by user ID
     List<Assignment> findByUser_UserID(Long userId);
     
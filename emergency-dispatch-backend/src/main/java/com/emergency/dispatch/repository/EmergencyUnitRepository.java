@@ -1,11 +1,35 @@
 package com.emergency.dispatch.repository;
 
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.emergency.dispatch.enums.EmergencyUnitType;
 import com.emergency.dispatch.model.EmergencyUnit;
 
 @Repository
 public interface EmergencyUnitRepository extends JpaRepository<EmergencyUnit, Long> {
 
+    // Find all free units (status = true)
+    List<EmergencyUnit> findByStatusTrue();
+
+    List<EmergencyUnit> findByType(EmergencyUnitType type);
+
+    // Free units of one type
+    List<EmergencyUnit> findByTypeAndStatusTrue(EmergencyUnitType type);
+
+    // Monitor page: units after a keyset ID, optionally inside a bounding box (all four bounds or none)
+    @Query("SELECT u FROM EmergencyUnit u WHERE u.unitID > :afterId"
+         + " AND (:minLat IS NULL OR u.latitude BETWEEN :minLat AND :maxLat)"
+         + " AND (:minLon IS NULL OR u.longtitude BETWEEN :minLon AND :maxLon)"
+         + " ORDER BY u.unitID")
+    List<EmergencyUnit> findMonitorPage(@Param("afterId") Long afterId,
+                                        @Param("minLat") Double minLat, @Param("maxLat") Double maxLat,
+                                        @Param("minLon") Double minLon, @Param("maxLon") Double maxLon,
+                                        Limit limit);
+
 }
@@ -1,9 +1,14 @@
 package com.emergency.dispatch.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.emergency.dispatch.dto.IncidentSummary;
 import com.emergency.dispatch.enums.IncidentStatus;
+import com.emergency.dispatch.enums.SeverityLevel;
 import com.emergency.dispatch.model.Incident;
 
 import java.util.List;
@@ -12,4 +17,31 @@ import java.util.List;
 public interface IncidentRepository extends JpaRepository<Incident, Long> {
     // Find all incidents that are not completed
     List<Incident> findByStatusIn(List<IncidentStatus> statuses);
+
+    // Find all incidents with a single status (e.g. PENDING for the dispatch working set)
+    List<Incident> findByStatus(IncidentStatus status);
+
+    // Everything except one status (e.g. live = not COMPLETED)
+    List<Incident> findByStatusNot(IncidentStatus status);
+
+    List<Incident> findBySeverityLevel(SeverityLevel severityLevel);
+
+    // Keyset pages over one status: pass the last incidentId of the previous page (0 for the first)
+    List<IncidentSummary> findByStatusAndIncidentIdGreaterThanOrderByIncidentIdAsc(IncidentStatus status, Long afterId, Limit limit);
+
+    // Monitor page: incidents after a keyset ID, optionally inside a bounding box (all four bounds or none)
+    @Query("SELECT i FROM Incident i WHERE i.incidentId > :afterId"
+         + " AND (:minLat IS NULL OR i.latitude BETWEEN :minLat AND :maxLat)"
+         + " AND (:minLon IS NULL OR i.longtitude BETWEEN :minLon AND :maxLon)"
+         + " ORDER BY i.incidentId")
+    List<Incident> findMonitorPage(@Param("afterId") Long afterId,
+                                   @Param("minLat") Double minLat, @Param("maxLat") Double maxLat,
+                                   @Param("minLon") Double minLon, @Param("maxLon") Double maxLon,
+                                   Limit limit);
+
+    // Incidents with the given status reported before the cutoff (e.g. overdue PENDING incidents)
+    List<Incident> findByStatusAndReportedTimeLessThan(IncidentStatus status, Long cutoff);
+
+    // Incidents reported in [from, to), oldest first, for replaying a period in capacity planning
+    List<Incident> findByReportedTimeGreaterThanEqualAndReportedTimeLessThanOrderByReportedTimeAsc(Long from, Long to);
 }
@@ -5,10 +5,15 @@ import org.springframework.stereotype.Repository;
 
 import com.emergency.dispatch.model.User;
 
+import java.util.List;
+
 
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     User findUserByUserName(String userName);
     boolean existsByUserName(String userName);
+
+    // Users with a role, e.g. "Admin" (case-insensitive)
+    List<User> findByRoleIgnoreCase(String role);
 }
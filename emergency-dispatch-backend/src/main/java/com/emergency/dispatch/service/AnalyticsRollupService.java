@@ -0,0 +1,377 @@
+package com.emergency.dispatch.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.emergency.dispatch.enums.IncidentType;
+import com.emergency.dispatch.model.Assignment;
+import com.emergency.dispatch.model.Incident;
+import com.emergency.dispatch.service.IOservice.DispatchDecision;
+
+/**
+ * Keeps the analytics summary tables (created in data.sql) in step with the raw incident and
+ * assignment tables, so dashboard queries read one row per bucket instead of scanning history:
+ * <ul>
+ *   <li>incident_rollup_hourly: reported incidents per hour and type</li>
+ *   <li>incident_cell_rollup_daily: reported incidents per day and 0.01 degree cell (heatmap)</li>
+ *   <li>assignment_rollup_hourly: assignments per hour (of assignment time), incident type and unit,
+ *       with count, sum, min and max of resolution time for the completed ones</li>
+ * </ul>
+ * Writers call the record methods inside their own transaction; the rollup update runs once that
+ * transaction commits, in a transaction of its own, so it only counts committed rows and cannot roll
+ * back the write (a deadlock on a hot bucket row would otherwise undo a whole dispatch pass). A failed
+ * rollup update is logged; the nightly reconcile rebuilds recent buckets from the raw tables.
+ */
+@Service
+public class AnalyticsRollupService {
+
+    private static final long HOUR_MS = 3_600_000L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Days before today that the nightly reconcile rebuilds from the raw tables
+    @Value("${analytics.rollup.reconcile-days:2}")
+    private int reconcileDays;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+    // Rollup updates run after the writer's commit, where they need a transaction of their own
+    private TransactionTemplate separateTransaction;
+
+    @PostConstruct
+    public void init() {
+        separateTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        separateTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public void recordIncidents(List<Incident> incidents) {
+        Map<List<Object>, Long> hourly = new HashMap<>();
+        Map<List<Object>, Long> cells = new HashMap<>();
+        for (Incident incident : incidents) {
+            if (incident.getReportedTime() == null || incident.getType() == null) continue;
+            long time = incident.getReportedTime();
+            hourly.merge(List.of(hourStart(time), incident.getType().name()), 1L, Long::sum);
+            if (incident.getLatitude() != null && incident.getLongtitude() != null) {
+                cells.merge(List.of(dayStart(time), cell(incident.getLatitude()), cell(incident.getLongtitude())), 1L, Long::sum);
+            }
+        }
+        if (hourly.isEmpty() && cells.isEmpty()) return;
+        afterCommit(incidents.size() + " incidents", () -> upsertIncidentCounts(hourly, cells));
+    }
+
+    public void recordAssigned(Long assignmentTime, IncidentType incidentType, Long unitId) {
+        Map<List<Object>, Long> assigned = new HashMap<>();
+        addAssigned(assigned, assignmentTime, incidentType, unitId);
+        upsertAssigned(assigned);
+    }
+
+    public void recordAssigned(List<DispatchDecision> decisions) {
+        Map<List<Object>, Long> assigned = new HashMap<>();
+        for (DispatchDecision decision : decisions) {
+            addAssigned(assigned, decision.assignmentTime(), decision.incident().getType(), decision.unit().getUnitID());
+        }
+        upsertAssigned(assigned);
+    }
+
+    /**
+     * Count a completed assignment; its resolution time must already be set (duration in ms).
+     */
+    public void recordCompleted(Assignment assignment) {
+        if (assignment.getAssignmentTime() == null || assignment.getResolutionTime() == null
+                || assignment.getIncident() == null || assignment.getEmergencyUnit() == null) {
+            return;
+        }
+        long resolution = assignment.getResolutionTime();
+        long bucketStart = hourStart(assignment.getAssignmentTime());
+        String incidentType = assignment.getIncident().getType().name();
+        Long unitId = assignment.getEmergencyUnit().getUnitID();
+        afterCommit("completion of assignment " + assignment.getAssignmentId(), () -> jdbcTemplate.update(
+                "INSERT INTO assignment_rollup_hourly (bucket_start, incident_type, unit_id, assigned, completed, " +
+                    "total_resolution_ms, min_resolution_ms, max_resolution_ms) VALUES (?, ?, ?, 0, 1, ?, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE completed = completed + 1, " +
+                    "total_resolution_ms = total_resolution_ms + VALUES(total_resolution_ms), " +
+                    "min_resolution_ms = LEAST(COALESCE(min_resolution_ms, VALUES(min_resolution_ms)), VALUES(min_resolution_ms)), " +
+                    "max_resolution_ms = GREATEST(COALESCE(max_resolution_ms, VALUES(max_resolution_ms)), VALUES(max_resolution_ms))",
+                bucketStart, incidentType, unitId, resolution, resolution, resolution));
+    }
+
+    /**
+     * Recompute, from the raw tables, the rollup rows an edited or deleted incident was or is counted
+     * in: its hourly and cell buckets before and after (null when deleted) and the buckets of its
+     * assignments under both types. A delta would not do for the assignment rows, whose min and max
+     * resolution cannot be taken back, and edits can reach buckets older than the nightly reconcile.
+     * before must be a copy taken before the change; assignments are the incident's, read before it.
+     */
+    public void refreshIncidentBuckets(Incident before, Incident after, List<Assignment> assignments) {
+        Set<List<Object>> hours = new LinkedHashSet<>();
+        Set<List<Object>> cells = new LinkedHashSet<>();
+        Set<List<Object>> assignmentRows = new LinkedHashSet<>();
+        for (Incident version : after == null ? List.of(before) : List.of(before, after)) {
+            if (version.getType() == null) continue;
+            String type = version.getType().name();
+            if (version.getReportedTime() != null) {
+                long time = version.getReportedTime();
+                hours.add(List.of(hourStart(time), type));
+                if (version.getLatitude() != null && version.getLongtitude() != null) {
+                    cells.add(List.of(dayStart(time), cell(version.getLatitude()), cell(version.getLongtitude())));
+                }
+            }
+            for (Assignment assignment : assignments) {
+                if (assignment.getAssignmentTime() == null || assignment.getEmergencyUnit() == null) continue;
+                assignmentRows.add(List.of(hourStart(assignment.getAssignmentTime()), type, assignment.getEmergencyUnit().getUnitID()));
+            }
+        }
+        if (hours.isEmpty() && cells.isEmpty() && assignmentRows.isEmpty()) return;
+        afterCommit("buckets of incident " + before.getIncidentId(), () -> {
+            hours.forEach(this::recomputeIncidentHour);
+            cells.forEach(this::recomputeIncidentCell);
+            assignmentRows.forEach(this::recomputeAssignmentRow);
+        });
+    }
+
+    /**
+     * Fill the rollups from the raw tables once if they are empty but history exists (first start
+     * after upgrading). Runs in the background; dashboards show partial numbers until it finishes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        Long rolledUp = jdbcTemplate.queryForObject(
+            "SELECT (SELECT COUNT(*) FROM incident_rollup_hourly) + (SELECT COUNT(*) FROM assignment_rollup_hourly)", Long.class);
+        if (rolledUp != null && rolledUp > 0) return;
+        if (earliestRawTime() == null) return;
+        Thread backfill = new Thread(() -> rebuild(0L, System.currentTimeMillis()), "analytics-rollup-backfill");
+        backfill.setDaemon(true);
+        backfill.start();
+    }
+
+    /**
+     * Rebuild the last few days so rows changed without going through the writers
+     * (manual edits, failed rollup updates) are reflected again.
+     */
+    @Scheduled(cron = "${analytics.rollup.reconcile-cron:0 15 3 * * *}")
+    public void reconcileRecent() {
+        long from = LocalDate.now(zone).minusDays(reconcileDays).atStartOfDay(zone).toInstant().toEpochMilli();
+        rebuild(from, System.currentTimeMillis());
+    }
+
+    /**
+     * Recompute every bucket between fromMs and toMs from the raw tables, one day per transaction.
+     * The range is widened to whole days; fromMs 0 starts at the oldest raw row.
+     * Returns false if another rebuild is already running.
+     */
+    public boolean rebuild(long fromMs, long toMs) {
+        if (!rebuilding.compareAndSet(false, true)) return false;
+        long start = System.currentTimeMillis();
+        int days = 0;
+        try {
+            if (fromMs <= 0) {
+                Long earliest = earliestRawTime();
+                if (earliest == null) return true;
+                fromMs = earliest;
+            }
+            long dayStart = dayStart(fromMs);
+            while (dayStart <= toMs) {
+                long dayEnd = Instant.ofEpochMilli(dayStart).atZone(zone).plusDays(1).toInstant().toEpochMilli();
+                long from = dayStart;
+                transactionTemplate.executeWithoutResult(status -> rebuildDay(from, dayEnd));
+                dayStart = dayEnd;
+                days++;
+            }
+            System.out.println("[AnalyticsRollupService] Rebuilt " + days + " days of rollups in "
+                + (System.currentTimeMillis() - start) + " ms");
+            return true;
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("rebuilding", rebuilding.get());
+        status.put("incidentHourlyRows", jdbcTemplate.queryForObject("SELECT COUNT(*) FROM incident_rollup_hourly", Long.class));
+        status.put("incidentCellDailyRows", jdbcTemplate.queryForObject("SELECT COUNT(*) FROM incident_cell_rollup_daily", Long.class));
+        status.put("assignmentHourlyRows", jdbcTemplate.queryForObject("SELECT COUNT(*) FROM assignment_rollup_hourly", Long.class));
+        return status;
+    }
+
+    private Long earliestRawTime() {
+        Long earliest = jdbcTemplate.queryForObject(
+            "SELECT LEAST(COALESCE((SELECT MIN(reported_time) FROM incident), 9223372036854775807), " +
+                "COALESCE((SELECT MIN(assignment_time) FROM assignment), 9223372036854775807))", Long.class);
+        return earliest == null || earliest == Long.MAX_VALUE ? null : earliest;
+    }
+
+    private void rebuildDay(long from, long to) {
+        jdbcTemplate.update("DELETE FROM incident_rollup_hourly WHERE bucket_start >= ? AND bucket_start < ?", from, to);
+        jdbcTemplate.update(
+            "INSERT INTO incident_rollup_hourly (bucket_start, type, cnt) " +
+                "SELECT FLOOR(reported_time / 3600000) * 3600000, type, COUNT(*) FROM incident " +
+                "WHERE reported_time >= ? AND reported_time < ? AND type IS NOT NULL " +
+                "GROUP BY FLOOR(reported_time / 3600000), type",
+            from, to);
+
+        // The whole range is one day, so every cell goes into the same daily bucket
+        jdbcTemplate.update("DELETE FROM incident_cell_rollup_daily WHERE bucket_start >= ? AND bucket_start < ?", from, to);
+        jdbcTemplate.update(
+            "INSERT INTO incident_cell_rollup_daily (bucket_start, lat_cell, lon_cell, cnt) " +
+                "SELECT ?, ROUND(latitude, 2), ROUND(longtitude, 2), COUNT(*) FROM incident " +
+                "WHERE reported_time >= ? AND reported_time < ? AND latitude IS NOT NULL AND longtitude IS NOT NULL " +
+                "GROUP BY ROUND(latitude, 2), ROUND(longtitude, 2)",
+            from, from, to);
+
+        jdbcTemplate.update("DELETE FROM assignment_rollup_hourly WHERE bucket_start >= ? AND bucket_start < ?", from, to);
+        jdbcTemplate.update(
+            "INSERT INTO assignment_rollup_hourly (bucket_start, incident_type, unit_id, assigned, completed, " +
+                "total_resolution_ms, min_resolution_ms, max_resolution_ms) " +
+                "SELECT FLOOR(a.assignment_time / 3600000) * 3600000, i.type, a.unit_id, COUNT(*), " +
+                "COUNT(a.resolution_time), COALESCE(SUM(a.resolution_time), 0), MIN(a.resolution_time), MAX(a.resolution_time) " +
+                "FROM assignment a JOIN incident i ON a.incident_id = i.incident_id " +
+                "WHERE a.assignment_time >= ? AND a.assignment_time < ? AND a.unit_id IS NOT NULL AND i.type IS NOT NULL " +
+                "GROUP BY FLOOR(a.assignment_time / 3600000), i.type, a.unit_id",
+            from, to);
+    }
+
+    // key: bucket_start, type
+    private void recomputeIncidentHour(List<Object> key) {
+        long from = (Long) key.get(0);
+        jdbcTemplate.update("DELETE FROM incident_rollup_hourly WHERE bucket_start = ? AND type = ?", key.get(0), key.get(1));
+        jdbcTemplate.update(
+            "INSERT INTO incident_rollup_hourly (bucket_start, type, cnt) " +
+                "SELECT ?, type, COUNT(*) FROM incident WHERE reported_time >= ? AND reported_time < ? AND type = ? GROUP BY type",
+            from, from, from + HOUR_MS, key.get(1));
+    }
+
+    // key: bucket_start, lat_cell, lon_cell
+    private void recomputeIncidentCell(List<Object> key) {
+        long from = (Long) key.get(0);
+        long to = Instant.ofEpochMilli(from).atZone(zone).plusDays(1).toInstant().toEpochMilli();
+        jdbcTemplate.update("DELETE FROM incident_cell_rollup_daily WHERE bucket_start = ? AND lat_cell = ? AND lon_cell = ?",
+            key.get(0), key.get(1), key.get(2));
+        jdbcTemplate.update(
+            "INSERT INTO incident_cell_rollup_daily (bucket_start, lat_cell, lon_cell, cnt) " +
+                "SELECT ?, ROUND(latitude, 2), ROUND(longtitude, 2), COUNT(*) FROM incident " +
+                "WHERE reported_time >= ? AND reported_time < ? AND ROUND(latitude, 2) = ? AND ROUND(longtitude, 2) = ? " +
+                "GROUP BY ROUND(latitude, 2), ROUND(longtitude, 2)",
+            from, from, to, key.get(1), key.get(2));
+    }
+
+    // key: bucket_start, incident_type, unit_id
+    private void recomputeAssignmentRow(List<Object> key) {
+        long from = (Long) key.get(0);
+        jdbcTemplate.update("DELETE FROM assignment_rollup_hourly WHERE bucket_start = ? AND incident_type = ? AND unit_id = ?",
+            key.get(0), key.get(1), key.get(2));
+        jdbcTemplate.update(
+            "INSERT INTO assignment_rollup_hourly (bucket_start, incident_type, unit_id, assigned, completed, " +
+                "total_resolution_ms, min_resolution_ms, max_resolution_ms) " +
+                "SELECT ?, i.type, a.unit_id, COUNT(*), " +
+                "COUNT(a.resolution_time), COALESCE(SUM(a.resolution_time), 0), MIN(a.resolution_time), MAX(a.resolution_time) " +
+                "FROM assignment a JOIN incident i ON a.incident_id = i.incident_id " +
+                "WHERE a.assignment_time >= ? AND a.assignment_time < ? AND a.unit_id = ? AND i.type = ? " +
+                "GROUP BY i.type, a.unit_id",
+            from, from, from + HOUR_MS, key.get(2), key.get(1));
+    }
+
+    private void upsertIncidentCounts(Map<List<Object>, Long> hourly, Map<List<Object>, Long> cells) {
+        if (!hourly.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO incident_rollup_hourly (bucket_start, type, cnt) VALUES (?, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE cnt = cnt + VALUES(cnt)",
+                toArgs(hourly));
+        }
+        if (!cells.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO incident_cell_rollup_daily (bucket_start, lat_cell, lon_cell, cnt) VALUES (?, ?, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE cnt = cnt + VALUES(cnt)",
+                toArgs(cells));
+        }
+    }
+
+    private void upsertAssigned(Map<List<Object>, Long> assigned) {
+        if (assigned.isEmpty()) return;
+        afterCommit(assigned.size() + " assignment buckets", () -> jdbcTemplate.batchUpdate(
+            "INSERT INTO assignment_rollup_hourly (bucket_start, incident_type, unit_id, assigned, completed, total_resolution_ms) " +
+                "VALUES (?, ?, ?, ?, 0, 0) ON DUPLICATE KEY UPDATE assigned = assigned + VALUES(assigned)",
+            toArgs(assigned)));
+    }
+
+    /**
+     * Run a rollup update in its own transaction once the caller's transaction has committed
+     * (dropped if it rolls back), or right away when there is none. Failures are logged only.
+     */
+    private void afterCommit(String what, Runnable update) {
+        Runnable logged = () -> {
+            try {
+                separateTransaction.executeWithoutResult(status -> update.run());
+            } catch (Exception e) {
+                System.err.println("[AnalyticsRollupService] Failed to record " + what + ": " + e.getMessage());
+            }
+        };
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            logged.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                logged.run();
+            }
+        });
+    }
+
+    private void addAssigned(Map<List<Object>, Long> assigned, Long assignmentTime, IncidentType incidentType, Long unitId) {
+        if (assignmentTime == null || incidentType == null || unitId == null) return;
+        assigned.merge(List.of(hourStart(assignmentTime), incidentType.name(), unitId), 1L, Long::sum);
+    }
+
+    private static List<Object[]> toArgs(Map<List<Object>, Long> counts) {
+        List<Object[]> args = new ArrayList<>(counts.size());
+        counts.forEach((key, count) -> {
+            Object[] row = key.toArray(new Object[key.size() + 1]);
+            row[key.size()] = count;
+            args.add(row);
+        });
+        return args;
+    }
+
+    private static long hourStart(long epochMs) {
+        return Math.floorDiv(epochMs, HOUR_MS) * HOUR_MS;
+    }
+
+    private long dayStart(long epochMs) {
+        return Instant.ofEpochMilli(epochMs).atZone(zone).truncatedTo(ChronoUnit.DAYS).toInstant().toEpochMilli();
+    }
+
+    // 0.01 degree heatmap cell, as ROUND(x, 2) in the rebuild queries
+    private static java.math.BigDecimal cell(double coordinate) {
+        return java.math.BigDecimal.valueOf(coordinate).setScale(2, java.math.RoundingMode.HALF_UP);
+    }
+}
@@ -5,11 +5,16 @@ import java.util.Optional;
 
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
 
+import com.emergency.dispatch.config.CacheConfig;
 import com.emergency.dispatch.enums.IncidentStatus;
+import com.emergency.dispatch.event.IncidentChangedEvent;
+import com.emergency.dispatch.event.UnitChangedEvent;
 import com.emergency.dispatch.model.Assignment;
 import com.emergency.dispatch.model.EmergencyUnit;
 import com.emergency.dispatch.model.Incident;
@@ -45,9 +50,17 @@ public class AssignmentService {
     @Autowired
     private IncidentMonitorService incidentMonitorService;
 
+    @Autowired
+    private AnalyticsRollupService analyticsRollupService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Public method with retry logic for handling deadlocks
      */
+    @CacheEvict(cacheNames = {CacheConfig.INCIDENTS, CacheConfig.EMERGENCY_UNITS,
+        CacheConfig.INCIDENTS_MONITOR, CacheConfig.UNITS_MONITOR}, allEntries = true)
     public Assignment createAssignment(Long userId, Long incidentId, Long unitId) {
         int maxRetries = 3;
         int retryCount = 0;
@@ -107,6 +120,9 @@ public class AssignmentService {
         assignment.setIsActive(true);
         assignment.setResolutionTime(null);
         Assignment savedAssignment = assignmentRepository.save(assignment);
+        analyticsRollupService.recordAssigned(savedAssignment.getAssignmentTime(), incident.getType(), emergencyUnit.getUnitID());
+        eventPublisher.publishEvent(new IncidentChangedEvent(incident));
+        eventPublisher.publishEvent(new UnitChangedEvent(emergencyUnit));
         try {
             incidentMonitorService.broadcastIncidentUpdate(incidentId);
             messagingTemplate.convertAndSend("/topic/assignments", (Object) savedAssignment);
@@ -120,6 +136,8 @@ public class AssignmentService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.INCIDENTS, CacheConfig.EMERGENCY_UNITS,
+        CacheConfig.INCIDENTS_MONITOR, CacheConfig.UNITS_MONITOR}, allEntries = true)
     public Assignment deactivateAssignment(Long assignmentId) {
         Assignment assignment = assignmentRepository.findById(assignmentId)
                 .orElseThrow(() -> new RuntimeException("Assignment with ID " + assignmentId + " not found"));
@@ -128,14 +146,17 @@ public class AssignmentService {
             throw new RuntimeException("Assignment is already inactive");
         }
 
-        // Set resolution time to now (epoch ms)
-        assignment.setResolutionTime(System.currentTimeMillis());
+        // Resolution time is the duration in ms, as everywhere else assignments are completed
+        assignment.setResolutionTime(assignment.getAssignmentTime() != null
+            ? System.currentTimeMillis() - assignment.getAssignmentTime() : null);
         assignment.setIsActive(false);
+        analyticsRollupService.recordCompleted(assignment);
 
         // Set emergency unit status to inactive
         EmergencyUnit emergencyUnit = assignment.getEmergencyUnit();
         emergencyUnit.setStatus(false);
         emergencyUnitRepository.save(emergencyUnit);
+        eventPublisher.publishEvent(new UnitChangedEvent(emergencyUnit));
 
         Assignment savedAssignment = assignmentRepository.save(assignment);
         
@@ -208,6 +229,8 @@ public class AssignmentService {
     }
 
 
+    @CacheEvict(cacheNames = {CacheConfig.INCIDENTS, CacheConfig.EMERGENCY_UNITS,
+        CacheConfig.INCIDENTS_MONITOR, CacheConfig.UNITS_MONITOR}, allEntries = true)
     public void deleteAssignment(Long assignmentId) {
         if (!assignmentRepository.existsById(assignmentId)) {
             throw new RuntimeException("Assignment with ID " + assignmentId + " not found");
@@ -0,0 +1,176 @@
+package com.emergency.dispatch.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.emergency.dispatch.dto.BroadcastDelta;
+import com.emergency.dispatch.event.DispatchEvent;
+import com.emergency.dispatch.event.IncidentRemovedEvent;
+import com.emergency.dispatch.event.UnitRemovedEvent;
+import com.emergency.dispatch.model.Assignment;
+import com.emergency.dispatch.model.EmergencyUnit;
+import com.emergency.dispatch.model.Incident;
+import com.emergency.dispatch.repository.AssignmentRepository;
+import com.emergency.dispatch.repository.EmergencyUnitRepository;
+import com.emergency.dispatch.repository.IncidentRepository;
+
+/**
+ * Collects the IDs of incidents, units and assignments that changed during a short window
+ * and publishes one delta per topic instead of pushing whole tables after every change.
+ */
+@Service
+public class BroadcastCoalescer {
+
+    public static final String INCIDENTS_DELTA_TOPIC = "/topic/incidents/delta";
+    public static final String UNITS_DELTA_TOPIC = "/topic/emergency-units/delta";
+    public static final String ASSIGNMENTS_DELTA_TOPIC = "/topic/assignments/delta";
+
+    @Autowired
+    private IncidentRepository incidentRepository;
+
+    @Autowired
+    private EmergencyUnitRepository emergencyUnitRepository;
+
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    private final AtomicLong incidentsVersion = new AtomicLong();
+    private final AtomicLong unitsVersion = new AtomicLong();
+    private final AtomicLong assignmentsVersion = new AtomicLong();
+
+    // Guarded by this
+    private Set<Long> changedIncidents = new HashSet<>();
+    private Set<Long> removedIncidents = new HashSet<>();
+    private Set<Long> changedUnits = new HashSet<>();
+    private Set<Long> removedUnits = new HashSet<>();
+    private Set<Long> changedAssignmentIncidents = new HashSet<>();
+    private boolean unitsResync;
+
+    public synchronized void incidentChanged(Long incidentId) {
+        changedIncidents.add(incidentId);
+    }
+
+    public synchronized void incidentRemoved(Long incidentId) {
+        removedIncidents.add(incidentId);
+    }
+
+    public synchronized void unitChanged(Long unitId) {
+        changedUnits.add(unitId);
+    }
+
+    public synchronized void unitRemoved(Long unitId) {
+        removedUnits.add(unitId);
+    }
+
+    /**
+     * Deletions reach delta clients once the deleting transaction has committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDispatchEvent(DispatchEvent event) {
+        if (event instanceof IncidentRemovedEvent e) {
+            incidentRemoved(e.incidentId());
+        } else if (event instanceof UnitRemovedEvent e) {
+            unitRemoved(e.unitId());
+        }
+    }
+
+    /**
+     * Assignments of the incident were created or completed; their units are refreshed too.
+     */
+    public synchronized void assignmentsChanged(Long incidentId) {
+        changedAssignmentIncidents.add(incidentId);
+    }
+
+    /**
+     * Too many units changed to send as rows; clients reload the snapshot instead.
+     */
+    public synchronized void unitsResync() {
+        unitsResync = true;
+    }
+
+    @Scheduled(fixedDelayString = "${broadcast.coalesce-window-ms:200}")
+    public void flush() {
+        Set<Long> incidents;
+        Set<Long> incidentsGone;
+        Set<Long> units;
+        Set<Long> unitsGone;
+        Set<Long> assignmentIncidents;
+        boolean resyncUnits;
+        synchronized (this) {
+            if (changedIncidents.isEmpty() && removedIncidents.isEmpty() && changedUnits.isEmpty()
+                    && removedUnits.isEmpty() && changedAssignmentIncidents.isEmpty() && !unitsResync) {
+                return;
+            }
+            resyncUnits = unitsResync;
+            unitsResync = false;
+            incidents = changedIncidents;
+            incidentsGone = removedIncidents;
+            units = changedUnits;
+            unitsGone = removedUnits;
+            assignmentIncidents = changedAssignmentIncidents;
+            changedIncidents = new HashSet<>();
+            removedIncidents = new HashSet<>();
+            changedUnits = new HashSet<>();
+            removedUnits = new HashSet<>();
+            changedAssignmentIncidents = new HashSet<>();
+        }
+        try {
+            if (!assignmentIncidents.isEmpty()) {
+                List<Assignment> assignments = assignmentRepository.findByIncident_IncidentIdIn(assignmentIncidents);
+                for (Assignment assignment : assignments) {
+                    if (assignment.getEmergencyUnit() != null) {
+                        units.add(assignment.getEmergencyUnit().getUnitID());
+                    }
+                }
+                messagingTemplate.convertAndSend(ASSIGNMENTS_DELTA_TOPIC,
+                    new BroadcastDelta(assignmentsVersion.incrementAndGet(), assignments, List.of()));
+            }
+            incidents.removeAll(incidentsGone);
+            if (!incidents.isEmpty() || !incidentsGone.isEmpty()) {
+                List<Incident> rows = incidents.isEmpty() ? List.of() : incidentRepository.findAllById(incidents);
+                messagingTemplate.convertAndSend(INCIDENTS_DELTA_TOPIC,
+                    new BroadcastDelta(incidentsVersion.incrementAndGet(), rows, new ArrayList<>(incidentsGone)));
+            }
+            units.removeAll(unitsGone);
+            if (resyncUnits) {
+                messagingTemplate.convertAndSend(UNITS_DELTA_TOPIC,
+                    new BroadcastDelta(unitsVersion.incrementAndGet(), List.of(), List.of(), true));
+            } else if (!units.isEmpty() || !unitsGone.isEmpty()) {
+                List<EmergencyUnit> rows = units.isEmpty() ? List.of() : emergencyUnitRepository.findAllById(units);
+                messagingTemplate.convertAndSend(UNITS_DELTA_TOPIC,
+                    new BroadcastDelta(unitsVersion.incrementAndGet(), rows, new ArrayList<>(unitsGone)));
+            }
+        } catch (Exception e) {
+            System.err.println("[BroadcastCoalescer] Failed to publish deltas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Full state plus the delta version it corresponds to, for clients that detected a gap.
+     * Versions are read first, so any later delta is newer than the rows returned here.
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new HashMap<>();
+        snapshot.put("incidentsVersion", incidentsVersion.get());
+        snapshot.put("unitsVersion", unitsVersion.get());
+        snapshot.put("assignmentsVersion", assignmentsVersion.get());
+        snapshot.put("incidents", incidentRepository.findAll());
+        snapshot.put("units", emergencyUnitRepository.findAll());
+        snapshot.put("assignments", assignmentRepository.findByIsActiveTrue());
+        return snapshot;
+    }
+}
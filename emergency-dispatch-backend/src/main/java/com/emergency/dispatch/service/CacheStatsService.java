@@ -0,0 +1,62 @@
+package com.emergency.dispatch.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Hit/miss counters of the read-through caches, whichever backend is in use.
+ * Redis counters are kept by this instance, so they cover only the requests it served.
+ */
+@Service
+public class CacheStatsService {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    public Map<String, Object> stats() {
+        Map<String, Object> caches = new LinkedHashMap<>();
+        String backend = "none";
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            long hits;
+            long misses;
+            Map<String, Object> entry = new LinkedHashMap<>();
+            if (cache instanceof RedisCache redisCache) {
+                backend = "redis";
+                CacheStatistics statistics = redisCache.getStatistics();
+                hits = statistics.getHits();
+                misses = statistics.getMisses();
+                entry.put("puts", statistics.getPuts());
+                entry.put("deletes", statistics.getDeletes());
+            } else if (cache instanceof CaffeineCache caffeineCache) {
+                backend = "caffeine";
+                CacheStats statistics = caffeineCache.getNativeCache().stats();
+                hits = statistics.hitCount();
+                misses = statistics.missCount();
+                entry.put("size", caffeineCache.getNativeCache().estimatedSize());
+                entry.put("evictions", statistics.evictionCount());
+            } else {
+                continue;
+            }
+            long requests = hits + misses;
+            entry.put("hits", hits);
+            entry.put("misses", misses);
+            entry.put("hitRatio", requests == 0 ? 0.0 : (double) hits / requests);
+            caches.put(name, entry);
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("backend", backend);
+        result.put("caches", caches);
+        return result;
+    }
+}
@@ -6,9 +6,12 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import com.emergency.dispatch.config.CacheConfig;
+import com.emergency.dispatch.dto.UnitMonitorRow;
 import com.emergency.dispatch.model.Assignment;
 import com.emergency.dispatch.model.EmergencyUnit;
 import com.emergency.dispatch.repository.AssignmentRepository;
@@ -16,6 +19,11 @@ import com.emergency.dispatch.repository.EmergencyUnitRepository;
 
 
 
+/**
+ * Builds the unit monitor view. A page costs two queries no matter how many units it holds:
+ * the units, and their active assignments with incident and user fetched in the same query
+ * (one query per 1000 units, so an unpaged call stays under MySQL's placeholder limit).
+ */
 @Service
 public class EmergencyUnitMonitorService {
 
@@ -31,48 +39,59 @@ public class EmergencyUnitMonitorService {
     /**
      * Get all emergency units with their current assignment status
      */
-    public List<Map<String, Object>> getAllUnitsWithStatus() {
-        List<EmergencyUnit> units = emergencyUnitRepository.findAll();
-        List<Map<String, Object>> unitsData = new ArrayList<>();
+    public List<UnitMonitorRow> getAllUnitsWithStatus() {
+        return getUnitsWithStatus(0L, null, null, null, null, null);
+    }
 
-        for (EmergencyUnit unit : units) {
-            Map<String, Object> unitData = new HashMap<>();
-            unitData.put("unitID", unit.getUnitID());
-            unitData.put("type", unit.getType());
-            unitData.put("latitude", unit.getLatitude());
-            unitData.put("longtitude", unit.getLongtitude());
-            unitData.put("capacity", unit.getCapacity());
-            unitData.put("status", unit.getStatus());
-
-            // Get active assignment if exists
-            List<Assignment> activeAssignments = assignmentRepository.findByEmergencyUnitAndIsActiveTrue(unit);
-            if (!activeAssignments.isEmpty()) {
-                Assignment activeAssignment = activeAssignments.get(0);
-                Map<String, Object> assignmentInfo = new HashMap<>();
-                assignmentInfo.put("assignmentId", activeAssignment.getAssignmentId());
-                assignmentInfo.put("assignmentTime", activeAssignment.getAssignmentTime());
-                assignmentInfo.put("userId", activeAssignment.getUser().getUserID());
-                assignmentInfo.put("userName", activeAssignment.getUser().getUserName());
-                assignmentInfo.put("incidentId", activeAssignment.getIncident().getIncidentId());
-                assignmentInfo.put("incidentType", activeAssignment.getIncident().getType());
-                assignmentInfo.put("incidentSeverity", activeAssignment.getIncident().getSeverityLevel());
-                
-                unitData.put("activeAssignment", assignmentInfo);
-                unitData.put("hasActiveAssignment", true);
-            } else {
-                unitData.put("activeAssignment", null);
-                unitData.put("hasActiveAssignment", false);
-            }
-
-            unitsData.add(unitData);
+    /**
+     * Units with an ID above afterId, in ID order, at most limit of them (null = all).
+     * The bounding box is optional but must be given with all four bounds or none.
+     */
+    @Cacheable(CacheConfig.UNITS_MONITOR)
+    public List<UnitMonitorRow> getUnitsWithStatus(Long afterId, Integer limit,
+                                                   Double minLat, Double maxLat, Double minLon, Double maxLon) {
+        MonitorBounds.check(minLat, maxLat, minLon, maxLon);
+        List<EmergencyUnit> units = emergencyUnitRepository.findMonitorPage(afterId == null ? 0L : afterId,
+            minLat, maxLat, minLon, maxLon, MonitorBounds.limit(limit));
+        return buildRows(units);
+    }
+
+    private List<UnitMonitorRow> buildRows(List<EmergencyUnit> units) {
+        if (units.isEmpty()) return new ArrayList<>();
+        // Only the page's own IDs: a filtered page can span a wide, sparse ID range
+        List<Long> ids = units.stream().map(EmergencyUnit::getUnitID).toList();
+
+        Map<Long, UnitMonitorRow.ActiveAssignment> activeByUnit = new HashMap<>();
+        for (Assignment assignment : MonitorBounds.inChunks(ids, assignmentRepository::findActiveByUnitIdIn)) {
+            activeByUnit.putIfAbsent(assignment.getEmergencyUnit().getUnitID(), new UnitMonitorRow.ActiveAssignment(
+                assignment.getAssignmentId(),
+                assignment.getAssignmentTime(),
+                assignment.getUser() != null ? assignment.getUser().getUserID() : null,
+                assignment.getUser() != null ? assignment.getUser().getUserName() : null,
+                assignment.getIncident().getIncidentId(),
+                assignment.getIncident().getType(),
+                assignment.getIncident().getSeverityLevel()));
         }
 
-        return unitsData;
+        List<UnitMonitorRow> rows = new ArrayList<>(units.size());
+        for (EmergencyUnit unit : units) {
+            UnitMonitorRow.ActiveAssignment active = activeByUnit.get(unit.getUnitID());
+            rows.add(new UnitMonitorRow(
+                unit.getUnitID(),
+                unit.getType(),
+                unit.getLatitude(),
+                unit.getLongtitude(),
+                unit.getCapacity(),
+                unit.getStatus(),
+                active,
+                active != null));
+        }
+        return rows;
     }
 
     
     public void broadcastAllUnitsStatus() {
-        List<Map<String, Object>> unitsData = getAllUnitsWithStatus();
+        List<UnitMonitorRow> unitsData = getAllUnitsWithStatus();
         messagingTemplate.convertAndSend("/topic/units-monitor", (Object) unitsData);
     }
 
@@ -80,34 +99,7 @@ public class EmergencyUnitMonitorService {
     public void broadcastUnitStatusUpdate(Long unitId) {
         EmergencyUnit unit = emergencyUnitRepository.findById(unitId).orElse(null);
         if (unit != null) {
-            Map<String, Object> unitData = new HashMap<>();
-            unitData.put("unitID", unit.getUnitID());
-            unitData.put("type", unit.getType());
-            unitData.put("latitude", unit.getLatitude());
-            unitData.put("longtitude", unit.getLongtitude());
-            unitData.put("capacity", unit.getCapacity());
-            unitData.put("status", unit.getStatus());
-
-            // Get active assignment if exists
-            List<Assignment> activeAssignments = assignmentRepository.findByEmergencyUnitAndIsActiveTrue(unit);
-            if (!activeAssignments.isEmpty()) {
-                Assignment activeAssignment = activeAssignments.get(0);
-                Map<String, Object> assignmentInfo = new HashMap<>();
-                assignmentInfo.put("assignmentId", activeAssignment.getAssignmentId());
-                assignmentInfo.put("assignmentTime", activeAssignment.getAssignmentTime());
-                assignmentInfo.put("userId", activeAssignment.getUser().getUserID());
-                assignmentInfo.put("userName", activeAssignment.getUser().getUserName());
-                assignmentInfo.put("incidentId", activeAssignment.getIncident().getIncidentId());
-                assignmentInfo.put("incidentType", activeAssignment.getIncident().getType());
-                assignmentInfo.put("incidentSeverity", activeAssignment.getIncident().getSeverityLevel());
-                
-                unitData.put("activeAssignment", assignmentInfo);
-                unitData.put("hasActiveAssignment", true);
-            } else {
-                unitData.put("activeAssignment", null);
-                unitData.put("hasActiveAssignment", false);
-            }
-
+            UnitMonitorRow unitData = buildRows(List.of(unit)).get(0);
             messagingTemplate.convertAndSend("/topic/units-monitor/update", (Object) unitData);
         }
     }
@@ -6,9 +6,13 @@ import java.util.Set;
 import java.util.HashSet;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.emergency.dispatch.config.CacheConfig;
 import com.emergency.dispatch.model.EmergencyUnit;
 import com.emergency.dispatch.model.Assignment;
 import com.emergency.dispatch.model.Incident;
@@ -17,6 +21,9 @@ import com.emergency.dispatch.repository.AssignmentRepository;
 import com.emergency.dispatch.repository.IncidentRepository;
 import com.emergency.dispatch.enums.IncidentStatus;
 import com.emergency.dispatch.enums.EmergencyUnitType;
+import com.emergency.dispatch.event.IncidentChangedEvent;
+import com.emergency.dispatch.event.UnitChangedEvent;
+import com.emergency.dispatch.event.UnitRemovedEvent;
 
 @Service
 public class EmergencyUnitService {
@@ -36,9 +43,14 @@ public class EmergencyUnitService {
     @Autowired
     private IncidentMonitorService incidentMonitorService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @CacheEvict(cacheNames = {CacheConfig.EMERGENCY_UNITS, CacheConfig.UNITS_MONITOR}, allEntries = true)
     public EmergencyUnit createEmergencyUnit(EmergencyUnit emergencyUnit) {
         try {
             EmergencyUnit savedUnit = emergencyUnitRepository.save(emergencyUnit);
+            eventPublisher.publishEvent(new UnitChangedEvent(savedUnit));
             // Broadcast the new unit to monitoring system
             monitorService.broadcastUnitStatusUpdate(savedUnit.getUnitID());
             return savedUnit;
@@ -52,17 +64,17 @@ public class EmergencyUnitService {
         return emergencyUnitRepository.findById(unitID);
     }
 
+    @Cacheable(cacheNames = CacheConfig.EMERGENCY_UNITS, key = "'all'")
     public List<EmergencyUnit> getAllEmergencyUnits() {
         return emergencyUnitRepository.findAll();
     }
 
+    @Cacheable(cacheNames = CacheConfig.EMERGENCY_UNITS, key = "'type:' + #type")
     public List<EmergencyUnit> getEmergencyUnitsByType(EmergencyUnitType type) {
-        List<EmergencyUnit> allUnits = emergencyUnitRepository.findAll();
-        return allUnits.stream()
-                .filter(unit -> unit.getType() == type)
-                .toList();
+        return emergencyUnitRepository.findByType(type);
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.EMERGENCY_UNITS, CacheConfig.UNITS_MONITOR}, allEntries = true)
     public EmergencyUnit updateEmergencyUnit(Long unitID, EmergencyUnit unitDetails) {
         return emergencyUnitRepository.findById(unitID)
                 .map(unit -> {
@@ -72,18 +84,21 @@ public class EmergencyUnitService {
                     unit.setCapacity(unitDetails.getCapacity());
                     unit.setStatus(unitDetails.getStatus());
                     EmergencyUnit savedUnit = emergencyUnitRepository.save(unit);
+                    eventPublisher.publishEvent(new UnitChangedEvent(savedUnit));
                     monitorService.broadcastUnitStatusUpdate(savedUnit.getUnitID());
                     return savedUnit;
                 })
                 .orElseThrow(() -> new IllegalArgumentException("Emergency unit not found with id: " + unitID));
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.EMERGENCY_UNITS, CacheConfig.UNITS_MONITOR}, allEntries = true)
     public EmergencyUnit updateLocation(Long unitID, Double latitude, Double longitude) {
         return emergencyUnitRepository.findById(unitID)
                 .map(unit -> {
                     unit.setLatitude(latitude);
                     unit.setLongtitude(longitude);
                     EmergencyUnit savedUnit = emergencyUnitRepository.save(unit);
+                    eventPublisher.publishEvent(new UnitChangedEvent(savedUnit));
                     monitorService.broadcastUnitStatusUpdate(savedUnit.getUnitID());
                     return savedUnit;
                 })
@@ -91,6 +106,8 @@ public class EmergencyUnitService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.INCIDENTS, CacheConfig.EMERGENCY_UNITS,
+        CacheConfig.INCIDENTS_MONITOR, CacheConfig.UNITS_MONITOR}, allEntries = true)
     public void deleteEmergencyUnit(Long unitID) {
         // First, collect all data we need before making changes (to avoid deadlocks)
         EmergencyUnit unit = emergencyUnitRepository.findById(unitID)
@@ -118,6 +135,9 @@ public class EmergencyUnitService {
             unitOpt.ifPresent(affectedUnit -> {
                 affectedUnit.setStatus(false); // false = available
                 emergencyUnitRepository.save(affectedUnit);
+                if (!affectedUnitId.equals(unitID)) {
+                    eventPublisher.publishEvent(new UnitChangedEvent(affectedUnit));
+                }
             });
         }
         for (Long incidentId : affectedIncidentIds) {
@@ -131,6 +151,7 @@ public class EmergencyUnitService {
             incidentOpt.ifPresent(incident -> {
                 incident.setStatus(IncidentStatus.PENDING);
                 incidentRepository.save(incident);
+                eventPublisher.publishEvent(new IncidentChangedEvent(incident));
             });
         }
         if (unit.getAssignments() != null) {
@@ -141,6 +162,7 @@ public class EmergencyUnitService {
         }
         emergencyUnitRepository.delete(unit);
         emergencyUnitRepository.flush();
+        eventPublisher.publishEvent(new UnitRemovedEvent(unitID));
         for (Long affectedUnitId : sortedUnitIds) {
             try {
                 monitorService.broadcastUnitStatusUpdate(affectedUnitId);
@@ -164,12 +186,12 @@ public class EmergencyUnitService {
         return emergencyUnitRepository.existsById(unitID);
     }
 
+    @Cacheable(cacheNames = CacheConfig.EMERGENCY_UNITS, key = "'available'")
     public List<EmergencyUnit> getAvailableUnits() {
-        return emergencyUnitRepository.findAll().stream()
-                .filter(unit -> Boolean.TRUE.equals(unit.getStatus()))
-                .toList();
+        return emergencyUnitRepository.findByStatusTrue();
     }
 
+    @Cacheable(cacheNames = CacheConfig.EMERGENCY_UNITS, key = "'all'")
     public List<EmergencyUnit> getAllUnits() {
         return emergencyUnitRepository.findAll();
     }
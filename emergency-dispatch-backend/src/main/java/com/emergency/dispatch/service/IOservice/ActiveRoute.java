@@ -0,0 +1,82 @@
+package com.emergency.dispatch.service.IOservice;
+
+import com.emergency.dispatch.enums.EmergencyUnitType;
+
+/**
+ * A unit driving along a shared {@link RoutePath} at a constant speed from a start time.
+ * The position is derived from elapsed time, so it does not depend on how often the
+ * movement tick runs or how dense the route's points are, and updating it allocates nothing.
+ */
+public final class ActiveRoute {
+
+    private final RoutePath path;
+    private final Long incidentId;
+    private final EmergencyUnitType unitType;
+    private long startedAtMillis;
+    private long arrivalAtMillis;
+    private double currentLat;
+    private double currentLon;
+    private double travelledKm;
+
+    public ActiveRoute(RoutePath path, Long incidentId, EmergencyUnitType unitType, long startedAtMillis, long travelMillis) {
+        this.path = path;
+        this.incidentId = incidentId;
+        this.unitType = unitType;
+        this.startedAtMillis = startedAtMillis;
+        this.arrivalAtMillis = startedAtMillis + travelMillis;
+        this.currentLat = path.pointCount() > 0 ? path.lat(0) : 0.0;
+        this.currentLon = path.pointCount() > 0 ? path.lon(0) : 0.0;
+    }
+
+    public RoutePath path() {
+        return path;
+    }
+
+    public Long incidentId() {
+        return incidentId;
+    }
+
+    public EmergencyUnitType unitType() {
+        return unitType;
+    }
+
+    public long arrivalAtMillis() {
+        return arrivalAtMillis;
+    }
+
+    public boolean finished() {
+        return travelledKm >= path.totalKm();
+    }
+
+    /**
+     * Shift the route past a pause of the simulation, so the unit carries on from where it was
+     * when the simulation stopped. A route started during the pause starts when it resumes.
+     */
+    public void resume(long pausedAtMillis, long resumedAtMillis) {
+        long shift = resumedAtMillis - Math.max(pausedAtMillis, startedAtMillis);
+        if (shift <= 0) return;
+        startedAtMillis += shift;
+        arrivalAtMillis += shift;
+    }
+
+    /**
+     * Move to where the unit is at the given time: binary search for the segment, then interpolate.
+     */
+    public void moveTo(long nowMillis) {
+        double total = path.totalKm();
+        long duration = arrivalAtMillis - startedAtMillis;
+        double fraction = duration <= 0 ? 1.0 : (double) (nowMillis - startedAtMillis) / duration;
+        travelledKm = Math.max(0.0, Math.min(total, fraction * total));
+        int segment = path.segmentAt(travelledKm);
+        currentLat = path.latAt(travelledKm, segment);
+        currentLon = path.lonAt(travelledKm, segment);
+    }
+
+    public double currentLat() {
+        return currentLat;
+    }
+
+    public double currentLon() {
+        return currentLon;
+    }
+}
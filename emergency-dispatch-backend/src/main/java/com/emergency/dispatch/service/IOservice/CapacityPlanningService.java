@@ -0,0 +1,306 @@
+package com.emergency.dispatch.service.IOservice;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.emergency.dispatch.enums.EmergencyUnitType;
+import com.emergency.dispatch.enums.IncidentStatus;
+import com.emergency.dispatch.model.EmergencyUnit;
+import com.emergency.dispatch.model.Incident;
+import com.emergency.dispatch.repository.EmergencyUnitRepository;
+import com.emergency.dispatch.repository.IncidentRepository;
+
+/**
+ * Discrete-event replay of a period of incidents against the fleet, for sizing it.
+ * Runs on copies of units and incidents with nothing persisted or broadcast. Time comes from
+ * a virtual clock that jumps from event to event, and on-scene times come from a seeded Random,
+ * so the same inputs always produce the same report, a day taking seconds instead of a day.
+ */
+@Service
+public class CapacityPlanningService {
+
+    private static final double MAX_RADIUS = 50.0; // km, same limit as the live simulation
+
+    private static final int REPORTED = 0;
+    private static final int ARRIVED = 1;
+    private static final int CLEARED = 2;
+
+    @Autowired
+    private IncidentRepository incidentRepository;
+    @Autowired
+    private EmergencyUnitRepository emergencyUnitRepository;
+    @Autowired
+    private DispatchStrategy dispatchStrategy;
+    @Autowired
+    private UnitSpeedProfile unitSpeedProfile;
+
+    // Road distance is longer than straight-line distance; this stretches travel times accordingly
+    @Value("${capacity.road-factor:1.3}")
+    private double roadFactor;
+    @Value("${capacity.on-scene-min-ms:1000}")
+    private long defaultOnSceneMinMs;
+    @Value("${capacity.on-scene-max-ms:30000}")
+    private long defaultOnSceneMaxMs;
+
+    /**
+     * Replay incidents reported in [from, to) and summarise response times and unit utilisation.
+     * unitCounts overrides the fleet size per type; other types are scaled by fleetScale.
+     */
+    public Map<String, Object> run(long from, long to, long seed, double fleetScale,
+                                   Map<EmergencyUnitType, Integer> unitCounts, Long onSceneMinMs, Long onSceneMaxMs) {
+        long minOnScene = onSceneMinMs != null ? onSceneMinMs : defaultOnSceneMinMs;
+        long maxOnScene = onSceneMaxMs != null ? onSceneMaxMs : defaultOnSceneMaxMs;
+        if (to <= from) throw new IllegalArgumentException("'to' must be after 'from'");
+        if (fleetScale < 0) throw new IllegalArgumentException("fleetScale must not be negative");
+        if (minOnScene < 0 || maxOnScene < minOnScene) throw new IllegalArgumentException("Invalid on-scene time range");
+
+        long wallStart = System.nanoTime();
+        Random random = new Random(seed);
+        VirtualClock clock = new VirtualClock(from);
+
+        Map<EmergencyUnitType, DispatchPartition> partitions = new EnumMap<>(EmergencyUnitType.class);
+        Map<EmergencyUnitType, TypeStats> stats = new EnumMap<>(EmergencyUnitType.class);
+        for (EmergencyUnitType type : EmergencyUnitType.values()) {
+            partitions.put(type, new DispatchPartition(type));
+            stats.put(type, new TypeStats());
+        }
+
+        FreeUnitIndex freeUnits = new FreeUnitIndex();
+        for (EmergencyUnit unit : buildFleet(fleetScale, unitCounts, random)) {
+            freeUnits.update(unit);
+            stats.get(unit.getType()).units++;
+        }
+
+        PriorityQueue<SimEvent> events = new PriorityQueue<>(
+            Comparator.comparingLong(SimEvent::time).thenComparingLong(SimEvent::seq));
+        long seq = 0;
+        int replayed = 0;
+        for (Incident stored : incidentRepository.findByReportedTimeGreaterThanEqualAndReportedTimeLessThanOrderByReportedTimeAsc(from, to)) {
+            if (stored.getType() == null || stored.getLatitude() == null || stored.getLongtitude() == null) continue;
+            events.add(new SimEvent(stored.getReportedTime(), seq++, REPORTED, null, copyOf(stored)));
+            replayed++;
+        }
+
+        // Per incident: units assigned and units cleared; per unit: when it was dispatched
+        Map<Long, int[]> staffing = new HashMap<>();
+        Map<Long, Long> busySince = new HashMap<>();
+        long processed = 0;
+        long passes = 0;
+        int maxPending = 0;
+        int served = 0;
+        while (!events.isEmpty()) {
+            long now = events.peek().time();
+            clock.advanceTo(now);
+
+            // Apply every event at this instant before dispatching, as the live engine drains its inbox
+            while (!events.isEmpty() && events.peek().time() == now) {
+                SimEvent event = events.poll();
+                processed++;
+                Incident incident = event.incident();
+                DispatchPartition partition = partitions.get(EmergencyUnitType.valueOf(incident.getType().name()));
+                if (event.kind() == REPORTED) {
+                    partition.add(incident);
+                } else if (event.kind() == ARRIVED) {
+                    EmergencyUnit unit = event.unit();
+                    unit.setLatitude(incident.getLatitude());
+                    unit.setLongtitude(incident.getLongtitude());
+                    int[] counts = staffing.get(incident.getIncidentId());
+                    if (counts[2] == 0) {
+                        // Response time is measured to the first unit on scene
+                        stats.get(unit.getType()).responseMs.add(now - incident.getReportedTime());
+                        served++;
+                    }
+                    counts[2]++;
+                    long onScene = minOnScene == maxOnScene ? minOnScene : random.nextLong(minOnScene, maxOnScene + 1);
+                    events.add(new SimEvent(now + onScene, seq++, CLEARED, unit, incident));
+                } else {
+                    EmergencyUnit unit = event.unit();
+                    stats.get(unit.getType()).busyMs += now - busySince.remove(unit.getUnitID());
+                    unit.setStatus(true);
+                    freeUnits.update(unit);
+                    int[] counts = staffing.get(incident.getIncidentId());
+                    counts[1]++;
+                    if (counts[1] == counts[0] && partition.unitsStillNeeded(incident) <= 0) {
+                        incident.setStatus(IncidentStatus.COMPLETED);
+                        partition.forget(incident.getIncidentId());
+                    }
+                }
+            }
+
+            for (DispatchPartition partition : partitions.values()) {
+                maxPending = Math.max(maxPending, partition.pendingCount());
+                List<DispatchDecision> decisions = partition.dispatch(dispatchStrategy, freeUnits, MAX_RADIUS, clock.currentTimeMillis());
+                if (decisions.isEmpty()) continue;
+                passes++;
+                for (DispatchDecision decision : decisions) {
+                    EmergencyUnit unit = decision.unit();
+                    Incident incident = decision.incident();
+                    unit.setStatus(false);
+                    busySince.put(unit.getUnitID(), now);
+                    int[] counts = staffing.computeIfAbsent(incident.getIncidentId(), id -> new int[3]);
+                    if (counts[0] == 0) {
+                        stats.get(unit.getType()).queueWaitMs.add(now - incident.getReportedTime());
+                    }
+                    counts[0]++;
+                    double km = GeoMath.haversineKm(unit.getLatitude(), unit.getLongtitude(), incident.getLatitude(), incident.getLongtitude());
+                    long travelMillis = unitSpeedProfile.travelMillis(unit.getType(), km * roadFactor);
+                    events.add(new SimEvent(now + travelMillis, seq++, ARRIVED, unit, incident));
+                }
+            }
+        }
+
+        long simulatedMs = Math.max(to, clock.currentTimeMillis()) - from;
+        long wallMs = (System.nanoTime() - wallStart) / 1_000_000;
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("seed", seed);
+        report.put("from", from);
+        report.put("to", to);
+        report.put("strategy", dispatchStrategy.getClass().getSimpleName());
+        report.put("incidents", replayed);
+        report.put("served", served);
+        report.put("unserved", replayed - served);
+        report.put("events", processed);
+        report.put("dispatchPasses", passes);
+        report.put("maxPendingIncidents", maxPending);
+        report.put("simulatedMs", simulatedMs);
+        report.put("wallMs", wallMs);
+        report.put("speedup", wallMs == 0 ? null : simulatedMs / wallMs);
+
+        List<Long> allResponses = new ArrayList<>();
+        List<Long> allWaits = new ArrayList<>();
+        Map<String, Object> byType = new LinkedHashMap<>();
+        for (Map.Entry<EmergencyUnitType, TypeStats> entry : stats.entrySet()) {
+            TypeStats typeStats = entry.getValue();
+            allResponses.addAll(typeStats.responseMs);
+            allWaits.addAll(typeStats.queueWaitMs);
+            Map<String, Object> typeReport = new LinkedHashMap<>();
+            typeReport.put("units", typeStats.units);
+            typeReport.put("busyMs", typeStats.busyMs);
+            typeReport.put("utilisation", typeStats.units == 0 ? 0.0 : (double) typeStats.busyMs / ((double) typeStats.units * simulatedMs));
+            typeReport.put("responseTimeMs", percentiles(typeStats.responseMs));
+            typeReport.put("queueWaitMs", percentiles(typeStats.queueWaitMs));
+            byType.put(entry.getKey().name(), typeReport);
+        }
+        report.put("responseTimeMs", percentiles(allResponses));
+        report.put("queueWaitMs", percentiles(allWaits));
+        report.put("byType", byType);
+        System.out.println("[CapacityPlanningService] Replayed " + replayed + " incidents (" + processed + " events) in " + wallMs + " ms");
+        return report;
+    }
+
+    /**
+     * Copies of the stored units, free and resized per type. Extra units start at the position
+     * of a randomly chosen existing unit of the same type and get negative IDs.
+     */
+    private List<EmergencyUnit> buildFleet(double fleetScale, Map<EmergencyUnitType, Integer> unitCounts, Random random) {
+        Map<EmergencyUnitType, List<EmergencyUnit>> stored = new EnumMap<>(EmergencyUnitType.class);
+        for (EmergencyUnitType type : EmergencyUnitType.values()) {
+            stored.put(type, new ArrayList<>());
+        }
+        for (EmergencyUnit unit : emergencyUnitRepository.findAll()) {
+            if (unit.getType() == null || unit.getLatitude() == null || unit.getLongtitude() == null) continue;
+            stored.get(unit.getType()).add(unit);
+        }
+
+        List<EmergencyUnit> fleet = new ArrayList<>();
+        long nextSyntheticId = -1;
+        for (Map.Entry<EmergencyUnitType, List<EmergencyUnit>> entry : stored.entrySet()) {
+            List<EmergencyUnit> units = entry.getValue();
+            units.sort(Comparator.comparing(EmergencyUnit::getUnitID));
+            Integer override = unitCounts == null ? null : unitCounts.get(entry.getKey());
+            int target = override != null ? Math.max(0, override) : (int) Math.round(units.size() * fleetScale);
+            if (units.isEmpty()) continue;
+
+            if (target < units.size()) {
+                Collections.shuffle(units, random);
+            }
+            for (int i = 0; i < target; i++) {
+                EmergencyUnit source = i < units.size() ? units.get(i) : units.get(random.nextInt(units.size()));
+                EmergencyUnit copy = new EmergencyUnit();
+                copy.setUnitID(i < units.size() ? source.getUnitID() : nextSyntheticId--);
+                copy.setType(source.getType());
+                copy.setLatitude(source.getLatitude());
+                copy.setLongtitude(source.getLongtitude());
+                copy.setCapacity(source.getCapacity());
+                copy.setStatus(true);
+                fleet.add(copy);
+            }
+        }
+        return fleet;
+    }
+
+    private static Incident copyOf(Incident stored) {
+        Incident copy = new Incident();
+        copy.setIncidentId(stored.getIncidentId());
+        copy.setType(stored.getType());
+        copy.setLatitude(stored.getLatitude());
+        copy.setLongtitude(stored.getLongtitude());
+        copy.setNeeds(stored.getNeeds());
+        copy.setSeverityLevel(stored.getSeverityLevel());
+        copy.setReportedTime(stored.getReportedTime());
+        copy.setStatus(IncidentStatus.PENDING);
+        return copy;
+    }
+
+    /**
+     * Nearest-rank percentiles of the samples, plus count, mean and max.
+     */
+    private static Map<String, Object> percentiles(List<Long> samples) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("count", samples.size());
+        if (samples.isEmpty()) return result;
+        long[] sorted = samples.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        result.put("mean", Arrays.stream(sorted).average().orElse(0));
+        for (int p : new int[]{50, 90, 95, 99}) {
+            int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+            result.put("p" + p, sorted[Math.max(0, rank - 1)]);
+        }
+        result.put("max", sorted[sorted.length - 1]);
+        return result;
+    }
+
+    private record SimEvent(long time, long seq, int kind, EmergencyUnit unit, Incident incident) {
+    }
+
+    private static final class TypeStats {
+        int units;
+        long busyMs;
+        final List<Long> responseMs = new ArrayList<>();
+        final List<Long> queueWaitMs = new ArrayList<>();
+    }
+
+    /**
+     * Clock that only moves when the event loop advances it.
+     */
+    private static final class VirtualClock implements SimulationClock {
+        private long now;
+
+        VirtualClock(long start) {
+            this.now = start;
+        }
+
+        void advanceTo(long time) {
+            if (time > now) now = time;
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return now;
+        }
+    }
+}
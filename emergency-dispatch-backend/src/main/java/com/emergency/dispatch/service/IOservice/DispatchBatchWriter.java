@@ -0,0 +1,68 @@
+package com.emergency.dispatch.service.IOservice;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.emergency.dispatch.enums.IncidentStatus;
+import com.emergency.dispatch.service.AnalyticsRollupService;
+
+/**
+ * Writes every dispatch decision of one pass in a single transaction using JDBC batches:
+ * one batched UPDATE for the units, one batched INSERT for the assignments and one batched
+ * UPDATE for the incidents, instead of three implicit transactions per decision.
+ */
+@Component
+public class DispatchBatchWriter {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AnalyticsRollupService analyticsRollupService;
+
+    @Transactional
+    public void persist(List<DispatchDecision> decisions) {
+        if (decisions.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(
+            "UPDATE emergency_unit SET status = ? WHERE userid = ?",
+            decisions, BATCH_SIZE,
+            (ps, decision) -> {
+                ps.setBoolean(1, false); // busy
+                ps.setLong(2, decision.unit().getUnitID());
+            });
+
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO assignment (assignment_time, incident_id, unit_id, is_active) VALUES (?, ?, ?, ?)",
+            decisions, BATCH_SIZE,
+            (ps, decision) -> {
+                ps.setLong(1, decision.assignmentTime());
+                ps.setLong(2, decision.incident().getIncidentId());
+                ps.setLong(3, decision.unit().getUnitID());
+                ps.setBoolean(4, true);
+            });
+        analyticsRollupService.recordAssigned(decisions);
+
+        Set<Long> incidentIds = new LinkedHashSet<>();
+        for (DispatchDecision decision : decisions) {
+            incidentIds.add(decision.incident().getIncidentId());
+        }
+        List<Long> incidentIdList = new ArrayList<>(incidentIds);
+        jdbcTemplate.batchUpdate(
+            "UPDATE incident SET status = ? WHERE incident_id = ?",
+            incidentIdList, BATCH_SIZE,
+            (ps, incidentId) -> {
+                ps.setString(1, IncidentStatus.DISPATCH.name());
+                ps.setLong(2, incidentId);
+            });
+    }
+}
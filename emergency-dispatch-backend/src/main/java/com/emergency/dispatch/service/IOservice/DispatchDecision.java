@@ -0,0 +1,10 @@
+package com.emergency.dispatch.service.IOservice;
+
+import com.emergency.dispatch.model.EmergencyUnit;
+import com.emergency.dispatch.model.Incident;
+
+/**
+ * One unit sent to one incident during a dispatch pass, waiting to be persisted.
+ */
+public record DispatchDecision(EmergencyUnit unit, Incident incident, long assignmentTime) {
+}
@@ -0,0 +1,120 @@
+package com.emergency.dispatch.service.IOservice;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import com.emergency.dispatch.enums.EmergencyUnitType;
+import com.emergency.dispatch.enums.IncidentStatus;
+import com.emergency.dispatch.enums.SeverityLevel;
+import com.emergency.dispatch.model.Incident;
+
+/**
+ * Pending incidents of one unit type and how many units each has received.
+ * A partition has a single writer at any time: the engine thread while it applies events,
+ * or the partition's worker during a dispatch pass, so none of its state needs locking.
+ */
+public final class DispatchPartition {
+
+    // Highest severity first, then oldest report, then lowest ID for a stable order
+    private static final Comparator<Incident> INCIDENT_PRIORITY = Comparator
+            .comparing(Incident::getSeverityLevel, Comparator.nullsFirst(Comparator.<SeverityLevel>naturalOrder()))
+            .reversed()
+            .thenComparing(Incident::getReportedTime, Comparator.nullsLast(Comparator.<Long>naturalOrder()))
+            .thenComparing(Incident::getIncidentId);
+
+    private final EmergencyUnitType type;
+    private final Map<Long, Incident> pendingById = new HashMap<>();
+    private final TreeSet<Incident> pending = new TreeSet<>(INCIDENT_PRIORITY);
+    // Units dispatched so far per incident (counted by the passes, re-set from the database when an incident
+    // changes outside the engine); incidents stay pending until this reaches their needs
+    private final Map<Long, Integer> assignedUnits = new HashMap<>();
+
+    public DispatchPartition(EmergencyUnitType type) {
+        this.type = type;
+    }
+
+    public EmergencyUnitType type() {
+        return type;
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    public void clear() {
+        pendingById.clear();
+        pending.clear();
+        assignedUnits.clear();
+    }
+
+    public void add(Incident incident) {
+        if (incident.getIncidentId() == null) return;
+        remove(incident.getIncidentId());
+        pendingById.put(incident.getIncidentId(), incident);
+        pending.add(incident);
+    }
+
+    public void remove(Long incidentId) {
+        Incident existing = pendingById.remove(incidentId);
+        if (existing != null) {
+            pending.remove(existing);
+        }
+    }
+
+    /**
+     * Drop the incident together with its dispatched-unit count (completed or deleted).
+     */
+    public void forget(Long incidentId) {
+        remove(incidentId);
+        assignedUnits.remove(incidentId);
+    }
+
+    public void setAssignedUnits(Long incidentId, int count) {
+        assignedUnits.put(incidentId, count);
+    }
+
+    public boolean isPartiallyStaffed(Long incidentId) {
+        return assignedUnits.containsKey(incidentId);
+    }
+
+    public int unitsStillNeeded(Incident incident) {
+        int needs = incident.getNeeds() == null ? 1 : Math.max(1, incident.getNeeds());
+        return needs - assignedUnits.getOrDefault(incident.getIncidentId(), 0);
+    }
+
+    /**
+     * Run the strategy over this partition's queue. Incidents move to DISPATCH with their first
+     * unit and leave the queue once fully staffed; the chosen units are left to the caller.
+     */
+    public List<DispatchDecision> dispatch(DispatchStrategy strategy, FreeUnitIndex freeUnits, double maxKm, long now) {
+        if (pending.isEmpty() || freeUnits.size(type) == 0) return List.of();
+        // The strategy claims units from the index; incidents that are not fully staffed stay pending
+        List<DispatchDecision> matches = strategy.assign(type, new ArrayList<>(pending), this::unitsStillNeeded, freeUnits, maxKm, now);
+        for (DispatchDecision decision : matches) {
+            Incident incident = decision.incident();
+            assignedUnits.merge(incident.getIncidentId(), 1, Integer::sum);
+            incident.setStatus(IncidentStatus.DISPATCH);
+            if (unitsStillNeeded(incident) <= 0) {
+                remove(incident.getIncidentId());
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Undo one decision of a pass that could not be persisted.
+     */
+    public void revert(DispatchDecision decision) {
+        Incident incident = decision.incident();
+        int remaining = assignedUnits.merge(incident.getIncidentId(), -1, Integer::sum);
+        if (remaining <= 0) {
+            assignedUnits.remove(incident.getIncidentId());
+            incident.setStatus(IncidentStatus.PENDING);
+        }
+        add(incident);
+    }
+}
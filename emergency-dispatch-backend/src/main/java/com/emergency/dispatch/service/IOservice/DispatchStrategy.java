@@ -0,0 +1,22 @@
+package com.emergency.dispatch.service.IOservice;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+import com.emergency.dispatch.enums.EmergencyUnitType;
+import com.emergency.dispatch.model.Incident;
+
+/**
+ * Decides which free units go to which pending incidents of one unit type during a dispatch pass.
+ * Selected with the {@code dispatch.strategy} property ({@code greedy} or {@code optimal}).
+ */
+public interface DispatchStrategy {
+
+    /**
+     * Match pending incidents (in priority order) to free units from the index, up to
+     * {@code unitsNeeded} units per incident. Chosen units are removed from the index;
+     * incidents without a match are simply left out. Decisions are stamped with {@code now}.
+     */
+    List<DispatchDecision> assign(EmergencyUnitType type, List<Incident> incidents, ToIntFunction<Incident> unitsNeeded,
+                                  FreeUnitIndex freeUnits, double maxKm, long now);
+}
@@ -1,15 +1,21 @@
 package com.emergency.dispatch.service.IOservice;
 
 import com.emergency.dispatch.enums.IncidentStatus;
+import com.emergency.dispatch.event.IncidentChangedEvent;
+import com.emergency.dispatch.event.UnitChangedEvent;
 import com.emergency.dispatch.model.Assignment;
 import com.emergency.dispatch.model.EmergencyUnit;
 import com.emergency.dispatch.model.Incident;
 import com.emergency.dispatch.repository.AssignmentRepository;
 import com.emergency.dispatch.repository.EmergencyUnitRepository;
 import com.emergency.dispatch.repository.IncidentRepository;
+import com.emergency.dispatch.service.AnalyticsRollupService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class DoneAssignmentService {
@@ -19,10 +25,16 @@ public class DoneAssignmentService {
     private EmergencyUnitRepository emergencyUnitRepository;
     @Autowired
     private IncidentRepository incidentRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private AnalyticsRollupService analyticsRollupService;
 
     public void completeAssignmentByIncidentId(Long incidentId) {
         List<Assignment> assignments = assignmentRepository.findByIncident_IncidentId(incidentId);
         for (Assignment assignment : assignments) {
+            // Finished assignments keep their real resolution time and their unit may already be elsewhere
+            if (!Boolean.TRUE.equals(assignment.getIsActive())) continue;
             assignment.setIsActive(false);
             if (assignment.getAssignmentTime() != null) {
                 assignment.setResolutionTime(System.currentTimeMillis() - assignment.getAssignmentTime()); // duration in ms
@@ -30,28 +42,70 @@ public class DoneAssignmentService {
                 assignment.setResolutionTime(null);
             }
             assignmentRepository.save(assignment);
+            analyticsRollupService.recordCompleted(assignment);
             EmergencyUnit unit = assignment.getEmergencyUnit();
             if (unit != null) {
                 unit.setStatus(true); // available
                 emergencyUnitRepository.save(unit);
+                eventPublisher.publishEvent(new UnitChangedEvent(unit));
             }
         }
         Incident incident = incidentRepository.findById(incidentId).orElse(null);
         if (incident != null) {
             incident.setStatus(IncidentStatus.COMPLETED);
             incidentRepository.save(incident);
+            eventPublisher.publishEvent(new IncidentChangedEvent(incident));
+        }
+    }
+
+    /**
+     * Release one unit from an incident. The incident is completed once no unit is still
+     * working on it and it has received as many units as it needs.
+     */
+    public void completeAssignmentForUnit(Long incidentId, Long unitId) {
+        List<Assignment> assignments = assignmentRepository.findByIncident_IncidentId(incidentId);
+        boolean stillActive = false;
+        for (Assignment assignment : assignments) {
+            if (!Boolean.TRUE.equals(assignment.getIsActive())) continue;
+            EmergencyUnit unit = assignment.getEmergencyUnit();
+            if (unit == null || !unitId.equals(unit.getUnitID())) {
+                stillActive = true;
+                continue;
+            }
+            assignment.setIsActive(false);
+            if (assignment.getAssignmentTime() != null) {
+                assignment.setResolutionTime(System.currentTimeMillis() - assignment.getAssignmentTime()); // duration in ms
+            }
+            assignmentRepository.save(assignment);
+            analyticsRollupService.recordCompleted(assignment);
+            unit.setStatus(true); // available
+            emergencyUnitRepository.save(unit);
+            eventPublisher.publishEvent(new UnitChangedEvent(unit));
+        }
+        if (stillActive) return;
+        Incident incident = incidentRepository.findById(incidentId).orElse(null);
+        if (incident == null) return;
+        int needs = incident.getNeeds() == null ? 1 : Math.max(1, incident.getNeeds());
+        if (assignments.size() >= needs) {
+            incident.setStatus(IncidentStatus.COMPLETED);
+            incidentRepository.save(incident);
+            eventPublisher.publishEvent(new IncidentChangedEvent(incident));
         }
     }
 
+    /**
+     * Release a batch of units (unit ID -> incident ID) in one transaction.
+     */
+    @Transactional
+    public void completeAssignmentsForUnits(Map<Long, Long> incidentByUnit) {
+        incidentByUnit.forEach((unitId, incidentId) -> completeAssignmentForUnit(incidentId, unitId));
+    }
+
     public List<Incident> getCompletedIncidents() {
-        return incidentRepository.findAll().stream()
-                .filter(incident -> incident.getStatus() == IncidentStatus.COMPLETED)
-                .toList();
+        return incidentRepository.findByStatus(IncidentStatus.COMPLETED);
     }
 
     public List<Incident> getLiveIncidents() {
-        return incidentRepository.findAll().stream()
-                .filter(incident -> incident.getStatus() != com.emergency.dispatch.enums.IncidentStatus.COMPLETED)
-                .toList();
+        return incidentRepository.findByStatusNot(IncidentStatus.COMPLETED);
     }
 }
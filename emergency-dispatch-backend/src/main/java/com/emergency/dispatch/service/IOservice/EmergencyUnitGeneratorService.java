@@ -2,16 +2,34 @@ package com.emergency.dispatch.service.IOservice;
 
 import com.emergency.dispatch.model.EmergencyUnit;
 import com.emergency.dispatch.enums.EmergencyUnitType;
+import com.emergency.dispatch.event.UnitChangedEvent;
 import com.emergency.dispatch.repository.EmergencyUnitRepository;
-import com.emergency.dispatch.service.EmergencyUnitMonitorService;
+import com.emergency.dispatch.service.BroadcastCoalescer;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Random;
+import java.util.function.Consumer;
 
 @Service
 public class EmergencyUnitGeneratorService {
@@ -19,29 +37,261 @@ public class EmergencyUnitGeneratorService {
     private EmergencyUnitRepository emergencyUnitRepository;
 
     @Autowired
-    private EmergencyUnitMonitorService monitorService;
+    private SimpMessagingTemplate messagingTemplate;
 
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private UnitBatchWriter unitBatchWriter;
+
+    @Autowired
+    private BroadcastCoalescer broadcastCoalescer;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Rows per JDBC batch while provisioning or importing
+    private static final int PROVISION_BATCH = 1000;
+    // Only the first few bad rows are reported back
+    private static final int MAX_REPORTED_ERRORS = 20;
 
     public List<EmergencyUnit> generateRandomEmergencyUnits(int count) {
         List<EmergencyUnit> createdUnits = new ArrayList<>();
         EmergencyUnitType[] types = EmergencyUnitType.values();
         Random rand = new Random();
         for (int i = 0; i < count; i++) {
-            EmergencyUnit unit = new EmergencyUnit();
-            unit.setType(types[rand.nextInt(types.length)]);
-            unit.setLatitude(36.04 + rand.nextDouble() * (36.27 - 36.04)); // Las Vegas bounds, match incidents
-            unit.setLongtitude(-115.29 + rand.nextDouble() * (-115.04 - (-115.29))); // Las Vegas bounds, match incidents
-            unit.setCapacity(rand.nextInt(5) + 1); // Capacity 1-5
-            unit.setStatus(true); 
-            EmergencyUnit savedUnit = emergencyUnitRepository.save(unit);
-            monitorService.broadcastUnitStatusUpdate(savedUnit.getUnitID());
-            createdUnits.add(savedUnit);
+            createdUnits.add(randomUnit(types, rand));
+        }
+        unitBatchWriter.insert(createdUnits);
+        for (EmergencyUnit savedUnit : createdUnits) {
+            eventPublisher.publishEvent(new UnitChangedEvent(savedUnit));
         }
         // Broadcast the full updated list to /topic/emergency-units
         List<EmergencyUnit> allUnits = emergencyUnitRepository.findAll();
         messagingTemplate.convertAndSend("/topic/emergency-units", allUnits);
         return createdUnits;
     }
+
+    /**
+     * Create count random free units in JDBC batches. Clients get one resync notice at the end
+     * instead of a message per unit, and the response is a summary rather than the units.
+     */
+    public Map<String, Object> provisionRandomUnits(int count) {
+        if (count <= 0) throw new IllegalArgumentException("count must be positive");
+        EmergencyUnitType[] types = EmergencyUnitType.values();
+        Random rand = new Random();
+        ImportResult result = runImport(sink -> {
+            for (int i = 0; i < count; i++) {
+                sink.add(randomUnit(types, rand));
+            }
+        });
+        return result.toMap();
+    }
+
+    /**
+     * Stream units from a CSV or GeoJSON file into the database in JDBC batches, all in one transaction.
+     * CSV needs a header with type, latitude and longtitude (or longitude) columns, and optionally
+     * capacity and status. GeoJSON needs Point features with a "type" property and optionally "capacity".
+     * Rows that cannot be parsed are skipped and reported.
+     */
+    public Map<String, Object> importUnits(InputStream input, String filename) throws IOException {
+        String name = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+        boolean geoJson = name.endsWith(".geojson") || name.endsWith(".json");
+        try {
+            ImportResult result = runImport(sink -> {
+                try {
+                    if (geoJson) {
+                        readGeoJson(input, sink);
+                    } else {
+                        readCsv(input, sink);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            return result.toMap();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private ImportResult runImport(Consumer<UnitSink> producer) {
+        long start = System.currentTimeMillis();
+        UnitSink sink = new UnitSink();
+        transactionTemplate.executeWithoutResult(status -> {
+            producer.accept(sink);
+            sink.flush();
+            // Delivered to the dispatch engine only once the transaction commits
+            for (EmergencyUnit unit : sink.inserted) {
+                eventPublisher.publishEvent(new UnitChangedEvent(unit));
+            }
+        });
+        // After commit, so the snapshot clients reload already contains the new units
+        broadcastCoalescer.unitsResync();
+        sink.result.elapsedMs = System.currentTimeMillis() - start;
+        System.out.println("[EmergencyUnitGeneratorService] Provisioned " + sink.result.inserted + " units in "
+            + sink.result.elapsedMs + " ms (" + sink.result.skipped + " skipped)");
+        return sink.result;
+    }
+
+    private void readCsv(InputStream input, UnitSink sink) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null) return;
+        Map<String, Integer> columns = new HashMap<>();
+        String[] header = headerLine.replace("\uFEFF", "").split(",");
+        for (int i = 0; i < header.length; i++) {
+            columns.put(header[i].trim().toLowerCase(Locale.ROOT), i);
+        }
+        Integer typeCol = columns.get("type");
+        Integer latCol = columns.get("latitude");
+        Integer lonCol = columns.containsKey("longtitude") ? columns.get("longtitude") : columns.get("longitude");
+        if (typeCol == null || latCol == null || lonCol == null) {
+            throw new IllegalArgumentException("CSV header must contain type, latitude and longtitude columns");
+        }
+        Integer capacityCol = columns.get("capacity");
+        Integer statusCol = columns.get("status");
+
+        String line;
+        int lineNumber = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) continue;
+            String[] fields = line.split(",", -1);
+            EmergencyUnit unit = new EmergencyUnit();
+            try {
+                unit.setType(EmergencyUnitType.valueOf(fields[typeCol].trim().toUpperCase(Locale.ROOT)));
+                unit.setLatitude(Double.parseDouble(fields[latCol].trim()));
+                unit.setLongtitude(Double.parseDouble(fields[lonCol].trim()));
+                checkPosition(unit);
+                unit.setCapacity(capacityCol != null && capacityCol < fields.length && !fields[capacityCol].isBlank()
+                    ? Integer.parseInt(fields[capacityCol].trim()) : 1);
+                unit.setStatus(statusCol == null || statusCol >= fields.length || fields[statusCol].isBlank()
+                    || Boolean.parseBoolean(fields[statusCol].trim()));
+            } catch (RuntimeException e) {
+                sink.skip("line " + lineNumber + ": " + e.getMessage());
+                continue;
+            }
+            sink.add(unit);
+        }
+    }
+
+    private void readGeoJson(InputStream input, UnitSink sink) throws IOException {
+        // Streamed one feature at a time, so only the current feature is ever held as a tree
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("GeoJSON must be a FeatureCollection");
+            }
+            boolean sawFeatures = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("features".equals(field) && value == JsonToken.START_ARRAY) {
+                    sawFeatures = true;
+                    readFeatures(parser, sink);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (!sawFeatures) {
+                throw new IllegalArgumentException("GeoJSON must be a FeatureCollection");
+            }
+        }
+    }
+
+    private void readFeatures(JsonParser parser, UnitSink sink) throws IOException {
+        int index = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            JsonNode feature = objectMapper.readTree(parser);
+            EmergencyUnit unit = new EmergencyUnit();
+            try {
+                JsonNode geometry = feature.path("geometry");
+                JsonNode coordinates = geometry.path("coordinates");
+                if (!"Point".equals(geometry.path("type").asText()) || coordinates.size() < 2) {
+                    throw new IllegalArgumentException("not a Point geometry");
+                }
+                JsonNode properties = feature.path("properties");
+                unit.setType(EmergencyUnitType.valueOf(properties.path("type").asText().trim().toUpperCase(Locale.ROOT)));
+                // GeoJSON positions are [longitude, latitude]
+                unit.setLongtitude(coordinates.get(0).asDouble());
+                unit.setLatitude(coordinates.get(1).asDouble());
+                checkPosition(unit);
+                unit.setCapacity(properties.path("capacity").asInt(1));
+                unit.setStatus(properties.path("status").asBoolean(true));
+            } catch (RuntimeException e) {
+                sink.skip("feature " + index++ + ": " + e.getMessage());
+                continue;
+            }
+            index++;
+            sink.add(unit);
+        }
+    }
+
+    private static void checkPosition(EmergencyUnit unit) {
+        // Written so NaN fails too
+        if (!(unit.getLatitude() >= -90 && unit.getLatitude() <= 90)) {
+            throw new IllegalArgumentException("latitude " + unit.getLatitude() + " is outside -90..90");
+        }
+        if (!(unit.getLongtitude() >= -180 && unit.getLongtitude() <= 180)) {
+            throw new IllegalArgumentException("longitude " + unit.getLongtitude() + " is outside -180..180");
+        }
+    }
+
+    private static EmergencyUnit randomUnit(EmergencyUnitType[] types, Random rand) {
+        EmergencyUnit unit = new EmergencyUnit();
+        unit.setType(types[rand.nextInt(types.length)]);
+        unit.setLatitude(36.04 + rand.nextDouble() * (36.27 - 36.04)); // Las Vegas bounds, match incidents
+        unit.setLongtitude(-115.29 + rand.nextDouble() * (-115.04 - (-115.29))); // Las Vegas bounds, match incidents
+        unit.setCapacity(rand.nextInt(5) + 1); // Capacity 1-5
+        unit.setStatus(true);
+        return unit;
+    }
+
+    /**
+     * Buffers parsed units and writes them a batch at a time.
+     */
+    private final class UnitSink {
+        final List<EmergencyUnit> pending = new ArrayList<>(PROVISION_BATCH);
+        final List<EmergencyUnit> inserted = new ArrayList<>();
+        final ImportResult result = new ImportResult();
+
+        void add(EmergencyUnit unit) {
+            pending.add(unit);
+            if (pending.size() >= PROVISION_BATCH) flush();
+        }
+
+        void skip(String reason) {
+            result.skipped++;
+            if (result.errors.size() < MAX_REPORTED_ERRORS) result.errors.add(reason);
+        }
+
+        void flush() {
+            if (pending.isEmpty()) return;
+            List<EmergencyUnit> batch = new ArrayList<>(pending);
+            pending.clear();
+            unitBatchWriter.insert(batch);
+            inserted.addAll(batch);
+            result.inserted += batch.size();
+        }
+    }
+
+    private static final class ImportResult {
+        int inserted;
+        int skipped;
+        long elapsedMs;
+        final List<String> errors = new ArrayList<>();
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("inserted", inserted);
+            map.put("skipped", skipped);
+            map.put("elapsedMs", elapsedMs);
+            map.put("errors", errors);
+            return map;
+        }
+    }
 }
@@ -0,0 +1,274 @@
+package com.emergency.dispatch.service.IOservice;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.emergency.dispatch.enums.EmergencyUnitType;
+import com.emergency.dispatch.model.EmergencyUnit;
+
+/**
+ * Authoritative in-memory position, status and type of every unit while the simulation runs.
+ * Movement ticks only write here; positions reach MySQL in batched UPDATEs every
+ * {@code fleet.flush-ms}, or right away for a unit whose status is about to change.
+ *
+ * Open-addressing hash map from unit ID to a slot in parallel primitive arrays,
+ * so a tick does no boxing and no allocation.
+ */
+@Component
+public class FleetStateStore {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final EmergencyUnitType[] TYPES = EmergencyUnitType.values();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long[] keys;
+    private double[] lat;
+    private double[] lon;
+    private boolean[] free;
+    private byte[] type; // EmergencyUnitType ordinal, -1 when unknown
+    private boolean[] dirty;
+    private int size;
+    private int mask;
+
+    public FleetStateStore() {
+        allocate(1024);
+    }
+
+    /**
+     * Take over position, status and type from a unit loaded or changed elsewhere.
+     */
+    public synchronized void put(EmergencyUnit unit) {
+        if (unit == null || unit.getUnitID() == null) return;
+        int slot = slotFor(unit.getUnitID(), true);
+        lat[slot] = unit.getLatitude() == null ? Double.NaN : unit.getLatitude();
+        lon[slot] = unit.getLongtitude() == null ? Double.NaN : unit.getLongtitude();
+        free[slot] = Boolean.TRUE.equals(unit.getStatus());
+        type[slot] = unit.getType() == null ? -1 : (byte) unit.getType().ordinal();
+        dirty[slot] = false; // the caller's copy is what the database holds
+    }
+
+    /**
+     * Record a new position; returns false when the unit is unknown.
+     */
+    public synchronized boolean moveTo(long unitId, double newLat, double newLon) {
+        int slot = slotFor(unitId, false);
+        if (slot < 0) return false;
+        lat[slot] = newLat;
+        lon[slot] = newLon;
+        dirty[slot] = true;
+        return true;
+    }
+
+    /**
+     * Record the first {@code count} positions of a movement shard under one lock.
+     */
+    public synchronized void moveAll(long[] unitIds, double[] newLats, double[] newLons, int count) {
+        for (int i = 0; i < count; i++) {
+            int slot = slotFor(unitIds[i], false);
+            if (slot < 0) continue;
+            lat[slot] = newLats[i];
+            lon[slot] = newLons[i];
+            dirty[slot] = true;
+        }
+    }
+
+    public synchronized void setFree(long unitId, boolean isFree) {
+        int slot = slotFor(unitId, false);
+        if (slot >= 0) free[slot] = isFree;
+    }
+
+    public synchronized boolean contains(long unitId) {
+        return slotFor(unitId, false) >= 0;
+    }
+
+    public synchronized double latitude(long unitId) {
+        int slot = slotFor(unitId, false);
+        return slot < 0 ? Double.NaN : lat[slot];
+    }
+
+    public synchronized double longtitude(long unitId) {
+        int slot = slotFor(unitId, false);
+        return slot < 0 ? Double.NaN : lon[slot];
+    }
+
+    public synchronized boolean isFree(long unitId) {
+        int slot = slotFor(unitId, false);
+        return slot >= 0 && free[slot];
+    }
+
+    public synchronized EmergencyUnitType type(long unitId) {
+        int slot = slotFor(unitId, false);
+        return slot < 0 || type[slot] < 0 ? null : TYPES[type[slot]];
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void remove(long unitId) {
+        int slot = slotFor(unitId, false);
+        if (slot < 0) return;
+        keys[slot] = EMPTY;
+        size--;
+        // Backward-shift the rest of the probe run so lookups never stop early
+        int hole = slot;
+        for (int i = (slot + 1) & mask; keys[i] != EMPTY; i = (i + 1) & mask) {
+            int home = hash(keys[i]) & mask;
+            boolean movable = hole <= i ? (home <= hole || home > i) : (home <= hole && home > i);
+            if (movable) {
+                move(i, hole);
+                keys[i] = EMPTY;
+                hole = i;
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    /**
+     * Write every position changed since the last flush in one JDBC batch.
+     */
+    @Scheduled(fixedDelayString = "${fleet.flush-ms:5000}")
+    public void flushPositions() {
+        long[] ids;
+        double[] lats;
+        double[] lons;
+        synchronized (this) {
+            int count = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != EMPTY && dirty[i]) count++;
+            }
+            if (count == 0) return;
+            ids = new long[count];
+            lats = new double[count];
+            lons = new double[count];
+            int n = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != EMPTY && dirty[i]) {
+                    ids[n] = keys[i];
+                    lats[n] = lat[i];
+                    lons[n] = lon[i];
+                    dirty[i] = false;
+                    n++;
+                }
+            }
+        }
+        try {
+            writePositions(ids, lats, lons);
+        } catch (Exception e) {
+            System.err.println("[FleetStateStore] Failed to flush " + ids.length + " unit positions: " + e.getMessage());
+            synchronized (this) {
+                for (long id : ids) {
+                    int slot = slotFor(id, false);
+                    if (slot >= 0) dirty[slot] = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Write one unit's position now, before something else reads or saves the unit row.
+     */
+    public void flushUnit(long unitId) {
+        double unitLat;
+        double unitLon;
+        synchronized (this) {
+            int slot = slotFor(unitId, false);
+            if (slot < 0 || !dirty[slot]) return;
+            unitLat = lat[slot];
+            unitLon = lon[slot];
+            dirty[slot] = false;
+        }
+        writePositions(new long[]{unitId}, new double[]{unitLat}, new double[]{unitLon});
+    }
+
+    private void writePositions(long[] ids, double[] lats, double[] lons) {
+        jdbcTemplate.batchUpdate("UPDATE emergency_unit SET latitude = ?, longtitude = ? WHERE userid = ?",
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    ps.setDouble(1, lats[i]);
+                    ps.setDouble(2, lons[i]);
+                    ps.setLong(3, ids[i]);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return ids.length;
+                }
+            });
+    }
+
+    private int slotFor(long unitId, boolean create) {
+        for (int i = hash(unitId) & mask; ; i = (i + 1) & mask) {
+            if (keys[i] == unitId) return i;
+            if (keys[i] == EMPTY) {
+                if (!create) return -1;
+                if ((size + 1) * 2 > keys.length) {
+                    grow();
+                    return slotFor(unitId, true);
+                }
+                keys[i] = unitId;
+                size++;
+                return i;
+            }
+        }
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        double[] oldLat = lat;
+        double[] oldLon = lon;
+        boolean[] oldFree = free;
+        byte[] oldType = type;
+        boolean[] oldDirty = dirty;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) continue;
+            int slot = slotFor(oldKeys[i], true);
+            lat[slot] = oldLat[i];
+            lon[slot] = oldLon[i];
+            free[slot] = oldFree[i];
+            type[slot] = oldType[i];
+            dirty[slot] = oldDirty[i];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        lat = new double[capacity];
+        lon = new double[capacity];
+        free = new boolean[capacity];
+        type = new byte[capacity];
+        dirty = new boolean[capacity];
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    private void move(int from, int to) {
+        keys[to] = keys[from];
+        lat[to] = lat[from];
+        lon[to] = lon[from];
+        free[to] = free[from];
+        type[to] = type[from];
+        dirty[to] = dirty[from];
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
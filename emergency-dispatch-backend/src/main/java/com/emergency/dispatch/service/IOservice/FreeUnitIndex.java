@@ -0,0 +1,299 @@
+package com.emergency.dispatch.service.IOservice;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import com.emergency.dispatch.enums.EmergencyUnitType;
+import com.emergency.dispatch.model.EmergencyUnit;
+
+/**
+ * In-memory spatial index of free (status = true) emergency units, one grid per unit type.
+ * Units are bucketed into fixed lat/lon cells, so a nearest-unit query only looks at the
+ * rings of cells around the incident instead of every unit in the fleet.
+ * Each grid has its own lock, so dispatch passes for different types never wait on each other.
+ */
+@Component
+public class FreeUnitIndex {
+
+    // ~1.1 km of latitude per cell; small enough that ring 0/1 usually holds the answer in a city
+    private static final double CELL_DEG = 0.01;
+
+    private final Map<EmergencyUnitType, TypeGrid> grids = new EnumMap<>(EmergencyUnitType.class);
+    // UnitID -> grid the unit currently lives in, so removals don't need the unit type
+    private final Map<Long, TypeGrid> gridByUnit = new ConcurrentHashMap<>();
+
+    public FreeUnitIndex() {
+        for (EmergencyUnitType type : EmergencyUnitType.values()) {
+            grids.put(type, new TypeGrid());
+        }
+    }
+
+    /**
+     * Insert, move or drop a unit depending on its current status, type and position.
+     * Cheap when nothing relevant changed, so it can be called on every unit change.
+     */
+    public synchronized void update(EmergencyUnit unit) {
+        if (unit == null || unit.getUnitID() == null) return;
+        boolean free = Boolean.TRUE.equals(unit.getStatus())
+                && unit.getType() != null
+                && unit.getLatitude() != null
+                && unit.getLongtitude() != null;
+        if (!free) {
+            remove(unit.getUnitID());
+            return;
+        }
+        TypeGrid target = grids.get(unit.getType());
+        TypeGrid current = gridByUnit.get(unit.getUnitID());
+        if (current != null && current != target) {
+            synchronized (current) {
+                current.remove(unit.getUnitID());
+            }
+        }
+        synchronized (target) {
+            target.put(unit);
+        }
+        gridByUnit.put(unit.getUnitID(), target);
+    }
+
+    public void remove(Long unitId) {
+        TypeGrid grid = gridByUnit.remove(unitId);
+        if (grid != null) {
+            synchronized (grid) {
+                grid.remove(unitId);
+            }
+        }
+    }
+
+    /**
+     * Drop every unit whose ID is not in the given set (e.g. units deleted from the database).
+     */
+    public synchronized void retainAll(Set<Long> unitIds) {
+        List<Long> stale = new ArrayList<>();
+        for (Long unitId : gridByUnit.keySet()) {
+            if (!unitIds.contains(unitId)) stale.add(unitId);
+        }
+        for (Long unitId : stale) {
+            remove(unitId);
+        }
+    }
+
+    public synchronized void clear() {
+        for (TypeGrid grid : grids.values()) {
+            synchronized (grid) {
+                grid.clear();
+            }
+        }
+        gridByUnit.clear();
+    }
+
+    public int size(EmergencyUnitType type) {
+        TypeGrid grid = grids.get(type);
+        synchronized (grid) {
+            return grid.byUnit.size();
+        }
+    }
+
+    /**
+     * Nearest free unit of the given type within maxKm of the point, or null if there is none.
+     */
+    public EmergencyUnit nearest(EmergencyUnitType type, double lat, double lon, double maxKm) {
+        TypeGrid grid = grids.get(type);
+        synchronized (grid) {
+            return grid.nearest(lat, lon, maxKm);
+        }
+    }
+
+    /**
+     * Up to k free units of the given type within maxKm of the point, nearest first.
+     */
+    public List<EmergencyUnit> kNearest(EmergencyUnitType type, double lat, double lon, double maxKm, int k) {
+        TypeGrid grid = grids.get(type);
+        synchronized (grid) {
+            return grid.kNearest(lat, lon, maxKm, k);
+        }
+    }
+
+    private static long cellKey(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    private static int cellRow(double lat) {
+        return (int) Math.floor(lat / CELL_DEG);
+    }
+
+    private static int cellCol(double lon) {
+        return (int) Math.floor(lon / CELL_DEG);
+    }
+
+    private static final class Entry {
+        final EmergencyUnit unit;
+        final double lat;
+        final double lon;
+        final long cell;
+
+        Entry(EmergencyUnit unit, double lat, double lon, long cell) {
+            this.unit = unit;
+            this.lat = lat;
+            this.lon = lon;
+            this.cell = cell;
+        }
+    }
+
+    private record Candidate(Entry entry, double dist) {
+    }
+
+    private static final class TypeGrid {
+        final Map<Long, List<Entry>> cells = new HashMap<>();
+        final Map<Long, Entry> byUnit = new HashMap<>();
+
+        void put(EmergencyUnit unit) {
+            double lat = unit.getLatitude();
+            double lon = unit.getLongtitude();
+            long cell = cellKey(cellRow(lat), cellCol(lon));
+            Entry existing = byUnit.get(unit.getUnitID());
+            if (existing != null) {
+                if (existing.cell == cell && existing.lat == lat && existing.lon == lon && existing.unit == unit) {
+                    return;
+                }
+                removeFromCell(existing);
+            }
+            Entry entry = new Entry(unit, lat, lon, cell);
+            byUnit.put(unit.getUnitID(), entry);
+            cells.computeIfAbsent(cell, k -> new ArrayList<>(4)).add(entry);
+        }
+
+        void remove(Long unitId) {
+            Entry existing = byUnit.remove(unitId);
+            if (existing != null) {
+                removeFromCell(existing);
+            }
+        }
+
+        void clear() {
+            cells.clear();
+            byUnit.clear();
+        }
+
+        private void removeFromCell(Entry entry) {
+            List<Entry> bucket = cells.get(entry.cell);
+            if (bucket == null) return;
+            bucket.remove(entry);
+            if (bucket.isEmpty()) {
+                cells.remove(entry.cell);
+            }
+        }
+
+        EmergencyUnit nearest(double lat, double lon, double maxKm) {
+            if (byUnit.isEmpty()) return null;
+            int row0 = cellRow(lat);
+            int col0 = cellCol(lon);
+            // A cell is narrowest in km along longitude; use that as the lower bound per ring
+            double minCellKm = CELL_DEG * GeoMath.KM_PER_DEGREE_LAT
+                    * Math.cos(Math.toRadians(Math.min(89.0, Math.abs(lat) + CELL_DEG)));
+            int maxRing = (int) Math.ceil(maxKm / minCellKm) + 1;
+
+            Entry best = null;
+            double bestDist = Double.MAX_VALUE;
+            int visitedCells = 0;
+            for (int r = 0; r <= maxRing; r++) {
+                // Once the rings cover more cells than there are occupied ones, a plain scan is cheaper
+                if (visitedCells > cells.size()) {
+                    return scanAll(lat, lon, maxKm);
+                }
+                for (int dr = -r; dr <= r; dr++) {
+                    boolean edgeRow = (dr == -r || dr == r);
+                    int step = edgeRow ? 1 : 2 * r;
+                    for (int dc = -r; dc <= r; dc += Math.max(step, 1)) {
+                        visitedCells++;
+                        List<Entry> bucket = cells.get(cellKey(row0 + dr, col0 + dc));
+                        if (bucket == null) continue;
+                        for (Entry entry : bucket) {
+                            double dist = GeoMath.haversineKm(lat, lon, entry.lat, entry.lon);
+                            if (dist <= maxKm && dist < bestDist) {
+                                bestDist = dist;
+                                best = entry;
+                            }
+                        }
+                    }
+                }
+                // Every cell in ring r+1 is at least r cell widths away from the query point
+                if (best != null && bestDist <= r * minCellKm) break;
+            }
+            return best == null ? null : best.unit;
+        }
+
+        List<EmergencyUnit> kNearest(double lat, double lon, double maxKm, int k) {
+            if (byUnit.isEmpty() || k <= 0) return new ArrayList<>();
+            int row0 = cellRow(lat);
+            int col0 = cellCol(lon);
+            double minCellKm = CELL_DEG * GeoMath.KM_PER_DEGREE_LAT
+                    * Math.cos(Math.toRadians(Math.min(89.0, Math.abs(lat) + CELL_DEG)));
+            int maxRing = (int) Math.ceil(maxKm / minCellKm) + 1;
+
+            // Max-heap on distance holding the k best candidates so far
+            PriorityQueue<Candidate> best = new PriorityQueue<>(k + 1, Comparator.comparingDouble((Candidate c) -> c.dist).reversed());
+            int visitedCells = 0;
+            for (int r = 0; r <= maxRing; r++) {
+                if (visitedCells > cells.size()) {
+                    best.clear();
+                    for (Entry entry : byUnit.values()) {
+                        offer(best, entry, GeoMath.haversineKm(lat, lon, entry.lat, entry.lon), maxKm, k);
+                    }
+                    break;
+                }
+                for (int dr = -r; dr <= r; dr++) {
+                    boolean edgeRow = (dr == -r || dr == r);
+                    int step = edgeRow ? 1 : 2 * r;
+                    for (int dc = -r; dc <= r; dc += Math.max(step, 1)) {
+                        visitedCells++;
+                        List<Entry> bucket = cells.get(cellKey(row0 + dr, col0 + dc));
+                        if (bucket == null) continue;
+                        for (Entry entry : bucket) {
+                            offer(best, entry, GeoMath.haversineKm(lat, lon, entry.lat, entry.lon), maxKm, k);
+                        }
+                    }
+                }
+                if (best.size() == k && best.peek().dist <= r * minCellKm) break;
+            }
+            List<EmergencyUnit> result = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                result.add(best.poll().entry.unit);
+            }
+            Collections.reverse(result);
+            return result;
+        }
+
+        private static void offer(PriorityQueue<Candidate> best, Entry entry, double dist, double maxKm, int k) {
+            if (dist > maxKm) return;
+            if (best.size() < k) {
+                best.add(new Candidate(entry, dist));
+            } else if (dist < best.peek().dist) {
+                best.poll();
+                best.add(new Candidate(entry, dist));
+            }
+        }
+
+        private EmergencyUnit scanAll(double lat, double lon, double maxKm) {
+            Entry best = null;
+            double bestDist = Double.MAX_VALUE;
+            for (Entry entry : byUnit.values()) {
+                double dist = GeoMath.haversineKm(lat, lon, entry.lat, entry.lon);
+                if (dist <= maxKm && dist < bestDist) {
+                    bestDist = dist;
+                    best = entry;
+                }
+            }
+            return best == null ? null : best.unit;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.emergency.dispatch.service.IOservice;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.emergency.dispatch.enums.EmergencyUnitType;
+import com.emergency.dispatch.model.EmergencyUnit;
+import com.emergency.dispatch.model.Incident;
+
+/**
+ * Highest-priority incident first, each taking its nearest free units.
+ */
+@Component
+@ConditionalOnProperty(name = "dispatch.strategy", havingValue = "greedy", matchIfMissing = true)
+public class GreedyDispatchStrategy implements DispatchStrategy {
+
+    @Override
+    public List<DispatchDecision> assign(EmergencyUnitType type, List<Incident> incidents, ToIntFunction<Incident> unitsNeeded,
+                                         FreeUnitIndex freeUnits, double maxKm, long now) {
+        List<DispatchDecision> decisions = new ArrayList<>();
+        for (Incident incident : incidents) {
+            if (freeUnits.size(type) == 0) break;
+            int needed = unitsNeeded.applyAsInt(incident);
+            if (needed <= 0) continue;
+            List<EmergencyUnit> nearestUnits = freeUnits.kNearest(type, incident.getLatitude(), incident.getLongtitude(), maxKm, needed);
+            for (EmergencyUnit unit : nearestUnits) {
+                freeUnits.remove(unit.getUnitID());
+                decisions.add(new DispatchDecision(unit, incident, now));
+            }
+        }
+        return decisions;
+    }
+}
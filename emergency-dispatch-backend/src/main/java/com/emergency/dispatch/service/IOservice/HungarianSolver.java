@@ -0,0 +1,98 @@
+package com.emergency.dispatch.service.IOservice;
+
+import java.util.Arrays;
+
+/**
+ * Min-cost assignment (Hungarian algorithm with potentials, O(n^2 m)) on a flat row-major
+ * cost matrix. Works on primitive arrays only so a 1000 x 1000 problem stays well inside a tick.
+ */
+public final class HungarianSolver {
+
+    private HungarianSolver() {
+    }
+
+    /**
+     * Column assigned to each row, or -1 for rows left unassigned when there are more rows than columns.
+     */
+    public static int[] solve(double[] cost, int rows, int cols) {
+        if (rows == 0 || cols == 0) {
+            int[] none = new int[rows];
+            Arrays.fill(none, -1);
+            return none;
+        }
+        if (rows <= cols) {
+            return solveRowsLeqCols(cost, rows, cols);
+        }
+        // More rows than columns: solve the transposed problem and invert the result
+        double[] transposed = new double[cost.length];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                transposed[j * rows + i] = cost[i * cols + j];
+            }
+        }
+        int[] rowOfCol = solveRowsLeqCols(transposed, cols, rows);
+        int[] colOfRow = new int[rows];
+        Arrays.fill(colOfRow, -1);
+        for (int j = 0; j < cols; j++) {
+            colOfRow[rowOfCol[j]] = j;
+        }
+        return colOfRow;
+    }
+
+    private static int[] solveRowsLeqCols(double[] cost, int n, int m) {
+        // 1-based arrays as in the classic formulation; index 0 is the virtual column
+        double[] u = new double[n + 1];
+        double[] v = new double[m + 1];
+        int[] p = new int[m + 1];
+        int[] way = new int[m + 1];
+        double[] minv = new double[m + 1];
+        boolean[] used = new boolean[m + 1];
+
+        for (int i = 1; i <= n; i++) {
+            p[0] = i;
+            int j0 = 0;
+            Arrays.fill(minv, Double.POSITIVE_INFINITY);
+            Arrays.fill(used, false);
+            do {
+                used[j0] = true;
+                int i0 = p[j0];
+                double delta = Double.POSITIVE_INFINITY;
+                int j1 = 0;
+                int rowOffset = (i0 - 1) * m - 1;
+                for (int j = 1; j <= m; j++) {
+                    if (used[j]) continue;
+                    double cur = cost[rowOffset + j] - u[i0] - v[j];
+                    if (cur < minv[j]) {
+                        minv[j] = cur;
+                        way[j] = j0;
+                    }
+                    if (minv[j] < delta) {
+                        delta = minv[j];
+                        j1 = j;
+                    }
+                }
+                for (int j = 0; j <= m; j++) {
+                    if (used[j]) {
+                        u[p[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minv[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (p[j0] != 0);
+            do {
+                int j1 = way[j0];
+                p[j0] = p[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+
+        int[] colOfRow = new int[n];
+        Arrays.fill(colOfRow, -1);
+        for (int j = 1; j <= m; j++) {
+            if (p[j] != 0) colOfRow[p[j] - 1] = j - 1;
+        }
+        return colOfRow;
+    }
+}
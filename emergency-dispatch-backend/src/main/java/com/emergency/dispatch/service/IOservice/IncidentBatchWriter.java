@@ -0,0 +1,63 @@
+package com.emergency.dispatch.service.IOservice;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.emergency.dispatch.model.Incident;
+import com.emergency.dispatch.service.AnalyticsRollupService;
+
+/**
+ * Inserts new incidents as one JDBC batch per call and writes the generated IDs back
+ * onto the given objects, instead of one JPA save (and round trip) per incident.
+ */
+@Component
+public class IncidentBatchWriter {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO incident (latitude, longtitude, needs, type, reported_time, severity_level, status) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AnalyticsRollupService analyticsRollupService;
+
+    @Transactional
+    public void insert(List<Incident> incidents) {
+        if (incidents.isEmpty()) return;
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (Incident incident : incidents) {
+                    ps.setDouble(1, incident.getLatitude());
+                    ps.setDouble(2, incident.getLongtitude());
+                    ps.setInt(3, incident.getNeeds());
+                    ps.setString(4, incident.getType().name());
+                    ps.setLong(5, incident.getReportedTime());
+                    ps.setString(6, incident.getSeverityLevel().name());
+                    ps.setString(7, incident.getStatus().name());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    int i = 0;
+                    while (keys.next() && i < incidents.size()) {
+                        incidents.get(i++).setIncidentId(keys.getLong(1));
+                    }
+                    if (i != incidents.size()) {
+                        throw new IllegalStateException("Expected " + incidents.size() + " generated keys but got " + i);
+                    }
+                }
+            }
+            return null;
+        });
+        analyticsRollupService.recordIncidents(incidents);
+    }
+}
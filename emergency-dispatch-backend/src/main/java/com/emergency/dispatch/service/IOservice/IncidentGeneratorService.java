@@ -3,14 +3,27 @@ package com.emergency.dispatch.service.IOservice;
 import com.emergency.dispatch.enums.IncidentStatus;
 import com.emergency.dispatch.enums.IncidentType;
 import com.emergency.dispatch.enums.SeverityLevel;
+import com.emergency.dispatch.event.IncidentChangedEvent;
+import com.emergency.dispatch.event.IncidentsDispatchedEvent;
 import com.emergency.dispatch.model.Incident;
 import com.emergency.dispatch.repository.IncidentRepository;
+import com.emergency.dispatch.service.BroadcastCoalescer;
 import com.emergency.dispatch.service.IncidentMonitorService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class IncidentGeneratorService {
@@ -23,27 +36,283 @@ public class IncidentGeneratorService {
     @Autowired
     private IncidentMonitorService incidentMonitorService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private IncidentBatchWriter incidentBatchWriter;
+
+    @Autowired
+    private BroadcastCoalescer broadcastCoalescer;
+
+    // How often the load generator wakes up to insert the arrivals that are due
+    @Value("${load-generator.batch-ms:50}")
+    private long loadBatchMs;
+
+    // Generated incidents still undispatched after this long stop being tracked for dispatch latency
+    @Value("${load-generator.dispatch-timeout-ms:600000}")
+    private long dispatchTimeoutMs;
+
     private static final IncidentType[] TYPES = IncidentType.values();
     private static final SeverityLevel[] SEVERITIES = SeverityLevel.values();
     private static final Random RANDOM = new Random();
 
+    // Las Vegas bounds: lat 36.04–36.27, lng -115.29–-115.04
+    private static final double MIN_LAT = 36.04;
+    private static final double MAX_LAT = 36.27;
+    private static final double MIN_LON = -115.29;
+    private static final double MAX_LON = -115.04;
+    // Spread of incidents around a hotspot centre (~1 km) and share of incidents outside any hotspot
+    private static final double HOTSPOT_SIGMA_DEG = 0.01;
+    private static final double BACKGROUND_SHARE = 0.2;
+    private static final int MAX_LOAD_BATCH = 5000;
+    // Upper bound on incidents tracked for dispatch latency, whatever the timeout
+    private static final int MAX_AWAITING_DISPATCH = 200_000;
+
+    // Load generator state; one run at a time
+    private final AtomicBoolean loadRunning = new AtomicBoolean(false);
+    private Thread loadThread;
+    private volatile Map<String, Object> loadSettings = Map.of();
+    private volatile long loadStartedAt;
+    private volatile long loadStoppedAt;
+    private final AtomicLong loadGenerated = new AtomicLong();
+    private final AtomicLong loadFailed = new AtomicLong();
+    private final AtomicLong loadLagMs = new AtomicLong();
+    private final LatencyHistogram insertLatency = new LatencyHistogram();
+    private final LatencyHistogram dispatchLatency = new LatencyHistogram();
+    // Generated incident ID -> reported time, until the engine dispatches its first unit
+    // or the entry expires; past the size cap new incidents are not tracked
+    private final Map<Long, Long> awaitingDispatch = new ConcurrentHashMap<>();
+    private final AtomicLong undispatchedExpired = new AtomicLong();
+    private final AtomicLong untracked = new AtomicLong();
+
     public void generateRandomIncidents(int count) {
+        List<Incident> incidents = new ArrayList<>(count);
         for (int i = 0; i < count; i++) {
-            Incident incident = new Incident();
-            incident.setType(TYPES[RANDOM.nextInt(TYPES.length)]);
-            // Las Vegas bounds: lat 36.04–36.27, lng -115.29–-115.04
-            incident.setLatitude(36.04 + RANDOM.nextDouble() * (36.27 - 36.04)); // Las Vegas
-            incident.setLongtitude(-115.29 + RANDOM.nextDouble() * (-115.04 - (-115.29))); // Las Vegas
-            incident.setNeeds(1 + RANDOM.nextInt(5));
-            incident.setSeverityLevel(SEVERITIES[RANDOM.nextInt(SEVERITIES.length)]);
-            incident.setStatus(IncidentStatus.PENDING);
-            incident.setReportedTime(System.currentTimeMillis()); // store actual creation time
-            Incident saved = incidentRepository.save(incident);
-            // Per-incident WebSocket broadcast removed to avoid flooding; a single consolidated broadcast is sent after generation.
+            incidents.add(randomIncident(RANDOM, randomLat(RANDOM), randomLon(RANDOM), System.currentTimeMillis()));
+        }
+        incidentBatchWriter.insert(incidents);
+        for (Incident saved : incidents) {
+            eventPublisher.publishEvent(new IncidentChangedEvent(saved));
         }
         // Broadcast enriched incidents list (includes assignment status) to the monitor topic
         incidentMonitorService.broadcastAllIncidents();
         // Also broadcast raw list for legacy HTML clients
         messagingTemplate.convertAndSend("/topic/incidents", incidentRepository.findAll());
     }
+
+    /**
+     * Generate incidents at a sustained rate until stopped or durationSeconds have passed (0 = no limit).
+     * Arrivals follow a Poisson process; model "hotspot" clusters them around a few random centres,
+     * anything else spreads them uniformly. Clients get the new incidents through the delta topics only.
+     */
+    public synchronized boolean startLoad(double ratePerSecond, long durationSeconds, String model, int hotspots, Long seed) {
+        if (ratePerSecond <= 0) throw new IllegalArgumentException("rate must be positive");
+        if (loadRunning.get()) return false;
+        // A run that ended on its own may still be in its finally block
+        if (!awaitLoadThread()) return false;
+        Random random = seed == null ? new Random() : new Random(seed);
+        boolean hotspotModel = "hotspot".equalsIgnoreCase(model);
+        double[][] centres = new double[hotspotModel ? Math.max(1, hotspots) : 0][];
+        for (int i = 0; i < centres.length; i++) {
+            centres[i] = new double[]{randomLat(random), randomLon(random)};
+        }
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("ratePerSecond", ratePerSecond);
+        settings.put("durationSeconds", durationSeconds);
+        settings.put("model", hotspotModel ? "hotspot" : "poisson");
+        settings.put("hotspots", centres.length);
+        settings.put("seed", seed);
+        loadSettings = settings;
+        loadGenerated.set(0);
+        loadFailed.set(0);
+        loadLagMs.set(0);
+        insertLatency.reset();
+        dispatchLatency.reset();
+        awaitingDispatch.clear();
+        undispatchedExpired.set(0);
+        untracked.set(0);
+        loadStartedAt = System.currentTimeMillis();
+        loadStoppedAt = 0;
+        loadRunning.set(true);
+
+        loadThread = new Thread(() -> runLoad(ratePerSecond, durationSeconds, centres, random), "incident-load-generator");
+        loadThread.setDaemon(true);
+        loadThread.start();
+        System.out.println("[IncidentGeneratorService] Load generator started: " + settings);
+        return true;
+    }
+
+    public synchronized void stopLoad() {
+        loadRunning.set(false);
+        if (loadThread != null) {
+            loadThread.interrupt();
+            awaitLoadThread();
+        }
+    }
+
+    /**
+     * Waits for the previous run's thread so its last batch and finally block cannot
+     * touch the next run's flag and metrics. False if interrupted while waiting.
+     */
+    private boolean awaitLoadThread() {
+        if (loadThread == null) return true;
+        try {
+            loadThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        loadThread = null;
+        return true;
+    }
+
+    /**
+     * Published by the dispatch engine once a pass is committed.
+     * Only the first unit of an incident this generator created is measured.
+     */
+    @EventListener
+    public void onIncidentsDispatched(IncidentsDispatchedEvent event) {
+        if (awaitingDispatch.isEmpty()) return;
+        long now = System.currentTimeMillis();
+        for (Long incidentId : event.incidentIds()) {
+            Long reportedTime = awaitingDispatch.remove(incidentId);
+            if (reportedTime != null) {
+                dispatchLatency.record(now - reportedTime);
+            }
+        }
+    }
+
+    public Map<String, Object> loadMetrics() {
+        long end = loadStoppedAt != 0 ? loadStoppedAt : System.currentTimeMillis();
+        long elapsedMs = loadStartedAt == 0 ? 0 : end - loadStartedAt;
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("running", loadRunning.get());
+        metrics.put("settings", loadSettings);
+        metrics.put("elapsedMs", elapsedMs);
+        metrics.put("generated", loadGenerated.get());
+        metrics.put("failed", loadFailed.get());
+        metrics.put("achievedPerSecond", elapsedMs == 0 ? 0.0 : loadGenerated.get() * 1000.0 / elapsedMs);
+        // How far the generator is behind its arrival schedule; grows without bound past the breaking point
+        metrics.put("scheduleLagMs", loadLagMs.get());
+        metrics.put("awaitingDispatch", awaitingDispatch.size());
+        metrics.put("undispatchedExpired", undispatchedExpired.get());
+        metrics.put("untracked", untracked.get());
+        metrics.put("insertBatchMs", insertLatency.snapshot());
+        metrics.put("reportToDispatchMs", dispatchLatency.snapshot());
+        return metrics;
+    }
+
+    private void runLoad(double ratePerSecond, long durationSeconds, double[][] centres, Random random) {
+        long start = loadStartedAt;
+        long end = durationSeconds > 0 ? start + durationSeconds * 1000 : Long.MAX_VALUE;
+        double nextArrival = start + exponentialMs(random, ratePerSecond);
+        long nextExpiryAt = start;
+        try {
+            while (loadRunning.get()) {
+                long now = System.currentTimeMillis();
+                if (now >= end && nextArrival >= end) break;
+                List<Incident> batch = new ArrayList<>();
+                while (nextArrival <= now && nextArrival < end && batch.size() < MAX_LOAD_BATCH) {
+                    double[] point = nextPoint(random, centres);
+                    batch.add(randomIncident(random, point[0], point[1], (long) nextArrival));
+                    nextArrival += exponentialMs(random, ratePerSecond);
+                }
+                if (!batch.isEmpty()) {
+                    persistLoadBatch(batch);
+                }
+                if (now >= nextExpiryAt) {
+                    expireAwaitingDispatch(now);
+                    nextExpiryAt = now + 1000;
+                }
+                loadLagMs.set(Math.max(0, System.currentTimeMillis() - (long) nextArrival));
+                long sleepMs = Math.min(loadBatchMs, (long) nextArrival - System.currentTimeMillis());
+                if (sleepMs > 0) Thread.sleep(sleepMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            loadRunning.set(false);
+            loadStoppedAt = System.currentTimeMillis();
+            System.out.println("[IncidentGeneratorService] Load generator stopped after " + loadGenerated.get() + " incidents");
+        }
+    }
+
+    private void persistLoadBatch(List<Incident> batch) {
+        long insertStart = System.nanoTime();
+        try {
+            incidentBatchWriter.insert(batch);
+        } catch (Exception e) {
+            loadFailed.addAndGet(batch.size());
+            System.err.println("[IncidentGeneratorService] Failed to insert " + batch.size() + " incidents: " + e.getMessage());
+            return;
+        }
+        insertLatency.record((System.nanoTime() - insertStart) / 1_000_000);
+        loadGenerated.addAndGet(batch.size());
+        for (Incident incident : batch) {
+            if (awaitingDispatch.size() < MAX_AWAITING_DISPATCH) {
+                awaitingDispatch.put(incident.getIncidentId(), incident.getReportedTime());
+            } else {
+                untracked.incrementAndGet();
+            }
+            // Straight into the dispatch engine's inbox, no per-incident broadcast or list reload
+            eventPublisher.publishEvent(new IncidentChangedEvent(incident));
+            broadcastCoalescer.incidentChanged(incident.getIncidentId());
+        }
+    }
+
+    private void expireAwaitingDispatch(long now) {
+        long cutoff = now - dispatchTimeoutMs;
+        awaitingDispatch.values().removeIf(reportedTime -> {
+            if (reportedTime >= cutoff) return false;
+            undispatchedExpired.incrementAndGet();
+            return true;
+        });
+    }
+
+    private static Incident randomIncident(Random random, double lat, double lon, long reportedTime) {
+        Incident incident = new Incident();
+        incident.setType(TYPES[random.nextInt(TYPES.length)]);
+        incident.setLatitude(lat);
+        incident.setLongtitude(lon);
+        incident.setNeeds(1 + random.nextInt(5));
+        incident.setSeverityLevel(SEVERITIES[random.nextInt(SEVERITIES.length)]);
+        incident.setStatus(IncidentStatus.PENDING);
+        incident.setReportedTime(reportedTime);
+        return incident;
+    }
+
+    private static double[] nextPoint(Random random, double[][] centres) {
+        if (centres.length == 0 || random.nextDouble() < BACKGROUND_SHARE) {
+            return new double[]{randomLat(random), randomLon(random)};
+        }
+        // Zipf-like weights: the first hotspot is the busiest
+        double totalWeight = 0;
+        for (int i = 0; i < centres.length; i++) totalWeight += 1.0 / (i + 1);
+        double pick = random.nextDouble() * totalWeight;
+        int hotspot = 0;
+        for (; hotspot < centres.length - 1; hotspot++) {
+            pick -= 1.0 / (hotspot + 1);
+            if (pick <= 0) break;
+        }
+        double lat = centres[hotspot][0] + random.nextGaussian() * HOTSPOT_SIGMA_DEG;
+        double lon = centres[hotspot][1] + random.nextGaussian() * HOTSPOT_SIGMA_DEG;
+        return new double[]{
+            Math.max(MIN_LAT, Math.min(MAX_LAT, lat)),
+            Math.max(MIN_LON, Math.min(MAX_LON, lon))
+        };
+    }
+
+    private static double exponentialMs(Random random, double ratePerSecond) {
+        return -Math.log(1.0 - random.nextDouble()) / ratePerSecond * 1000.0;
+    }
+
+    private static double randomLat(Random random) {
+        return MIN_LAT + random.nextDouble() * (MAX_LAT - MIN_LAT);
+    }
+
+    private static double randomLon(Random random) {
+        return MIN_LON + random.nextDouble() * (MAX_LON - MIN_LON);
+    }
 }
@@ -1,72 +1,164 @@
 package com.emergency.dispatch.service.IOservice;
 
 import com.emergency.dispatch.enums.IncidentStatus;
+import com.emergency.dispatch.enums.SeverityLevel;
+import com.emergency.dispatch.event.DispatchEvent;
+import com.emergency.dispatch.event.IncidentChangedEvent;
+import com.emergency.dispatch.event.IncidentRemovedEvent;
+import com.emergency.dispatch.model.Assignment;
 import com.emergency.dispatch.model.Incident;
+import com.emergency.dispatch.repository.AssignmentRepository;
 import com.emergency.dispatch.repository.IncidentRepository;
+import com.emergency.dispatch.service.BroadcastCoalescer;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Escalates PENDING incidents to CRITICAL once they have waited CRITICAL_THRESHOLD_MS without a unit.
+ * Each pending incident has one deadline (reportedTime + threshold) in a DelayQueue, kept in step
+ * with incident events, and a single thread wakes up exactly when the next deadline expires.
+ * Work is proportional to the incidents that actually become overdue, with no periodic table scan.
+ */
 @Service
 public class IncidentMonService {
     @Autowired
     private IncidentRepository incidentRepository;
 
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
     @Autowired
     private org.springframework.messaging.simp.SimpMessagingTemplate messagingTemplate;
 
-    private Thread monitorThread;
-    private final AtomicBoolean running = new AtomicBoolean(false);
-    private static final long CHECK_INTERVAL_MS = 10_000; // check every 10 seconds
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private BroadcastCoalescer broadcastCoalescer;
+
     private static final long CRITICAL_THRESHOLD_MS = 120_000; // 2 minutes
 
+    private final DelayQueue<Deadline> deadlines = new DelayQueue<>();
+    // Current deadline per incident; queue entries that no longer match are stale and skipped
+    private final Map<Long, Deadline> deadlineByIncident = new ConcurrentHashMap<>();
+    // Incidents that became overdue while monitoring was disabled, escalated once it is enabled
+    private final Set<Long> overdueWhileDisabled = ConcurrentHashMap.newKeySet();
+    private final Thread escalationThread;
+
     private volatile boolean monitoringEnabled = false;
 
-    public void startMonitor() {
-        if (monitorThread != null && monitorThread.isAlive()) return;
-        running.set(true);
-        monitorThread = new Thread(() -> {
-            while (running.get()) {
-                try {
-                    long now = System.currentTimeMillis();
-                    List<Incident> incidents = incidentRepository.findAll();
-                    for (Incident incident : incidents) {
-                        if (incident.getStatus() == IncidentStatus.PENDING &&
-                            incident.getReportedTime() != null &&
-                            (now - incident.getReportedTime() > CRITICAL_THRESHOLD_MS)) {
-                            // Check if incident has no assignments
-                            if (incident.getAssignments() == null || incident.getAssignments().isEmpty()) {
-                                incident.setSeverityLevel(com.emergency.dispatch.enums.SeverityLevel.CRITICAL);
-                                incidentRepository.save(incident);
-                            }
-                        }
-                    }
-                    Thread.sleep(CHECK_INTERVAL_MS);
-                } catch (Exception e) {
-                    e.printStackTrace();
+    public IncidentMonService() {
+        escalationThread = new Thread(this::runEscalations, "incident-escalation");
+        escalationThread.setDaemon(true);
+    }
+
+    /**
+     * Schedule every incident that is PENDING at startup; after that only events change the queue.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadDeadlines() {
+        for (Incident incident : incidentRepository.findByStatus(IncidentStatus.PENDING)) {
+            track(incident);
+        }
+        System.out.println("[IncidentMonService] Tracking " + deadlineByIncident.size() + " pending incidents for escalation");
+        escalationThread.start();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDispatchEvent(DispatchEvent event) {
+        if (event instanceof IncidentChangedEvent e) {
+            track(e.incident());
+        } else if (event instanceof IncidentRemovedEvent e) {
+            cancel(e.incidentId());
+        }
+    }
+
+    private void track(Incident incident) {
+        if (incident.getIncidentId() == null) return;
+        if (incident.getStatus() != IncidentStatus.PENDING
+                || incident.getSeverityLevel() == SeverityLevel.CRITICAL
+                || incident.getReportedTime() == null) {
+            cancel(incident.getIncidentId());
+            return;
+        }
+        long dueAt = incident.getReportedTime() + CRITICAL_THRESHOLD_MS;
+        deadlineByIncident.compute(incident.getIncidentId(), (id, current) -> {
+            if (current != null && current.dueAt == dueAt) return current;
+            Deadline next = new Deadline(id, dueAt);
+            deadlines.add(next);
+            return next;
+        });
+    }
+
+    private void cancel(Long incidentId) {
+        deadlineByIncident.remove(incidentId);
+        overdueWhileDisabled.remove(incidentId);
+    }
+
+    private void runEscalations() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Deadline deadline = deadlines.take();
+                if (!deadlineByIncident.remove(deadline.incidentId, deadline)) continue; // rescheduled or cancelled
+                if (monitoringEnabled) {
+                    escalate(deadline.incidentId);
+                } else {
+                    overdueWhileDisabled.add(deadline.incidentId);
                 }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                e.printStackTrace();
             }
-        });
-        monitorThread.start();
+        }
     }
 
-    public void stopMonitor() {
-        running.set(false);
-        if (monitorThread != null) monitorThread.interrupt();
+    private void escalate(Long incidentId) {
+        // Dispatch updates the incident row without an event, so re-check the stored state
+        Incident incident = incidentRepository.findById(incidentId).orElse(null);
+        if (incident == null
+                || incident.getStatus() != IncidentStatus.PENDING
+                || incident.getSeverityLevel() == SeverityLevel.CRITICAL
+                || assignmentRepository.existsByIncident_IncidentId(incidentId)) {
+            return;
+        }
+        incident.setSeverityLevel(SeverityLevel.CRITICAL);
+        Incident saved = incidentRepository.save(incident);
+        System.out.println("[IncidentMonService] Incident " + incidentId + " overdue, escalated to CRITICAL");
+        eventPublisher.publishEvent(new IncidentChangedEvent(saved));
+        broadcastCoalescer.incidentChanged(incidentId);
     }
 
-    public java.util.List<Incident> getOverdueIncidents() {
-        long now = System.currentTimeMillis();
-        java.util.List<Incident> overdue = new java.util.ArrayList<>();
-        for (Incident incident : incidentRepository.findAll()) {
-            if (incident.getStatus() == IncidentStatus.PENDING &&
-                incident.getReportedTime() != null &&
-                (now - incident.getReportedTime() > CRITICAL_THRESHOLD_MS) &&
-                (incident.getAssignments() == null || incident.getAssignments().isEmpty())) {
+    public List<Incident> getOverdueIncidents() {
+        long cutoff = System.currentTimeMillis() - CRITICAL_THRESHOLD_MS;
+        List<Incident> candidates = incidentRepository.findByStatusAndReportedTimeLessThan(IncidentStatus.PENDING, cutoff);
+        if (candidates.isEmpty()) return new ArrayList<>();
+        List<Long> ids = new ArrayList<>(candidates.size());
+        for (Incident incident : candidates) {
+            ids.add(incident.getIncidentId());
+        }
+        // One query for all candidates instead of touching each incident's assignments
+        Set<Long> assigned = new HashSet<>();
+        for (Assignment assignment : assignmentRepository.findByIncident_IncidentIdIn(ids)) {
+            assigned.add(assignment.getIncident().getIncidentId());
+        }
+        List<Incident> overdue = new ArrayList<>();
+        for (Incident incident : candidates) {
+            if (!assigned.contains(incident.getIncidentId())) {
                 overdue.add(incident);
             }
         }
@@ -86,28 +178,38 @@ public class IncidentMonService {
 
     public void enableMonitoring() {
         monitoringEnabled = true;
+        List<Long> overdue = new ArrayList<>(overdueWhileDisabled);
+        overdueWhileDisabled.removeAll(overdue);
+        for (Long incidentId : overdue) {
+            try {
+                escalate(incidentId);
+            } catch (Exception e) {
+                System.err.println("[IncidentMonService] Failed to escalate incident " + incidentId + ": " + e.getMessage());
+            }
+        }
     }
 
     public void disableMonitoring() {
         monitoringEnabled = false;
     }
 
-    @Scheduled(fixedDelay = CHECK_INTERVAL_MS)
-    @Transactional
-    public void monitorIncidents() {
-        if (!monitoringEnabled) return;
-        long now = System.currentTimeMillis();
-        List<Incident> incidents = incidentRepository.findAll();
-        for (Incident incident : incidents) {
-            if (incident.getStatus() == IncidentStatus.PENDING &&
-                incident.getReportedTime() != null &&
-                (now - incident.getReportedTime() > CRITICAL_THRESHOLD_MS)) {
-                // Check if incident has no assignments
-                if (incident.getAssignments() == null || incident.getAssignments().isEmpty()) {
-                    incident.setSeverityLevel(com.emergency.dispatch.enums.SeverityLevel.CRITICAL);
-                    incidentRepository.save(incident);
-                }
-            }
+    private static final class Deadline implements Delayed {
+        final Long incidentId;
+        final long dueAt;
+
+        Deadline(Long incidentId, long dueAt) {
+            this.incidentId = incidentId;
+            this.dueAt = dueAt;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAt - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAt, ((Deadline) other).dueAt);
         }
     }
 }
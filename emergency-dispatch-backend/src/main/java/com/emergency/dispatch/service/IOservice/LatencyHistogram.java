@@ -0,0 +1,91 @@
+package com.emergency.dispatch.service.IOservice;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with power-of-two millisecond buckets (0, 1, 2, 4, ... ms).
+ * Percentiles are reported as the upper bound of the bucket they fall in.
+ */
+public final class LatencyHistogram {
+
+    // Bucket i holds values up to 2^(i-1) ms; the last bucket takes everything larger (> ~9 h)
+    private static final int BUCKETS = 26;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long millis) {
+        long value = Math.max(0, millis);
+        counts.incrementAndGet(bucketOf(value));
+        total.incrementAndGet();
+        sum.addAndGet(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    public long count() {
+        return total.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        total.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    /**
+     * Count, mean, max, p50/p90/p99 and the non-empty buckets keyed by their upper bound.
+     */
+    public Map<String, Object> snapshot() {
+        long[] copy = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            n += copy[i];
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("count", n);
+        if (n == 0) return result;
+        result.put("meanMs", (double) sum.get() / total.get());
+        result.put("maxMs", max.get());
+        result.put("p50Ms", percentile(copy, n, 0.50));
+        result.put("p90Ms", percentile(copy, n, 0.90));
+        result.put("p99Ms", percentile(copy, n, 0.99));
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        for (int i = 0; i < BUCKETS; i++) {
+            if (copy[i] == 0) continue;
+            String label = i == BUCKETS - 1 ? ">" + upperBound(i - 1) + "ms" : "<=" + upperBound(i) + "ms";
+            buckets.put(label, copy[i]);
+        }
+        result.put("buckets", buckets);
+        return result;
+    }
+
+    private long percentile(long[] copy, long n, double q) {
+        long rank = (long) Math.ceil(q * n);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += copy[i];
+            if (seen >= rank) return Math.min(upperBound(i), max.get());
+        }
+        return max.get();
+    }
+
+    private static int bucketOf(long value) {
+        if (value == 0) return 0;
+        int bucket = 65 - Long.numberOfLeadingZeros(value - 1);
+        return Math.min(bucket, BUCKETS - 1);
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket == BUCKETS - 1) return Long.MAX_VALUE;
+        return bucket == 0 ? 0 : 1L << (bucket - 1);
+    }
+}
@@ -0,0 +1,140 @@
+package com.emergency.dispatch.service.IOservice;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.emergency.dispatch.service.BroadcastCoalescer;
+
+/**
+ * Times the work units do on scene after arriving. Each wait is a scheduled task rather than
+ * a sleeping thread, and finished jobs are completed together every {@code on-scene.batch-ms}.
+ * Independent of the simulation thread, so units already on scene still finish across stop/start.
+ */
+@Component
+public class OnSceneScheduler {
+
+    // Failed completions are retried this many times, doubling the delay each time
+    private static final int MAX_ATTEMPTS = 5;
+
+    @Autowired
+    private DoneAssignmentService doneAssignmentService;
+
+    @Autowired
+    private FleetStateStore fleetStateStore;
+
+    @Autowired
+    private BroadcastCoalescer broadcastCoalescer;
+
+    private final ScheduledThreadPoolExecutor timer;
+    // Jobs whose on-scene time has elapsed, waiting for the next batch
+    private final Queue<OnSceneJob> due = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger onScene = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile int lastBatchSize;
+    private final long retryDelayMs;
+
+    public OnSceneScheduler(@Value("${on-scene.batch-ms:250}") long batchMs,
+                            @Value("${on-scene.retry-delay-ms:1000}") long retryDelayMs) {
+        this.retryDelayMs = retryDelayMs;
+        AtomicInteger threadCount = new AtomicInteger();
+        timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "on-scene-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleWithFixedDelay(this::completeDueJobs, batchMs, batchMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Complete the unit's assignment at the incident once workMillis have passed.
+     */
+    public void schedule(Long unitId, Long incidentId, long workMillis) {
+        onScene.incrementAndGet();
+        timer.schedule(() -> due.add(new OnSceneJob(unitId, incidentId, 1)), workMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("unitsOnScene", onScene.get());
+        metrics.put("completed", completed.get());
+        metrics.put("failed", failed.get());
+        metrics.put("lastBatchSize", lastBatchSize);
+        metrics.put("timerPoolSize", timer.getPoolSize());
+        metrics.put("timerActiveThreads", timer.getActiveCount());
+        metrics.put("scheduledTasks", timer.getQueue().size());
+        return metrics;
+    }
+
+    private void completeDueJobs() {
+        List<OnSceneJob> batch = new ArrayList<>();
+        OnSceneJob job;
+        while ((job = due.poll()) != null) {
+            batch.add(job);
+        }
+        if (batch.isEmpty()) return;
+        lastBatchSize = batch.size();
+        try {
+            // Completion saves the unit rows through JPA, so write the latest positions first
+            fleetStateStore.flushPositions();
+            Map<Long, Long> incidentByUnit = new LinkedHashMap<>();
+            for (OnSceneJob finished : batch) {
+                incidentByUnit.put(finished.unitId(), finished.incidentId());
+            }
+            doneAssignmentService.completeAssignmentsForUnits(incidentByUnit);
+            batch.forEach(this::finished);
+        } catch (Exception e) {
+            System.err.println("[OnSceneScheduler] Failed to complete " + batch.size() + " assignments together, retrying one by one: " + e.getMessage());
+            // One bad row rolls back the whole batch, so the others are completed on their own
+            for (OnSceneJob single : batch) {
+                try {
+                    doneAssignmentService.completeAssignmentForUnit(single.incidentId(), single.unitId());
+                    finished(single);
+                } catch (Exception singleError) {
+                    retryLater(single, singleError);
+                }
+            }
+        }
+    }
+
+    private void finished(OnSceneJob job) {
+        System.out.println("[Simulation] Unit " + job.unitId() + " finished at Incident " + job.incidentId());
+        // Freed units come with the assignments
+        broadcastCoalescer.unitChanged(job.unitId());
+        broadcastCoalescer.incidentChanged(job.incidentId());
+        broadcastCoalescer.assignmentsChanged(job.incidentId());
+        completed.incrementAndGet();
+        onScene.decrementAndGet();
+    }
+
+    private void retryLater(OnSceneJob job, Exception error) {
+        if (job.attempts() >= MAX_ATTEMPTS) {
+            System.err.println("[OnSceneScheduler] Giving up on unit " + job.unitId() + " at incident " + job.incidentId()
+                + " after " + job.attempts() + " attempts: " + error.getMessage());
+            failed.incrementAndGet();
+            onScene.decrementAndGet();
+            return;
+        }
+        // The unit stays busy until completion succeeds, so keep it queued with a growing delay
+        long delayMs = retryDelayMs << (job.attempts() - 1);
+        timer.schedule(() -> due.add(job.nextAttempt()), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private record OnSceneJob(Long unitId, Long incidentId, int attempts) {
+        OnSceneJob nextAttempt() {
+            return new OnSceneJob(unitId, incidentId, attempts + 1);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.emergency.dispatch.service.IOservice;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.emergency.dispatch.enums.EmergencyUnitType;
+import com.emergency.dispatch.model.EmergencyUnit;
+import com.emergency.dispatch.model.Incident;
+
+/**
+ * Solves min-cost matching between the pass's pending incidents and free units of one type.
+ * An incident that needs n units contributes n rows and cost is the straight-line ETA.
+ * Severity tiers are solved in order, so a critical incident never gives up its unit to make room for
+ * lower-severity matches; within a tier the matching avoids the long trips greedy can leave behind.
+ * Each connected component of the incident/candidate-unit graph is solved on its own matrix.
+ */
+@Component
+@ConditionalOnProperty(name = "dispatch.strategy", havingValue = "optimal")
+public class OptimalDispatchStrategy implements DispatchStrategy {
+
+    // Pairs outside the candidate lists; large enough that any real match is always preferred
+    private static final double FORBIDDEN = 1e9;
+
+    @Value("${dispatch.optimal.max-batch:1000}")
+    private int maxBatch;
+
+    // Only the k nearest units of each incident become matrix columns
+    @Value("${dispatch.optimal.candidates:8}")
+    private int candidatesPerIncident;
+
+    // Components whose rows x columns exceed this are dispatched nearest-first instead of solved
+    @Value("${dispatch.optimal.max-cells:1000000}")
+    private long maxCells;
+
+    @Autowired
+    private UnitSpeedProfile unitSpeedProfile;
+
+    @Override
+    public List<DispatchDecision> assign(EmergencyUnitType type, List<Incident> incidents, ToIntFunction<Incident> unitsNeeded,
+                                         FreeUnitIndex freeUnits, double maxKm, long now) {
+        List<DispatchDecision> decisions = new ArrayList<>();
+
+        // Whole incidents only, in priority order, up to the batch cap on rows
+        int batched = 0;
+        int rows = 0;
+        for (; batched < incidents.size(); batched++) {
+            int needed = unitsNeeded.applyAsInt(incidents.get(batched));
+            if (rows > 0 && rows + needed > maxBatch) break;
+            rows += needed;
+        }
+
+        // Incidents arrive sorted by severity, so each tier is a contiguous run
+        for (int start = 0; start < batched && freeUnits.size(type) > 0; ) {
+            int end = start + 1;
+            while (end < batched && Objects.equals(incidents.get(end).getSeverityLevel(), incidents.get(start).getSeverityLevel())) {
+                end++;
+            }
+            assignTier(type, incidents.subList(start, end), unitsNeeded, freeUnits, maxKm, now, decisions);
+            start = end;
+        }
+
+        // Incidents past the batch cap fall back to nearest units until the next pass
+        for (int i = batched; i < incidents.size() && freeUnits.size(type) > 0; i++) {
+            assignNearest(type, incidents.get(i), unitsNeeded, freeUnits, maxKm, now, decisions);
+        }
+        return decisions;
+    }
+
+    private void assignTier(EmergencyUnitType type, List<Incident> tier, ToIntFunction<Incident> unitsNeeded,
+                            FreeUnitIndex freeUnits, double maxKm, long now, List<DispatchDecision> decisions) {
+        int n = tier.size();
+        // Columns are the union of every incident's candidate units among those still free
+        Map<Long, Integer> columnByUnit = new HashMap<>();
+        List<EmergencyUnit> columns = new ArrayList<>();
+        List<List<EmergencyUnit>> candidates = new ArrayList<>(n);
+        for (Incident incident : tier) {
+            int k = Math.max(candidatesPerIncident, unitsNeeded.applyAsInt(incident));
+            List<EmergencyUnit> nearest = freeUnits.kNearest(type, incident.getLatitude(), incident.getLongtitude(), maxKm, k);
+            candidates.add(nearest);
+            for (EmergencyUnit unit : nearest) {
+                if (columnByUnit.putIfAbsent(unit.getUnitID(), columns.size()) == null) {
+                    columns.add(unit);
+                }
+            }
+        }
+        if (columns.isEmpty()) return;
+
+        // Union-find over incidents (0..n-1) and columns (n..): incidents sharing a candidate are linked
+        int[] parent = new int[n + columns.size()];
+        for (int i = 0; i < parent.length; i++) parent[i] = i;
+        for (int i = 0; i < n; i++) {
+            for (EmergencyUnit unit : candidates.get(i)) {
+                union(parent, i, n + columnByUnit.get(unit.getUnitID()));
+            }
+        }
+        Map<Integer, List<Integer>> componentIncidents = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            if (!candidates.get(i).isEmpty()) {
+                componentIncidents.computeIfAbsent(find(parent, i), root -> new ArrayList<>()).add(i);
+            }
+        }
+
+        double speedKmh = unitSpeedProfile.speedKmh(type);
+        int[] localColumn = new int[columns.size()];
+        for (List<Integer> members : componentIncidents.values()) {
+            // Rows and columns of this component only
+            List<Integer> rowIncident = new ArrayList<>();
+            List<EmergencyUnit> componentColumns = new ArrayList<>();
+            Arrays.fill(localColumn, -1);
+            for (int i : members) {
+                for (int s = unitsNeeded.applyAsInt(tier.get(i)); s > 0; s--) {
+                    rowIncident.add(i);
+                }
+                for (EmergencyUnit unit : candidates.get(i)) {
+                    int column = columnByUnit.get(unit.getUnitID());
+                    if (localColumn[column] < 0) {
+                        localColumn[column] = componentColumns.size();
+                        componentColumns.add(unit);
+                    }
+                }
+            }
+            int rows = rowIncident.size();
+            int cols = componentColumns.size();
+            if ((long) rows * cols > maxCells) {
+                for (int i : members) {
+                    assignNearest(type, tier.get(i), unitsNeeded, freeUnits, maxKm, now, decisions);
+                }
+                continue;
+            }
+
+            double[] cost = new double[rows * cols];
+            Arrays.fill(cost, FORBIDDEN);
+            for (int r = 0; r < rows; r++) {
+                Incident incident = tier.get(rowIncident.get(r));
+                for (EmergencyUnit unit : candidates.get(rowIncident.get(r))) {
+                    double km = GeoMath.haversineKm(incident.getLatitude(), incident.getLongtitude(), unit.getLatitude(), unit.getLongtitude());
+                    cost[r * cols + localColumn[columnByUnit.get(unit.getUnitID())]] = km / speedKmh * 60.0;
+                }
+            }
+
+            int[] colOfRow = HungarianSolver.solve(cost, rows, cols);
+            for (int r = 0; r < rows; r++) {
+                int j = colOfRow[r];
+                if (j < 0 || cost[r * cols + j] >= FORBIDDEN) continue;
+                EmergencyUnit unit = componentColumns.get(j);
+                freeUnits.remove(unit.getUnitID());
+                decisions.add(new DispatchDecision(unit, tier.get(rowIncident.get(r)), now));
+            }
+        }
+    }
+
+    private static void assignNearest(EmergencyUnitType type, Incident incident, ToIntFunction<Incident> unitsNeeded,
+                                      FreeUnitIndex freeUnits, double maxKm, long now, List<DispatchDecision> decisions) {
+        for (EmergencyUnit unit : freeUnits.kNearest(type, incident.getLatitude(), incident.getLongtitude(), maxKm, unitsNeeded.applyAsInt(incident))) {
+            freeUnits.remove(unit.getUnitID());
+            decisions.add(new DispatchDecision(unit, incident, now));
+        }
+    }
+
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) parent[rootA] = rootB;
+    }
+}
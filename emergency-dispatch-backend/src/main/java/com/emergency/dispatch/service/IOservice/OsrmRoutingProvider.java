@@ -0,0 +1,58 @@
+package com.emergency.dispatch.service.IOservice;
+
+import java.time.Duration;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Routes from an OSRM-compatible HTTP server.
+ */
+@Component
+@ConditionalOnProperty(name = "routing.provider", havingValue = "osrm", matchIfMissing = true)
+public class OsrmRoutingProvider implements RoutingProvider {
+
+    private final String baseUrl;
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public OsrmRoutingProvider(
+            @Value("${routing.osrm.base-url:http://router.project-osrm.org}") String baseUrl,
+            @Value("${routing.connect-timeout-ms:2000}") long connectTimeoutMs,
+            @Value("${routing.read-timeout-ms:5000}") long readTimeoutMs) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(Duration.ofMillis(connectTimeoutMs));
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        this.restTemplate = new RestTemplate(requestFactory);
+    }
+
+    @Override
+    public RoutePath route(double fromLat, double fromLon, double toLat, double toLon) throws Exception {
+        // OSRM requires "lon,lat" format; US locale keeps dots as decimal separators
+        String coordinates = String.format(Locale.US, "%f,%f;%f,%f", fromLon, fromLat, toLon, toLat);
+        String url = baseUrl + "/route/v1/driving/" + coordinates + "?geometries=geojson&overview=full";
+
+        String response = restTemplate.getForObject(url, String.class);
+        JsonNode root = objectMapper.readTree(response);
+        if (!root.path("code").asText().equals("Ok")) {
+            throw new IllegalStateException("OSRM returned " + root.path("code").asText());
+        }
+        JsonNode geometry = root.path("routes").get(0).path("geometry").path("coordinates");
+        double[] coords = new double[geometry.size() * 2];
+        int i = 0;
+        for (JsonNode coord : geometry) {
+            // OSRM returns [lon, lat]
+            coords[i++] = coord.get(1).asDouble();
+            coords[i++] = coord.get(0).asDouble();
+        }
+        return RoutePath.wrap(coords);
+    }
+}
@@ -0,0 +1,303 @@
+package com.emergency.dispatch.service.IOservice;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process router over a road graph of the service area, answering A* queries without any network call.
+ *
+ * The graph file is plain text: a "nodeCount edgeCount" line, then one "lat lon" line per node,
+ * then one "from to oneway" line per edge (node indexes are 0-based, oneway is 0 or 1).
+ * Blank lines and lines starting with '#' are ignored. Edge lengths are computed from the node positions.
+ */
+@Component
+@ConditionalOnProperty(name = "routing.provider", havingValue = "graph")
+public class RoadGraphRoutingProvider implements RoutingProvider {
+
+    // Bucket size for snapping query points to the nearest node
+    private static final double CELL_DEG = 0.01;
+
+    private final double[] nodeLat;
+    private final double[] nodeLon;
+    // CSR adjacency: edges of node n are edgeTarget/edgeKm[firstEdge[n] .. firstEdge[n + 1])
+    private final int[] firstEdge;
+    private final int[] edgeTarget;
+    private final double[] edgeKm;
+    private final Map<Long, int[]> nodesByCell = new HashMap<>();
+
+    // Search arrays are sized to the graph, so each routing thread keeps its own
+    private final ThreadLocal<SearchState> searchState;
+
+    public RoadGraphRoutingProvider(@Value("${routing.graph.file}") String graphFile) {
+        long start = System.currentTimeMillis();
+        int nodeCount;
+        int[] edgeFrom;
+        int[] edgeTo;
+        int directedEdges;
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(graphFile), StandardCharsets.UTF_8)) {
+            String[] header = nextLine(reader).trim().split("\\s+");
+            nodeCount = Integer.parseInt(header[0]);
+            int edgeCount = Integer.parseInt(header[1]);
+            if (nodeCount < 0 || edgeCount < 0) {
+                throw new IllegalArgumentException("negative node or edge count in header");
+            }
+            nodeLat = new double[nodeCount];
+            nodeLon = new double[nodeCount];
+            for (int n = 0; n < nodeCount; n++) {
+                String[] parts = nextLine(reader).trim().split("\\s+");
+                nodeLat[n] = Double.parseDouble(parts[0]);
+                nodeLon[n] = Double.parseDouble(parts[1]);
+            }
+            // Two-way edges become two directed edges
+            edgeFrom = new int[edgeCount * 2];
+            edgeTo = new int[edgeCount * 2];
+            directedEdges = 0;
+            for (int e = 0; e < edgeCount; e++) {
+                String[] parts = nextLine(reader).trim().split("\\s+");
+                int from = Integer.parseInt(parts[0]);
+                int to = Integer.parseInt(parts[1]);
+                if (from < 0 || from >= nodeCount || to < 0 || to >= nodeCount) {
+                    throw new IllegalArgumentException("edge " + e + " (" + from + " -> " + to
+                        + ") refers to a node outside 0.." + (nodeCount - 1));
+                }
+                boolean oneway = parts.length > 2 && parts[2].equals("1");
+                edgeFrom[directedEdges] = from;
+                edgeTo[directedEdges++] = to;
+                if (!oneway) {
+                    edgeFrom[directedEdges] = to;
+                    edgeTo[directedEdges++] = from;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("Could not load road graph from " + graphFile + ": " + e.getMessage(), e);
+        }
+
+        // Counting sort of the directed edges by source node into CSR form
+        firstEdge = new int[nodeCount + 1];
+        for (int e = 0; e < directedEdges; e++) {
+            firstEdge[edgeFrom[e] + 1]++;
+        }
+        for (int n = 0; n < nodeCount; n++) {
+            firstEdge[n + 1] += firstEdge[n];
+        }
+        edgeTarget = new int[directedEdges];
+        edgeKm = new double[directedEdges];
+        int[] next = Arrays.copyOf(firstEdge, nodeCount);
+        for (int e = 0; e < directedEdges; e++) {
+            int from = edgeFrom[e];
+            int slot = next[from]++;
+            edgeTarget[slot] = edgeTo[e];
+            edgeKm[slot] = GeoMath.haversineKm(nodeLat[from], nodeLon[from], nodeLat[edgeTo[e]], nodeLon[edgeTo[e]]);
+        }
+
+        Map<Long, List<Integer>> cells = new HashMap<>();
+        for (int n = 0; n < nodeCount; n++) {
+            cells.computeIfAbsent(cellKey(cellIndex(nodeLat[n]), cellIndex(nodeLon[n])), k -> new ArrayList<>()).add(n);
+        }
+        cells.forEach((key, nodes) -> nodesByCell.put(key, nodes.stream().mapToInt(Integer::intValue).toArray()));
+
+        int size = nodeCount;
+        searchState = ThreadLocal.withInitial(() -> new SearchState(size));
+        System.out.println("[RoadGraphRoutingProvider] Loaded " + nodeCount + " nodes and " + directedEdges
+            + " directed edges in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    @Override
+    public RoutePath route(double fromLat, double fromLon, double toLat, double toLon) {
+        int source = nearestNode(fromLat, fromLon);
+        int target = nearestNode(toLat, toLon);
+        if (source < 0 || target < 0) {
+            throw new IllegalStateException("No road graph node near the route endpoints");
+        }
+
+        int[] nodes = aStar(source, target);
+        double[] coords = new double[(nodes.length + 2) * 2];
+        coords[0] = fromLat;
+        coords[1] = fromLon;
+        for (int i = 0; i < nodes.length; i++) {
+            coords[2 * i + 2] = nodeLat[nodes[i]];
+            coords[2 * i + 3] = nodeLon[nodes[i]];
+        }
+        coords[coords.length - 2] = toLat;
+        coords[coords.length - 1] = toLon;
+        return RoutePath.wrap(coords);
+    }
+
+    private int[] aStar(int source, int target) {
+        SearchState state = searchState.get();
+        state.begin();
+        double targetLat = nodeLat[target];
+        double targetLon = nodeLon[target];
+
+        state.reach(source, 0.0, -1);
+        state.push(source, GeoMath.haversineKm(nodeLat[source], nodeLon[source], targetLat, targetLon));
+        while (state.heapSize > 0) {
+            int node = state.pop();
+            if (state.isClosed(node)) continue;
+            if (node == target) {
+                return state.pathTo(target);
+            }
+            state.close(node);
+            double base = state.distance(node);
+            for (int e = firstEdge[node]; e < firstEdge[node + 1]; e++) {
+                int neighbour = edgeTarget[e];
+                if (state.isClosed(neighbour)) continue;
+                double candidate = base + edgeKm[e];
+                if (candidate < state.distance(neighbour)) {
+                    state.reach(neighbour, candidate, node);
+                    // Straight-line distance never overestimates road distance, so A* stays exact
+                    state.push(neighbour, candidate + GeoMath.haversineKm(nodeLat[neighbour], nodeLon[neighbour], targetLat, targetLon));
+                }
+            }
+        }
+        throw new IllegalStateException("No road path between nodes " + source + " and " + target);
+    }
+
+    private int nearestNode(double lat, double lon) {
+        int row0 = cellIndex(lat);
+        int col0 = cellIndex(lon);
+        int best = -1;
+        double bestDist = Double.MAX_VALUE;
+        // Ring search; stop one ring after the first hit since a closer node can sit just across a cell edge
+        for (int r = 0, hitRing = -1; r <= 50 && (hitRing < 0 || r <= hitRing + 1); r++) {
+            for (int dr = -r; dr <= r; dr++) {
+                int step = (dr == -r || dr == r) ? 1 : Math.max(2 * r, 1);
+                for (int dc = -r; dc <= r; dc += step) {
+                    int[] bucket = nodesByCell.get(cellKey(row0 + dr, col0 + dc));
+                    if (bucket == null) continue;
+                    for (int node : bucket) {
+                        double dist = GeoMath.haversineKm(lat, lon, nodeLat[node], nodeLon[node]);
+                        if (dist < bestDist) {
+                            bestDist = dist;
+                            best = node;
+                        }
+                    }
+                }
+            }
+            if (best >= 0 && hitRing < 0) hitRing = r;
+        }
+        return best;
+    }
+
+    private static int cellIndex(double degrees) {
+        return (int) Math.floor(degrees / CELL_DEG);
+    }
+
+    private static long cellKey(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    private static String nextLine(BufferedReader reader) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String trimmed = line.trim();
+            if (!trimmed.isEmpty() && !trimmed.startsWith("#")) return trimmed;
+        }
+        throw new IOException("Unexpected end of graph file");
+    }
+
+    /**
+     * Per-thread A* arrays. A search stamp marks which entries belong to the current query,
+     * so nothing has to be cleared between queries.
+     */
+    private static final class SearchState {
+        final double[] dist;
+        final int[] parent;
+        final int[] seenStamp;
+        final int[] closedStamp;
+        int stamp;
+
+        // Binary min-heap with lazy deletion: stale entries are skipped when popped
+        double[] heapKey = new double[1024];
+        int[] heapNode = new int[1024];
+        int heapSize;
+
+        SearchState(int nodeCount) {
+            dist = new double[nodeCount];
+            parent = new int[nodeCount];
+            seenStamp = new int[nodeCount];
+            closedStamp = new int[nodeCount];
+        }
+
+        void begin() {
+            stamp++;
+            heapSize = 0;
+        }
+
+        double distance(int node) {
+            return seenStamp[node] == stamp ? dist[node] : Double.POSITIVE_INFINITY;
+        }
+
+        void reach(int node, double distance, int from) {
+            seenStamp[node] = stamp;
+            dist[node] = distance;
+            parent[node] = from;
+        }
+
+        boolean isClosed(int node) {
+            return closedStamp[node] == stamp;
+        }
+
+        void close(int node) {
+            closedStamp[node] = stamp;
+        }
+
+        int[] pathTo(int target) {
+            int length = 0;
+            for (int node = target; node != -1; node = parent[node]) length++;
+            int[] path = new int[length];
+            for (int node = target, i = length - 1; node != -1; node = parent[node], i--) {
+                path[i] = node;
+            }
+            return path;
+        }
+
+        void push(int node, double key) {
+            if (heapSize == heapKey.length) {
+                heapKey = Arrays.copyOf(heapKey, heapSize * 2);
+                heapNode = Arrays.copyOf(heapNode, heapSize * 2);
+            }
+            int i = heapSize++;
+            while (i > 0) {
+                int up = (i - 1) >>> 1;
+                if (heapKey[up] <= key) break;
+                heapKey[i] = heapKey[up];
+                heapNode[i] = heapNode[up];
+                i = up;
+            }
+            heapKey[i] = key;
+            heapNode[i] = node;
+        }
+
+        int pop() {
+            int top = heapNode[0];
+            int lastNode = heapNode[--heapSize];
+            double lastKey = heapKey[heapSize];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= heapSize) break;
+                if (child + 1 < heapSize && heapKey[child + 1] < heapKey[child]) child++;
+                if (heapKey[child] >= lastKey) break;
+                heapKey[i] = heapKey[child];
+                heapNode[i] = heapNode[child];
+                i = child;
+            }
+            heapKey[i] = lastKey;
+            heapNode[i] = lastNode;
+            return top;
+        }
+    }
+}
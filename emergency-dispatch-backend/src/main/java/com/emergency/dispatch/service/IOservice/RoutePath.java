@@ -0,0 +1,111 @@
+package com.emergency.dispatch.service.IOservice;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable route polyline packed into one double[] as lat0, lon0, lat1, lon1, ...
+ * One array per route instead of a node plus a double[2] per point, and safe to share
+ * between the route cache and every unit following the same route.
+ * Cumulative distances are computed once so a position can be found by distance in O(log n).
+ */
+public final class RoutePath {
+
+    private final double[] coords;
+    // cumulativeKm[i] is the road distance from the first point to point i
+    private final double[] cumulativeKm;
+
+    private RoutePath(double[] coords) {
+        this.coords = coords;
+        int points = coords.length / 2;
+        this.cumulativeKm = new double[points];
+        for (int i = 1; i < points; i++) {
+            cumulativeKm[i] = cumulativeKm[i - 1]
+                + GeoMath.haversineKm(coords[2 * i - 2], coords[2 * i - 1], coords[2 * i], coords[2 * i + 1]);
+        }
+    }
+
+    /**
+     * Wrap an interleaved lat/lon array; the array must not be modified afterwards.
+     */
+    public static RoutePath wrap(double[] coords) {
+        if (coords.length % 2 != 0) {
+            throw new IllegalArgumentException("Route coordinates must come in lat/lon pairs");
+        }
+        return new RoutePath(coords);
+    }
+
+    public static RoutePath straightLine(double fromLat, double fromLon, double toLat, double toLon) {
+        return new RoutePath(new double[]{fromLat, fromLon, toLat, toLon});
+    }
+
+    public static RoutePath of(List<double[]> points) {
+        double[] coords = new double[points.size() * 2];
+        for (int i = 0; i < points.size(); i++) {
+            coords[2 * i] = points.get(i)[0];
+            coords[2 * i + 1] = points.get(i)[1];
+        }
+        return new RoutePath(coords);
+    }
+
+    public int pointCount() {
+        return coords.length / 2;
+    }
+
+    public double lat(int index) {
+        return coords[2 * index];
+    }
+
+    public double lon(int index) {
+        return coords[2 * index + 1];
+    }
+
+    public double totalKm() {
+        return cumulativeKm.length == 0 ? 0.0 : cumulativeKm[cumulativeKm.length - 1];
+    }
+
+    /**
+     * Index of the segment (from point i to i + 1) that contains the given distance.
+     */
+    public int segmentAt(double km) {
+        int last = cumulativeKm.length - 1;
+        if (last <= 0 || km <= 0) return 0;
+        if (km >= cumulativeKm[last]) return last - 1;
+        int index = Arrays.binarySearch(cumulativeKm, km);
+        // Exact hit on a point starts the next segment; otherwise take the insertion point's predecessor
+        int segment = index >= 0 ? index : -index - 2;
+        return Math.min(segment, last - 1);
+    }
+
+    /**
+     * Latitude at the given distance along the route, interpolated within its segment.
+     */
+    public double latAt(double km, int segment) {
+        return interpolate(km, segment, 0);
+    }
+
+    public double lonAt(double km, int segment) {
+        return interpolate(km, segment, 1);
+    }
+
+    private double interpolate(double km, int segment, int axis) {
+        if (cumulativeKm.length < 2) return coords.length == 0 ? 0.0 : coords[axis];
+        double start = cumulativeKm[segment];
+        double length = cumulativeKm[segment + 1] - start;
+        double t = length <= 0 ? 1.0 : Math.max(0.0, Math.min(1.0, (km - start) / length));
+        double from = coords[2 * segment + axis];
+        double to = coords[2 * segment + 2 + axis];
+        return from + (to - from) * t;
+    }
+
+    /**
+     * [lat, lon] pairs for JSON broadcasts; allocates, so only call it once per route.
+     */
+    public double[][] toPairs() {
+        double[][] pairs = new double[pointCount()][];
+        for (int i = 0; i < pairs.length; i++) {
+            pairs[i] = Arrays.copyOfRange(coords, 2 * i, 2 * i + 2);
+        }
+        return pairs;
+    }
+}
@@ -0,0 +1,122 @@
+package com.emergency.dispatch.service.IOservice;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Road routes for the simulation from the configured {@link RoutingProvider}.
+ * Requests run on a small dedicated pool with a bounded queue, identical routes are cached by
+ * snapped origin/destination cell, and concurrent requests for the same cells share one call.
+ */
+@Component
+public class RoutingClient {
+
+    private final RoutingProvider routingProvider;
+    private final double snapDeg;
+    private final int cacheSize;
+    private final ThreadPoolExecutor executor;
+
+    // Access-ordered, so the eldest entry is the least recently used route
+    private final Map<RouteKey, RoutePath> cache;
+    private final Map<RouteKey, CompletableFuture<RoutePath>> inFlight = new ConcurrentHashMap<>();
+
+    public RoutingClient(
+            RoutingProvider routingProvider,
+            @Value("${routing.max-concurrent:8}") int maxConcurrent,
+            @Value("${routing.max-queued:2000}") int maxQueued,
+            @Value("${routing.cache-size:10000}") int cacheSize,
+            @Value("${routing.snap-deg:0.001}") double snapDeg) {
+        this.routingProvider = routingProvider;
+        this.snapDeg = snapDeg;
+        this.cacheSize = cacheSize;
+
+        // The pool size is the cap on concurrent calls to the router
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(maxQueued), runnable -> {
+                Thread thread = new Thread(runnable, "routing-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<RouteKey, RoutePath> eldest) {
+                return size() > RoutingClient.this.cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Route between the two points. Completes with a straight segment when the router
+     * fails or is saturated, so a dispatched unit always has something to follow.
+     */
+    public CompletableFuture<RoutePath> route(double fromLat, double fromLon, double toLat, double toLon) {
+        RouteKey key = new RouteKey(snap(fromLat), snap(fromLon), snap(toLat), snap(toLon));
+        RoutePath cached;
+        synchronized (cache) {
+            cached = cache.get(key);
+        }
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<RoutePath> created = new CompletableFuture<>();
+        CompletableFuture<RoutePath> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    RoutePath path = routingProvider.route(fromLat, fromLon, toLat, toLon);
+                    synchronized (cache) {
+                        cache.put(key, path);
+                    }
+                    created.complete(path);
+                } catch (Exception e) {
+                    System.err.println("[RoutingClient] Failed to fetch route: " + e.getMessage());
+                    created.complete(RoutePath.straightLine(fromLat, fromLon, toLat, toLon));
+                } finally {
+                    inFlight.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            System.err.println("[RoutingClient] Routing queue full, using straight line");
+            inFlight.remove(key);
+            created.complete(RoutePath.straightLine(fromLat, fromLon, toLat, toLon));
+        }
+        return created;
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        synchronized (cache) {
+            metrics.put("cachedRoutes", cache.size());
+        }
+        metrics.put("inFlight", inFlight.size());
+        metrics.put("poolSize", executor.getPoolSize());
+        metrics.put("activeThreads", executor.getActiveCount());
+        metrics.put("queued", executor.getQueue().size());
+        metrics.put("completedTasks", executor.getCompletedTaskCount());
+        return metrics;
+    }
+
+    private long snap(double degrees) {
+        return Math.round(degrees / snapDeg);
+    }
+
+    private record RouteKey(long fromLat, long fromLon, long toLat, long toLon) {
+    }
+}
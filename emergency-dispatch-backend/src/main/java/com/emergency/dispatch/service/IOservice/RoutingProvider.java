@@ -0,0 +1,14 @@
+package com.emergency.dispatch.service.IOservice;
+
+/**
+ * Source of road routes for the simulation, selected with the {@code routing.provider} property
+ * ({@code osrm} or {@code graph}).
+ */
+public interface RoutingProvider {
+
+    /**
+     * Route from origin to destination as packed lat/lon points.
+     * Throws when no route can be produced; the caller falls back to a straight line.
+     */
+    RoutePath route(double fromLat, double fromLon, double toLat, double toLon) throws Exception;
+}
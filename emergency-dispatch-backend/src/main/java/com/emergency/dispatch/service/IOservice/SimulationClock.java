@@ -0,0 +1,13 @@
+package com.emergency.dispatch.service.IOservice;
+
+/**
+ * Source of "now" for the dispatch engine. The live simulation reads the wall clock;
+ * capacity planning runs against a virtual clock that jumps from event to event.
+ */
+@FunctionalInterface
+public interface SimulationClock {
+
+    SimulationClock SYSTEM = System::currentTimeMillis;
+
+    long currentTimeMillis();
+}
@@ -2,30 +2,41 @@ package com.emergency.dispatch.service.IOservice;
 
 import com.emergency.dispatch.model.EmergencyUnit;
 import com.emergency.dispatch.model.Incident;
-import com.emergency.dispatch.model.Assignment;
+import com.emergency.dispatch.enums.EmergencyUnitType;
 import com.emergency.dispatch.enums.IncidentStatus;
+import com.emergency.dispatch.event.DispatchEvent;
+import com.emergency.dispatch.event.IncidentChangedEvent;
+import com.emergency.dispatch.event.IncidentRemovedEvent;
+import com.emergency.dispatch.event.IncidentsDispatchedEvent;
+import com.emergency.dispatch.event.UnitChangedEvent;
+import com.emergency.dispatch.event.UnitRemovedEvent;
 import com.emergency.dispatch.repository.EmergencyUnitRepository;
 import com.emergency.dispatch.repository.IncidentRepository;
 import com.emergency.dispatch.repository.AssignmentRepository;
+import com.emergency.dispatch.service.BroadcastCoalescer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import org.springframework.web.client.RestTemplate;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.HashMap;
-import java.util.Locale;
-
-
-import java.util.Comparator;
-import java.util.PriorityQueue;
+import java.util.List;
 import java.util.Queue;
+import java.util.Random;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class SimulationService {
@@ -39,63 +50,126 @@ public class SimulationService {
     private SimpMessagingTemplate messagingTemplate;
     @Autowired
     private DoneAssignmentService doneAssignmentService;
+    @Autowired
+    private FreeUnitIndex freeUnitIndex;
+    @Autowired
+    private DispatchBatchWriter dispatchBatchWriter;
+    @Autowired
+    private BroadcastCoalescer broadcastCoalescer;
+    @Autowired
+    private DispatchStrategy dispatchStrategy;
+    @Autowired
+    private RoutingClient routingClient;
+    @Autowired
+    private UnitSpeedProfile unitSpeedProfile;
+    @Autowired
+    private FleetStateStore fleetStateStore;
+    @Autowired
+    private OnSceneScheduler onSceneScheduler;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    // Wall clock unless a SimulationClock bean is provided
+    @Autowired(required = false)
+    private SimulationClock clock = SimulationClock.SYSTEM;
+
+    // Positions are derived from elapsed time, so the tick only controls update frequency
+    @Value("${movement.tick-ms:1000}")
+    private long movementTickMs;
+    // Worker threads shared by the dispatch partitions and movement shards
+    @Value("${simulation.engine-threads:0}")
+    private int engineThreads;
+    private static final double MAX_RADIUS = 50.0; // km
+    private static final int MOVEMENT_SHARDS = 16;
 
+    // On-scene times, one generator per movement shard since shards run in parallel;
+    // all derived from simulation.seed so runs can be repeated
+    private final Random[] shardRandoms = new Random[MOVEMENT_SHARDS];
 
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final ObjectMapper objectMapper = new ObjectMapper();
-    // Store active routes: UnitID -> Queue of [Lat, Lon] points
-    private final Map<Long, Queue<double[]>> activeRoutes = new ConcurrentHashMap<>();
+    // Active routes sharded by unit ID: UnitID -> packed route plus the unit's position on it.
+    // Routing threads add routes; each shard is advanced by exactly one worker per tick.
+    private final List<Map<Long, ActiveRoute>> movementShards = new ArrayList<>(MOVEMENT_SHARDS);
+
+    // Warm working set of pending incidents, one single-writer partition per unit type
+    private final Map<EmergencyUnitType, DispatchPartition> partitions = new EnumMap<>(EmergencyUnitType.class);
+    // Domain events published by other services, applied by the simulation thread
+    private final Queue<DispatchEvent> inbox = new ConcurrentLinkedQueue<>();
+    private final Semaphore wakeup = new Semaphore(0);
     
     private Thread simulationThread;
+    private ExecutorService enginePool;
+    private int enginePoolSize;
+    // Refreshed after each event drain so metrics never read a partition mid-pass
+    private final AtomicInteger pendingCount = new AtomicInteger();
     private final AtomicBoolean running = new AtomicBoolean(false);
+    // When the simulation was last stopped, 0 while running; routes are shifted past the pause on restart
+    private long pausedAt;
+
+    public SimulationService(@Value("${simulation.seed:}") Long seed) {
+        Random seeds = seed == null ? new Random() : new Random(seed);
+        for (EmergencyUnitType type : EmergencyUnitType.values()) {
+            partitions.put(type, new DispatchPartition(type));
+        }
+        for (int i = 0; i < MOVEMENT_SHARDS; i++) {
+            movementShards.add(new ConcurrentHashMap<>());
+            shardRandoms[i] = new Random(seeds.nextLong());
+        }
+    }
 
-    public void startSimulation() {
+    public synchronized void startSimulation() {
         System.out.println("[SimulationService] startSimulation called");
         if (simulationThread != null && simulationThread.isAlive()) {
-            System.out.println("[SimulationService] Simulation thread already running");
+            // Also covers a stop whose join was interrupted: never run two loops at once
+            System.out.println("[SimulationService] Simulation thread " + (running.get() ? "already running" : "still stopping"));
             return;
         }
         running.set(true);
+        if (pausedAt != 0) {
+            long now = clock.currentTimeMillis();
+            for (Map<Long, ActiveRoute> shard : movementShards) {
+                for (ActiveRoute route : shard.values()) {
+                    route.resume(pausedAt, now);
+                }
+            }
+            pausedAt = 0;
+        }
+        if (enginePool == null) {
+            enginePoolSize = engineThreads > 0 ? engineThreads : Runtime.getRuntime().availableProcessors();
+            AtomicInteger threadCount = new AtomicInteger();
+            enginePool = Executors.newFixedThreadPool(enginePoolSize, runnable -> {
+                Thread thread = new Thread(runnable, "simulation-engine-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
         simulationThread = new Thread(() -> {
             System.out.println("[SimulationService] Simulation thread started");
-            // Priority queues for incidents by type and severity
-            Queue<Incident> fireIncidents = new PriorityQueue<>(Comparator.comparing((Incident i) -> i.getSeverityLevel()).reversed());
-            Queue<Incident> policeIncidents = new PriorityQueue<>(Comparator.comparing((Incident i) -> i.getSeverityLevel()).reversed());
-            Queue<Incident> ambulanceIncidents = new PriorityQueue<>(Comparator.comparing((Incident i) -> i.getSeverityLevel()).reversed());
-            // Lists for free units by type
-            java.util.List<EmergencyUnit> fireUnits = new java.util.ArrayList<>();
-            java.util.List<EmergencyUnit> policeUnits = new java.util.ArrayList<>();
-            java.util.List<EmergencyUnit> ambulanceUnits = new java.util.ArrayList<>();
+            warmUpWorkingSet();
+            boolean dirty = true; // dispatch whatever was pending before the simulation started
+            long nextMovementAt = 0;
             while (running.get()) {
                 try {
-                    processUnitMovements(); 
-                    
-                    // Clear and refill queues
-                    fireIncidents.clear(); policeIncidents.clear(); ambulanceIncidents.clear();
-                    fireUnits.clear(); policeUnits.clear(); ambulanceUnits.clear();
-                    for (Incident incident : incidentRepository.findAll()) {
-                        if (incident.getStatus() == IncidentStatus.PENDING) {
-                            switch (incident.getType()) {
-                                case FIRE -> fireIncidents.add(incident);
-                                case POLICE -> policeIncidents.add(incident);
-                                case AMBULANCE -> ambulanceIncidents.add(incident);
-                            }
-                        }
+                    // Events are applied here, between passes, so partitions and shards have one writer each
+                    dirty |= drainInbox();
+                    long now = clock.currentTimeMillis();
+                    List<CompletableFuture<Void>> movement = List.of();
+                    if (now >= nextMovementAt) {
+                        movement = startUnitMovements(now);
+                        nextMovementAt = now + movementTickMs;
+                    }
+                    if (dirty) {
+                        dispatchPendingIncidents(now);
+                        pendingCount.set(countPending());
+                        dirty = false;
                     }
-                    for (EmergencyUnit unit : emergencyUnitRepository.findAll()) {
-                        if (Boolean.TRUE.equals(unit.getStatus())) {
-                            switch (unit.getType()) {
-                                case FIRE -> fireUnits.add(unit);
-                                case POLICE -> policeUnits.add(unit);
-                                case AMBULANCE -> ambulanceUnits.add(unit);
-                            }
-                        }
+                    CompletableFuture.allOf(movement.toArray(new CompletableFuture[0])).join();
+                    // Sleep until the next movement tick, or wake up as soon as an event arrives
+                    long waitMs = Math.max(1, nextMovementAt - clock.currentTimeMillis());
+                    if (wakeup.tryAcquire(waitMs, TimeUnit.MILLISECONDS)) {
+                        wakeup.drainPermits();
                     }
-                    // Assign units to incidents by type and severity
-                    if (!fireUnits.isEmpty()) assignUnitsToIncidents(fireUnits, fireIncidents);
-                    if (!policeUnits.isEmpty()) assignUnitsToIncidents(policeUnits, policeIncidents);
-                    if (!ambulanceUnits.isEmpty()) assignUnitsToIncidents(ambulanceUnits, ambulanceIncidents);
-                    Thread.sleep(1000); // Check every second
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
                 } catch (Exception e) {
                     e.printStackTrace();
                 }
@@ -104,201 +178,241 @@ public class SimulationService {
         simulationThread.start();
     }
 
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        // Haversine formula
-        final int R = 6371; // Radius of the earth in km
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        return R * c; // distance in km
+    /**
+     * Queue a domain event for the simulation thread. Runs after the publishing transaction
+     * commits, so the working set never sees rolled-back changes.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDispatchEvent(DispatchEvent event) {
+        if (!running.get()) return; // the working set is reloaded on the next start
+        inbox.add(event);
+        wakeup.release();
     }
 
-    private void assignUnitsToIncidents(java.util.List<EmergencyUnit> unitList, Queue<Incident> incidentQueue) {
-        System.out.println("[SimulationService] assignUnitsToIncidents called. Units: " + unitList.size() + ", Incidents: " + incidentQueue.size());
-        java.util.List<EmergencyUnit> availableUnits = new java.util.ArrayList<>(unitList);
-        final double INITIAL_RADIUS = 2.0; // km
-        final double MAX_RADIUS = 50.0; // km
-        final double RADIUS_MULTIPLIER = 2.0;
-        while (!availableUnits.isEmpty() && !incidentQueue.isEmpty()) {
-            Incident incident = incidentQueue.poll(); // Highest priority incident
-            double radius = INITIAL_RADIUS;
-            EmergencyUnit nearestUnit = null;
-            double minDistance = Double.MAX_VALUE;
-            boolean found = false;
-            while (!found && radius <= MAX_RADIUS) {
-                for (EmergencyUnit unit : availableUnits) {
-                    double dist = calculateDistance(
-                        incident.getLatitude(), incident.getLongtitude(),
-                        unit.getLatitude(), unit.getLongtitude()
-                    );
-                    if (dist <= radius && dist < minDistance) {
-                        minDistance = dist;
-                        nearestUnit = unit;
-                        found = true;
-                    }
-                }
-                if (!found) {
-                    radius *= RADIUS_MULTIPLIER;
-                }
+    /**
+     * Load PENDING and partially staffed incidents plus free units once;
+     * after this only events change the working set.
+     */
+    private void warmUpWorkingSet() {
+        inbox.clear();
+        partitions.values().forEach(DispatchPartition::clear);
+        freeUnitIndex.clear();
+        for (Incident incident : incidentRepository.findByStatus(IncidentStatus.PENDING)) {
+            DispatchPartition partition = partitionOf(incident);
+            if (partition != null) partition.add(incident);
+        }
+        Map<Long, Integer> dispatchedCounts = new HashMap<>();
+        for (Object[] row : assignmentRepository.countByIncidentStatus(IncidentStatus.DISPATCH)) {
+            dispatchedCounts.put((Long) row[0], ((Long) row[1]).intValue());
+        }
+        for (Incident incident : incidentRepository.findByStatus(IncidentStatus.DISPATCH)) {
+            DispatchPartition partition = partitionOf(incident);
+            if (partition == null) continue;
+            partition.setAssignedUnits(incident.getIncidentId(), dispatchedCounts.getOrDefault(incident.getIncidentId(), 0));
+            if (partition.unitsStillNeeded(incident) > 0) {
+                partition.add(incident);
             }
-            if (nearestUnit != null) {
-                System.out.println("[SimulationService] Assigning unit " + nearestUnit.getUnitID() + " to incident " + incident.getIncidentId());
-                nearestUnit.setStatus(false); // busy
-                emergencyUnitRepository.save(nearestUnit);
-            
-                EmergencyUnit finalUnit = nearestUnit;
-                Incident finalIncident = incident;
-                
-                // Run this in a separate thread so the loop continues immediately
-                CompletableFuture.runAsync(() -> fetchAndStoreRoute(finalUnit, finalIncident));
+        }
+        fleetStateStore.clear();
+        for (EmergencyUnit unit : emergencyUnitRepository.findAll()) {
+            fleetStateStore.put(unit);
+            freeUnitIndex.update(unit);
+        }
+        System.out.println("[SimulationService] Working set loaded. Pending incidents: " + countPending());
+    }
 
-                // Create and save assignment
-                Assignment assignment = new Assignment();
-                assignment.setAssignmentTime(System.currentTimeMillis()); // store actual assignment time in ms
-                assignment.setIncident(incident);
-                assignment.setEmergencyUnit(nearestUnit);
-                assignment.setIsActive(true);
-                assignmentRepository.save(assignment);
-                availableUnits.remove(nearestUnit);
-                incident.setStatus(IncidentStatus.DISPATCH);
-                incidentRepository.save(incident);
-                // Broadcast updated assignments list
-                messagingTemplate.convertAndSend("/topic/assignments/all", assignmentRepository.findAll());
-                // Broadcast updated units list for real-time status
-                messagingTemplate.convertAndSend("/topic/emergency-units", emergencyUnitRepository.findAll());
-                // Broadcast updated incidents list for real-time status
-                messagingTemplate.convertAndSend("/topic/incidents", incidentRepository.findAll());
-            } else {
-                System.out.println("[SimulationService] No available unit found for incident " + incident.getIncidentId() + " within max radius " + MAX_RADIUS + " km");
-            }
+    private boolean drainInbox() {
+        boolean changed = false;
+        DispatchEvent event;
+        while ((event = inbox.poll()) != null) {
+            applyEvent(event);
+            changed = true;
         }
+        return changed;
     }
 
-    
+    private void applyEvent(DispatchEvent event) {
+        if (event instanceof IncidentChangedEvent e) {
+            Incident incident = e.incident();
+            // The type may have changed, so drop the incident from every partition first
+            for (DispatchPartition partition : partitions.values()) {
+                partition.remove(incident.getIncidentId());
+            }
+            DispatchPartition partition = partitionOf(incident);
+            if (partition == null) return;
+            if (incident.getStatus() == IncidentStatus.DISPATCH
+                    || (incident.getStatus() == IncidentStatus.PENDING && partition.isPartiallyStaffed(incident.getIncidentId()))) {
+                // Units assigned by hand (AssignmentService) never pass through the engine, and deleting a
+                // unit or editing the incident can send it back to PENDING with fewer units, so the
+                // dispatched count is re-read instead of trusting what this partition has counted
+                partition.setAssignedUnits(incident.getIncidentId(),
+                    (int) assignmentRepository.countByIncident_IncidentId(incident.getIncidentId()));
+            }
+            boolean partiallyStaffed = incident.getStatus() == IncidentStatus.DISPATCH
+                    && partition.isPartiallyStaffed(incident.getIncidentId());
+            if ((incident.getStatus() == IncidentStatus.PENDING || partiallyStaffed) && partition.unitsStillNeeded(incident) > 0) {
+                partition.add(incident);
+            } else if (incident.getStatus() == IncidentStatus.COMPLETED) {
+                partition.forget(incident.getIncidentId());
+            }
+        } else if (event instanceof IncidentRemovedEvent e) {
+            for (DispatchPartition partition : partitions.values()) {
+                partition.forget(e.incidentId());
+            }
+        } else if (event instanceof UnitChangedEvent e) {
+            fleetStateStore.put(e.unit());
+            freeUnitIndex.update(e.unit());
+        } else if (event instanceof UnitRemovedEvent e) {
+            fleetStateStore.remove(e.unitId());
+            freeUnitIndex.remove(e.unitId());
+        }
+    }
 
-    private void processUnitMovements() {
-        if (activeRoutes.isEmpty()) return;
+    private DispatchPartition partitionOf(Incident incident) {
+        if (incident.getIncidentId() == null || incident.getType() == null) return null;
+        return partitions.get(EmergencyUnitType.valueOf(incident.getType().name()));
+    }
 
-        java.util.List<EmergencyUnit> unitsToUpdate = new java.util.ArrayList<>();
-        
-        final int SPEED_FACTOR = 5; 
+    private int countPending() {
+        int count = 0;
+        for (DispatchPartition partition : partitions.values()) {
+            count += partition.pendingCount();
+        }
+        return count;
+    }
 
-        activeRoutes.forEach((unitId, route) -> {
-            if (!route.isEmpty()) {
-                double[] point = null;
-                
-                // Consume multiple points to simulate speed
-                for(int i=0; i<SPEED_FACTOR && !route.isEmpty(); i++) {
-                    point = route.poll();
-                }
-                
-                if (point != null) {
-                    double[] finalPoint = point; // effective final for lambda
-                    emergencyUnitRepository.findById(unitId).ifPresent(unit -> {
-                        unit.setLatitude(finalPoint[0]);
-                        unit.setLongtitude(finalPoint[1]); 
-                        unitsToUpdate.add(unit);
-                        
-                        Map<String, Object> update = new HashMap<>();
-                        update.put("unitId", unit.getUnitID());
-                        update.put("latitude", unit.getLatitude());
-                        update.put("longtitude", unit.getLongtitude());
-                        update.put("type", unit.getType());
-                        update.put("status", unit.getStatus());
+    private void dispatchPendingIncidents(long now) {
+        // One task per unit type; each touches only its own partition and its own index grid
+        List<CompletableFuture<List<DispatchDecision>>> passes = new ArrayList<>();
+        for (DispatchPartition partition : partitions.values()) {
+            passes.add(CompletableFuture.supplyAsync(
+                () -> partition.dispatch(dispatchStrategy, freeUnitIndex, MAX_RADIUS, now), enginePool));
+        }
+        List<DispatchDecision> decisions = new ArrayList<>();
+        for (CompletableFuture<List<DispatchDecision>> pass : passes) {
+            decisions.addAll(pass.join());
+        }
+        if (decisions.isEmpty()) return;
+        for (DispatchDecision decision : decisions) {
+            System.out.println("[SimulationService] Assigning unit " + decision.unit().getUnitID() + " to incident " + decision.incident().getIncidentId());
+            decision.unit().setStatus(false); // busy
+            fleetStateStore.setFree(decision.unit().getUnitID(), false);
+        }
+        try {
+            // Units, assignments and incidents of the whole pass commit atomically
+            dispatchBatchWriter.persist(decisions);
+        } catch (Exception e) {
+            System.err.println("[SimulationService] Failed to persist " + decisions.size() + " dispatch decisions: " + e.getMessage());
+            revertDecisions(decisions);
+            return;
+        }
+        List<Long> dispatchedIncidents = new ArrayList<>(decisions.size());
+        for (DispatchDecision decision : decisions) {
+            dispatchedIncidents.add(decision.incident().getIncidentId());
+            // Routing runs on the routing client's own pool so the loop continues immediately
+            fetchAndStoreRoute(decision.unit(), decision.incident());
+        }
+        // Listeners such as the load generator's report-to-dispatch latency
+        eventPublisher.publishEvent(new IncidentsDispatchedEvent(dispatchedIncidents));
+        // Only the touched rows go out, merged with other changes in the same broadcast window
+        for (DispatchDecision decision : decisions) {
+            broadcastCoalescer.unitChanged(decision.unit().getUnitID());
+            broadcastCoalescer.incidentChanged(decision.incident().getIncidentId());
+            broadcastCoalescer.assignmentsChanged(decision.incident().getIncidentId());
+        }
+    }
 
-                        messagingTemplate.convertAndSend("/topic/unit-location", (Object) update);
-                    });
-                }
-            } else {
-                activeRoutes.remove(unitId);
-                
-                // Retrieve unit to find its assignment
-                emergencyUnitRepository.findById(unitId).ifPresent(unit -> {
-                    java.util.List<Assignment> activeAssignments = assignmentRepository.findByEmergencyUnitAndIsActiveTrue(unit);
-                    
-                    if (!activeAssignments.isEmpty()) {
-                        Assignment assignment = activeAssignments.get(0);
-                        Long incidentId = assignment.getIncident().getIncidentId();
+    /**
+     * Put units and incidents of a failed pass back into the working set.
+     */
+    private void revertDecisions(List<DispatchDecision> decisions) {
+        for (DispatchDecision decision : decisions) {
+            decision.unit().setStatus(true);
+            fleetStateStore.setFree(decision.unit().getUnitID(), true);
+            freeUnitIndex.update(decision.unit());
+            DispatchPartition partition = partitionOf(decision.incident());
+            if (partition != null) partition.revert(decision);
+        }
+    }
 
-                        // Start async task to simulate work and then resolve
-                        CompletableFuture.runAsync(() -> {
-                            try {
-                                // Random sleep between 1s (1000ms) and 30s (30000ms)
-                                long workDuration = (long) (Math.random() * 29000) + 1000;
-                                System.out.println("[Simulation] Unit " + unitId + " arrived at Incident " + incidentId + ". Working for " + workDuration + "ms...");
-                                Thread.sleep(workDuration);
-                                
-                                // Mark assignment as done using DoneAssignmentService
-                                doneAssignmentService.completeAssignmentByIncidentId(incidentId);
-                                System.out.println("[Simulation] Incident " + incidentId + " resolved by Unit " + unitId);
+    private Map<Long, ActiveRoute> shardOf(Long unitId) {
+        return movementShards.get(Math.floorMod(Long.hashCode(unitId), MOVEMENT_SHARDS));
+    }
 
-                                // Broadcast updates so UI reflects completion
-                                messagingTemplate.convertAndSend("/topic/assignments/all", assignmentRepository.findAll());
-                                messagingTemplate.convertAndSend("/topic/emergency-units", emergencyUnitRepository.findAll());
-                                messagingTemplate.convertAndSend("/topic/incidents", incidentRepository.findAll());
-                                
-                            } catch (Exception e) {
-                                System.err.println("[Simulation] Error completing assignment: " + e.getMessage());
-                                e.printStackTrace();
-                            }
-                        });
-                    }
-                });
+    /**
+     * Advance every shard on the engine pool; the caller joins before the next tick.
+     */
+    private List<CompletableFuture<Void>> startUnitMovements(long now) {
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(MOVEMENT_SHARDS);
+        for (int i = 0; i < MOVEMENT_SHARDS; i++) {
+            int shard = i;
+            if (!movementShards.get(shard).isEmpty()) {
+                tasks.add(CompletableFuture.runAsync(() -> processUnitMovements(shard, now), enginePool));
             }
-        });
-
-        if (!unitsToUpdate.isEmpty()) {
-            emergencyUnitRepository.saveAll(unitsToUpdate);
         }
+        return tasks;
     }
 
-    private void fetchAndStoreRoute(EmergencyUnit unit, Incident incident) {
-        try {
-            // OSRM requires "lon,lat" format. API is free for fair use.
-            // Using US locale to ensure dots instead of commas for decimals
-            String coordinates = String.format(Locale.US, "%f,%f;%f,%f", 
-                unit.getLongtitude(), unit.getLatitude(), 
-                incident.getLongtitude(), incident.getLatitude());
-            
-            String url = "http://router.project-osrm.org/route/v1/driving/" + coordinates + "?geometries=geojson&overview=full";
-            
-            String response = restTemplate.getForObject(url, String.class);
-            JsonNode root = objectMapper.readTree(response);
-            
-            if (root.path("code").asText().equals("Ok")) {
-                JsonNode geometry = root.path("routes").get(0).path("geometry").path("coordinates");
-                Queue<double[]> path = new ConcurrentLinkedQueue<>();
-                java.util.List<double[]> pathCoordinates = new java.util.ArrayList<>();
-                
-                if (geometry.isArray()) {
-                    for (JsonNode coord : geometry) {
-                        // OSRM returns [lon, lat]
-                        double lon = coord.get(0).asDouble();
-                        double lat = coord.get(1).asDouble();
-                        path.add(new double[]{lat, lon});
-                        pathCoordinates.add(new double[]{lat, lon});
-                    }
-                }
-                activeRoutes.put(unit.getUnitID(), path);
-                System.out.println("[Simulation] Route fetched for Unit " + unit.getUnitID() + ": " + path.size() + " points.");
-                
-                // Broadcast the route path to the frontend for visualization
-                broadcastRoutePath(unit.getUnitID(), incident.getType().toString(), pathCoordinates);
+    private void processUnitMovements(int shardIndex, long now) {
+        Map<Long, ActiveRoute> shard = movementShards.get(shardIndex);
+        // Routes added by routing threads mid-tick are left for the next tick
+        List<Long> unitIds = new ArrayList<>(shard.keySet());
+        long[] ids = new long[unitIds.size()];
+        double[] lats = new double[unitIds.size()];
+        double[] lons = new double[unitIds.size()];
+        int moved = 0;
+
+        // Positions live in the fleet store; the database catches up in batched flushes
+        for (Long unitId : unitIds) {
+            ActiveRoute route = shard.get(unitId);
+            if (route == null) continue;
+            if (!route.finished()) {
+                route.moveTo(now);
+                ids[moved] = unitId;
+                lats[moved] = route.currentLat();
+                lons[moved] = route.currentLon();
+                moved++;
+
+                Map<String, Object> update = new HashMap<>();
+                update.put("unitId", unitId);
+                update.put("latitude", route.currentLat());
+                update.put("longtitude", route.currentLon());
+                update.put("type", route.unitType());
+                update.put("status", false); // units on a route are busy
+
+                messagingTemplate.convertAndSend("/topic/unit-location", (Object) update);
+            } else {
+                shard.remove(unitId);
+                Long incidentId = route.incidentId();
+
+                // Random on-scene time between 1s (1000ms) and 30s (30000ms)
+                long workDuration = 1000 + shardRandoms[shardIndex].nextInt(29001);
+                System.out.println("[Simulation] Unit " + unitId + " arrived at Incident " + incidentId + ". Working for " + workDuration + "ms...");
+                onSceneScheduler.schedule(unitId, incidentId, workDuration);
             }
-        } catch (Exception e) {
-            System.err.println("[Simulation] Failed to fetch OSRM route: " + e.getMessage());
         }
+        fleetStateStore.moveAll(ids, lats, lons, moved);
     }
 
-    private void broadcastRoutePath(Long unitId, String incidentType, java.util.List<double[]> pathCoordinates) {
+    private void fetchAndStoreRoute(EmergencyUnit unit, Incident incident) {
+        routingClient.route(unit.getLatitude(), unit.getLongtitude(), incident.getLatitude(), incident.getLongtitude())
+            .thenAccept(path -> {
+                long travelMillis = unitSpeedProfile.travelMillis(unit.getType(), path.totalKm());
+                shardOf(unit.getUnitID()).put(unit.getUnitID(),
+                    new ActiveRoute(path, incident.getIncidentId(), unit.getType(), clock.currentTimeMillis(), travelMillis));
+                System.out.println("[Simulation] Route fetched for Unit " + unit.getUnitID() + ": " + path.pointCount() + " points, "
+                    + String.format("%.2f", path.totalKm()) + " km, ETA " + travelMillis / 1000 + " s.");
+
+                // Broadcast the route path to the frontend for visualization
+                broadcastRoutePath(unit.getUnitID(), incident.getType().toString(), path);
+            });
+    }
+    private void broadcastRoutePath(Long unitId, String incidentType, RoutePath path) {
         try {
             Map<String, Object> routeData = new HashMap<>();
             routeData.put("unitId", unitId);
             routeData.put("incidentType", incidentType);
-            routeData.put("path", pathCoordinates);
+            routeData.put("path", path.toPairs());
             messagingTemplate.convertAndSend("/topic/unit-route", (Object) routeData);
             System.out.println("[Simulation] Route path broadcast for Unit " + unitId);
         } catch (Exception e) {
@@ -306,13 +420,43 @@ public class SimulationService {
         }
     }
 
-    public void stopSimulation() {
+    /**
+     * Counters and pool sizes of the simulation engine and its helpers.
+     */
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new java.util.LinkedHashMap<>();
+        metrics.put("running", running.get());
+        int movingUnits = 0;
+        for (Map<Long, ActiveRoute> shard : movementShards) {
+            movingUnits += shard.size();
+        }
+        metrics.put("movingUnits", movingUnits);
+        metrics.put("engineThreads", enginePoolSize);
+        metrics.put("pendingIncidents", pendingCount.get());
+        metrics.put("trackedUnits", fleetStateStore.size());
+        metrics.put("queuedEvents", inbox.size());
+        metrics.put("onScene", onSceneScheduler.metrics());
+        metrics.put("routing", routingClient.metrics());
+        return metrics;
+    }
+
+    public synchronized void stopSimulation() {
         running.set(false);
-        // Preserve activeRoutes so ongoing unit routes are not lost when pausing the simulation.
-        // This allows restarting the simulation to resume movement from where it stopped.
-        if (simulationThread != null) {
-            simulationThread.interrupt();
-            simulationThread = null;
+        // Preserve the movement shards so ongoing unit routes are not lost when pausing the simulation.
+        // Positions follow elapsed time, so a restart shifts the routes by the pause to resume
+        // movement from where it stopped.
+        Thread thread = simulationThread;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                // The loop finishes its current pass first, so a restart never overlaps it
+                thread.join();
+                simulationThread = null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
         }
+        pausedAt = clock.currentTimeMillis();
+        fleetStateStore.flushPositions();
     }
 }
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.emergency.dispatch.service.IOservice;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.emergency.dispatch.model.EmergencyUnit;
+
+/**
+ * Inserts new units as one JDBC batch per call and writes the generated IDs back
+ * onto the given objects, instead of one JPA save (and round trip) per unit.
+ */
+@Component
+public class UnitBatchWriter {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO emergency_unit (latitude, longtitude, capacity, type, status) VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public void insert(List<EmergencyUnit> units) {
+        if (units.isEmpty()) return;
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (EmergencyUnit unit : units) {
+                    ps.setDouble(1, unit.getLatitude());
+                    ps.setDouble(2, unit.getLongtitude());
+                    ps.setInt(3, unit.getCapacity() == null ? 1 : unit.getCapacity());
+                    ps.setString(4, unit.getType().name());
+                    ps.setBoolean(5, !Boolean.FALSE.equals(unit.getStatus()));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    int i = 0;
+                    while (keys.next() && i < units.size()) {
+                        units.get(i++).setUnitID(keys.getLong(1));
+                    }
+                    if (i != units.size()) {
+                        throw new IllegalStateException("Expected " + units.size() + " generated keys but got " + i);
+                    }
+                }
+            }
+            return null;
+        });
+    }
+}
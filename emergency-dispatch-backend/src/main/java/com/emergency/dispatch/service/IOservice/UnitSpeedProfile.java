@@ -0,0 +1,38 @@
+package com.emergency.dispatch.service.IOservice;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.emergency.dispatch.enums.EmergencyUnitType;
+
+/**
+ * Average travel speed per unit type, used for simulated movement and ETA estimates.
+ */
+@Component
+public class UnitSpeedProfile {
+
+    private final Map<EmergencyUnitType, Double> speedKmh = new EnumMap<>(EmergencyUnitType.class);
+
+    public UnitSpeedProfile(
+            @Value("${movement.speed-kmh.fire:50}") double fireKmh,
+            @Value("${movement.speed-kmh.ambulance:60}") double ambulanceKmh,
+            @Value("${movement.speed-kmh.police:70}") double policeKmh) {
+        speedKmh.put(EmergencyUnitType.FIRE, fireKmh);
+        speedKmh.put(EmergencyUnitType.AMBULANCE, ambulanceKmh);
+        speedKmh.put(EmergencyUnitType.POLICE, policeKmh);
+    }
+
+    public double speedKmh(EmergencyUnitType type) {
+        return type == null ? 50.0 : speedKmh.get(type);
+    }
+
+    /**
+     * Travel time in ms for the given distance.
+     */
+    public long travelMillis(EmergencyUnitType type, double km) {
+        return (long) (km / speedKmh(type) * 3_600_000.0);
+    }
+}
@@ -6,9 +6,12 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import com.emergency.dispatch.config.CacheConfig;
+import com.emergency.dispatch.dto.IncidentMonitorRow;
 import com.emergency.dispatch.model.Assignment;
 import com.emergency.dispatch.model.Incident;
 import com.emergency.dispatch.repository.AssignmentRepository;
@@ -16,6 +19,12 @@ import com.emergency.dispatch.repository.IncidentRepository;
 
 
 
+/**
+ * Builds the incident monitor view. A page costs three queries no matter how many incidents it holds:
+ * the incidents, their active assignments (with unit and user fetched in the same query), and the
+ * assignment count per incident (the last two once per 1000 incidents, so an unpaged call stays
+ * under MySQL's placeholder limit).
+ */
 @Service
 public class IncidentMonitorService {
 
@@ -28,84 +37,77 @@ public class IncidentMonitorService {
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
 
-    public List<Map<String, Object>> getAllIncidentsWithStatus() {
-        List<Incident> incidents = incidentRepository.findAll();
-        List<Map<String, Object>> incidentsData = new ArrayList<>();
-
-        for (Incident incident : incidents) {
-            Map<String, Object> incidentData = buildIncidentData(incident);
-            incidentsData.add(incidentData);
-        }
+    public List<IncidentMonitorRow> getAllIncidentsWithStatus() {
+        return getIncidentsWithStatus(0L, null, null, null, null, null);
+    }
 
-        return incidentsData;
+    /**
+     * Incidents with an ID above afterId, in ID order, at most limit of them (null = all).
+     * The bounding box is optional but must be given with all four bounds or none.
+     */
+    @Cacheable(CacheConfig.INCIDENTS_MONITOR)
+    public List<IncidentMonitorRow> getIncidentsWithStatus(Long afterId, Integer limit,
+                                                           Double minLat, Double maxLat, Double minLon, Double maxLon) {
+        MonitorBounds.check(minLat, maxLat, minLon, maxLon);
+        List<Incident> incidents = incidentRepository.findMonitorPage(afterId == null ? 0L : afterId,
+            minLat, maxLat, minLon, maxLon, MonitorBounds.limit(limit));
+        return buildRows(incidents);
     }
 
-    private Map<String, Object> buildIncidentData(Incident incident) {
-        Map<String, Object> incidentData = new HashMap<>();
-        incidentData.put("incidentId", incident.getIncidentId());
-        incidentData.put("type", incident.getType());
-        incidentData.put("latitude", incident.getLatitude());
-        incidentData.put("longtitude", incident.getLongtitude());
-        incidentData.put("needs", incident.getNeeds());
-        incidentData.put("severityLevel", incident.getSeverityLevel());
-        incidentData.put("reportedTime", incident.getReportedTime());
-        incidentData.put("status", incident.getStatus());
-
-        // Get ALL assignments for this incident first
-        List<Assignment> allAssignments = assignmentRepository.findByIncident_IncidentId(incident.getIncidentId());
-        
-        // Filter to get only active assignments
-        List<Assignment> activeAssignments = allAssignments.stream()
-                .filter(assignment -> assignment.getIsActive() != null && assignment.getIsActive())
-                .toList();
-
-        // Check if incident has any assignments (regardless of active status) to mark as "assigned"
-        boolean hasAnyAssignments = !allAssignments.isEmpty();
-        boolean hasActiveAssignments = !activeAssignments.isEmpty();
-
-        if (hasActiveAssignments) {
-            List<Map<String, Object>> assignmentsInfo = new ArrayList<>();
-            for (Assignment assignment : activeAssignments) {
-                Map<String, Object> assignmentInfo = new HashMap<>();
-                assignmentInfo.put("assignmentId", assignment.getAssignmentId());
-                assignmentInfo.put("assignmentTime", assignment.getAssignmentTime());
-                assignmentInfo.put("isActive", assignment.getIsActive());
-                assignmentInfo.put("unitId", assignment.getEmergencyUnit().getUnitID());
-                assignmentInfo.put("unitType", assignment.getEmergencyUnit().getType());
-                if (assignment.getUser() != null) {
-                    assignmentInfo.put("userId", assignment.getUser().getUserID());
-                    assignmentInfo.put("userName", assignment.getUser().getUserName());
-                } else {
-                    assignmentInfo.put("userId", null);
-                    assignmentInfo.put("userName", "Unknown");
-                }
-                assignmentsInfo.add(assignmentInfo);
-            }
-            incidentData.put("activeAssignments", assignmentsInfo);
-            incidentData.put("hasActiveAssignments", true);
-            incidentData.put("assignedUnitsCount", activeAssignments.size());
-        } else {
-            incidentData.put("activeAssignments", null);
-            incidentData.put("hasActiveAssignments", false);
-            incidentData.put("assignedUnitsCount", 0);
+    private List<IncidentMonitorRow> buildRows(List<Incident> incidents) {
+        if (incidents.isEmpty()) return new ArrayList<>();
+        // Only the page's own IDs: a filtered page can span a wide, sparse ID range
+        List<Long> ids = incidents.stream().map(Incident::getIncidentId).toList();
+
+        Map<Long, List<IncidentMonitorRow.ActiveAssignment>> activeByIncident = new HashMap<>();
+        for (Assignment assignment : MonitorBounds.inChunks(ids, assignmentRepository::findActiveByIncidentIdIn)) {
+            activeByIncident.computeIfAbsent(assignment.getIncident().getIncidentId(), id -> new ArrayList<>())
+                .add(new IncidentMonitorRow.ActiveAssignment(
+                    assignment.getAssignmentId(),
+                    assignment.getAssignmentTime(),
+                    assignment.getIsActive(),
+                    assignment.getEmergencyUnit().getUnitID(),
+                    assignment.getEmergencyUnit().getType(),
+                    assignment.getUser() != null ? assignment.getUser().getUserID() : null,
+                    assignment.getUser() != null ? assignment.getUser().getUserName() : "Unknown"));
+        }
+        Map<Long, Integer> totalByIncident = new HashMap<>();
+        for (Object[] row : MonitorBounds.inChunks(ids, assignmentRepository::countByIncidentIdIn)) {
+            totalByIncident.put((Long) row[0], ((Number) row[1]).intValue());
         }
-        
-        // Mark incident as "assigned" if it has ANY assignment (active or not)
-        incidentData.put("hasAssignments", hasAnyAssignments);
-        incidentData.put("totalAssignmentsCount", allAssignments.size());
 
-        return incidentData;
+        List<IncidentMonitorRow> rows = new ArrayList<>(incidents.size());
+        for (Incident incident : incidents) {
+            List<IncidentMonitorRow.ActiveAssignment> active = activeByIncident.get(incident.getIncidentId());
+            int total = totalByIncident.getOrDefault(incident.getIncidentId(), 0);
+            rows.add(new IncidentMonitorRow(
+                incident.getIncidentId(),
+                incident.getType(),
+                incident.getLatitude(),
+                incident.getLongtitude(),
+                incident.getNeeds(),
+                incident.getSeverityLevel(),
+                incident.getReportedTime(),
+                incident.getStatus(),
+                active,
+                active != null,
+                active != null ? active.size() : 0,
+                // "assigned" means any assignment, active or not
+                total > 0,
+                total));
+        }
+        return rows;
     }
 
     public void broadcastAllIncidents() {
-        List<Map<String, Object>> incidentsData = getAllIncidentsWithStatus();
+        List<IncidentMonitorRow> incidentsData = getAllIncidentsWithStatus();
         messagingTemplate.convertAndSend("/topic/incidents-monitor", (Object) incidentsData);
     }
 
     public void broadcastIncidentUpdate(Long incidentId) {
         Incident incident = incidentRepository.findById(incidentId).orElse(null);
         if (incident != null) {
-            Map<String, Object> incidentData = buildIncidentData(incident);
+            IncidentMonitorRow incidentData = buildRows(List.of(incident)).get(0);
             messagingTemplate.convertAndSend("/topic/incidents-monitor/update", (Object) incidentData);
         }
     }
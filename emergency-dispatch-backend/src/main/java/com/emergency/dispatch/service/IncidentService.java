@@ -6,11 +6,20 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import com.emergency.dispatch.config.CacheConfig;
+import com.emergency.dispatch.dto.IncidentSummary;
 import com.emergency.dispatch.enums.IncidentStatus;
 import com.emergency.dispatch.enums.IncidentType;
+import com.emergency.dispatch.enums.SeverityLevel;
+import com.emergency.dispatch.event.IncidentChangedEvent;
+import com.emergency.dispatch.event.IncidentRemovedEvent;
 import com.emergency.dispatch.model.Assignment;
 import com.emergency.dispatch.model.Incident;
 import com.emergency.dispatch.model.Notification;
@@ -44,10 +53,19 @@ public class IncidentService {
     @Autowired
     private AssignmentService assignmentService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private AnalyticsRollupService analyticsRollupService;
+
+    @CacheEvict(cacheNames = {CacheConfig.INCIDENTS, CacheConfig.INCIDENTS_MONITOR}, allEntries = true)
     public Incident createIncident(Incident incident) {
         if (incident.getType() == null) throw new IllegalArgumentException("Incident type is required");
         if (incident.getStatus() == null) incident.setStatus(IncidentStatus.PENDING);
         Incident savedIncident = incidentRepository.save(incident);
+        analyticsRollupService.recordIncidents(List.of(savedIncident));
+        eventPublisher.publishEvent(new IncidentChangedEvent(savedIncident));
         monitorService.broadcastIncidentUpdate(savedIncident.getIncidentId());
         // Broadcast all incidents for real-time list update
         messagingTemplate.convertAndSend("/topic/incidents", incidentRepository.findAll());
@@ -57,9 +75,7 @@ public class IncidentService {
 
     private void notifyAdminsAboutNewIncident(Incident incident) {
         try {
-            List<User> admins = userRepository.findAll().stream()
-                    .filter(user -> "Admin".equalsIgnoreCase(user.getRole()))
-                    .toList();
+            List<User> admins = userRepository.findByRoleIgnoreCase("Admin");
             for (User admin : admins) {
                 Notification notification = Notification.builder()
                         .user(admin)
@@ -80,13 +96,16 @@ public class IncidentService {
         return incidentRepository.findById(incidentId);
     }
 
+    @Cacheable(cacheNames = CacheConfig.INCIDENTS, key = "'all'")
     public List<Incident> getAllIncidents() {
         return incidentRepository.findAll();
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.INCIDENTS, CacheConfig.INCIDENTS_MONITOR}, allEntries = true)
     public Incident updateIncident(Long incidentId, Incident incidentDetails) {
         Incident incident = incidentRepository.findById(incidentId)
                 .orElseThrow(() -> new IllegalArgumentException("Incident not found with id: " + incidentId));
+        Incident before = rollupCopy(incident);
         IncidentType newType = incidentDetails.getType();
         if (newType != null) incident.setType(newType);
         if (incidentDetails.getLatitude() != null) incident.setLatitude(incidentDetails.getLatitude());
@@ -97,6 +116,11 @@ public class IncidentService {
         IncidentStatus newStatus = incidentDetails.getStatus();
         if (newStatus != null) incident.setStatus(newStatus);
         Incident updatedIncident = incidentRepository.save(incident);
+        if (!rollupCopy(updatedIncident).equals(before)) {
+            analyticsRollupService.refreshIncidentBuckets(before, updatedIncident,
+                    assignmentRepository.findByIncident_IncidentId(incidentId));
+        }
+        eventPublisher.publishEvent(new IncidentChangedEvent(updatedIncident));
         // If status changed to COMPLETED, deactivate all active assignments for this incident
         if (newStatus == IncidentStatus.COMPLETED) {
             List<Assignment> activeAssignments = assignmentRepository
@@ -115,9 +139,15 @@ public class IncidentService {
         return updatedIncident;
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.INCIDENTS, CacheConfig.INCIDENTS_MONITOR}, allEntries = true)
     public void deleteIncident(Long incidentId) {
-        if (incidentRepository.existsById(incidentId)) {
+        Optional<Incident> existing = incidentRepository.findById(incidentId);
+        if (existing.isPresent()) {
+            Incident before = rollupCopy(existing.get());
+            List<Assignment> assignments = assignmentRepository.findByIncident_IncidentId(incidentId);
             incidentRepository.deleteById(incidentId);
+            analyticsRollupService.refreshIncidentBuckets(before, null, assignments);
+            eventPublisher.publishEvent(new IncidentRemovedEvent(incidentId));
             // Broadcast the deletion to all monitoring clients
             monitorService.broadcastIncidentDeletion(incidentId);
             // Broadcast all incidents for real-time list update
@@ -127,16 +157,35 @@ public class IncidentService {
         }
     }
 
+    // The fields the analytics rollups are keyed on
+    private static Incident rollupCopy(Incident incident) {
+        Incident copy = new Incident();
+        copy.setIncidentId(incident.getIncidentId());
+        copy.setType(incident.getType());
+        copy.setReportedTime(incident.getReportedTime());
+        copy.setLatitude(incident.getLatitude());
+        copy.setLongtitude(incident.getLongtitude());
+        return copy;
+    }
+
     public boolean incidentExists(Long incidentId) {
         return incidentRepository.existsById(incidentId);
     }
 
-    public List<Incident> getIncidentsBySeverity(String severityLevel) {
-        return incidentRepository.findAll().stream()
-                .filter(incident -> severityLevel.equals(incident.getSeverityLevel()))
-                .toList();
+    @Cacheable(cacheNames = CacheConfig.INCIDENTS, key = "'severity:' + #severityLevel.name()")
+    public List<Incident> getIncidentsBySeverity(SeverityLevel severityLevel) {
+        return incidentRepository.findBySeverityLevel(severityLevel);
+    }
+
+    /**
+     * One keyset page of incidents with the given status, ordered by ID. Cost depends on the page size,
+     * not on how far into the history the page is, unlike OFFSET paging.
+     */
+    public List<IncidentSummary> getIncidentPage(IncidentStatus status, long afterId, int limit) {
+        return incidentRepository.findByStatusAndIncidentIdGreaterThanOrderByIncidentIdAsc(status, afterId, Limit.of(limit));
     }
 
+    @Cacheable(cacheNames = CacheConfig.INCIDENTS, key = "'live'")
     public List<Incident> getLiveIncidents() {
         return incidentRepository.findByStatusIn(List.of(IncidentStatus.PENDING, IncidentStatus.DISPATCH));
     }
@@ -0,0 +1,48 @@
+package com.emergency.dispatch.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Limit;
+
+/**
+ * Shared argument checks and helpers for the monitor page queries.
+ */
+final class MonitorBounds {
+
+    private MonitorBounds() {
+    }
+
+    static void check(Double minLat, Double maxLat, Double minLon, Double maxLon) {
+        int given = (minLat != null ? 1 : 0) + (maxLat != null ? 1 : 0) + (minLon != null ? 1 : 0) + (maxLon != null ? 1 : 0);
+        if (given != 0 && given != 4) {
+            throw new IllegalArgumentException("Bounding box needs minLat, maxLat, minLon and maxLon together");
+        }
+        if (given == 4 && (minLat > maxLat || minLon > maxLon)) {
+            throw new IllegalArgumentException("Bounding box minimums must not exceed maximums");
+        }
+    }
+
+    // IDs bound per IN (:ids) query; an unpaged monitor call can hold the whole table, and MySQL
+    // refuses statements with more than 65,535 placeholders
+    static final int IN_CHUNK = 1000;
+
+    /**
+     * Run an IN (:ids) query over the IDs in chunks of IN_CHUNK and concatenate the results.
+     */
+    static <T> List<T> inChunks(List<Long> ids, Function<List<Long>, List<T>> query) {
+        if (ids.size() <= IN_CHUNK) return query.apply(ids);
+        List<T> results = new ArrayList<>();
+        for (int start = 0; start < ids.size(); start += IN_CHUNK) {
+            results.addAll(query.apply(ids.subList(start, Math.min(start + IN_CHUNK, ids.size()))));
+        }
+        return results;
+    }
+
+    static Limit limit(Integer limit) {
+        if (limit == null) return Limit.unlimited();
+        if (limit <= 0) throw new IllegalArgumentException("limit must be positive");
+        return Limit.of(limit);
+    }
+}
@@ -0,0 +1,288 @@
+package com.emergency.dispatch.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Renders dispatch report PDFs in the background so report downloads never hold Tomcat request threads.
+ * Jobs wait in a bounded priority queue and run on a small pool of low-priority threads; finished PDFs
+ * are kept on disk up to a total size, oldest first out. Clients poll the job or listen on /topic/reports.
+ */
+@Service
+public class ReportJobService {
+
+    public enum Priority { HIGH, NORMAL, LOW }
+
+    public enum Status { QUEUED, RUNNING, DONE, FAILED }
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Value("${reports.jobs.threads:2}")
+    private int workerThreads;
+
+    @Value("${reports.jobs.max-queued:50}")
+    private int maxQueued;
+
+    @Value("${reports.jobs.dir:${java.io.tmpdir}/dispatch-reports}")
+    private String jobsDir;
+
+    @Value("${reports.jobs.max-disk-mb:200}")
+    private long maxDiskMb;
+
+    // Identical requests within this window (ms) after a render get its PDF instead of a new render
+    @Value("${reports.jobs.reuse-ms:60000}")
+    private long reuseMs;
+
+    // Failed jobs are forgotten after this long (ms)
+    private static final long FAILED_RETENTION_MS = 3_600_000;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    // Latest job per parameter set, for reuse
+    private final Map<String, String> jobByParams = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private ThreadPoolExecutor workers;
+    private Path directory;
+
+    @PostConstruct
+    public void start() throws IOException {
+        directory = Paths.get(jobsDir);
+        Files.createDirectories(directory);
+        // Artifacts from a previous run are not tracked any more
+        try (var files = Files.list(directory)) {
+            files.filter(file -> file.toString().endsWith(".pdf")).forEach(file -> file.toFile().delete());
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+            new PriorityBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "report-job-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                // Dispatch and movement threads win any contention for CPU
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Queue a report render and return its job. Throws IllegalStateException when the queue is full.
+     */
+    public Map<String, Object> submit(LocalDateTime from, LocalDateTime to, Integer topN, Integer heatmapK, String priority) {
+        Priority jobPriority = priority == null || priority.isBlank()
+            ? Priority.NORMAL : Priority.valueOf(priority.trim().toUpperCase(Locale.ROOT));
+        return submitJob(from, to, topN, heatmapK, jobPriority).toMap();
+    }
+
+    /**
+     * Queue a high-priority render, or reuse a matching job, and complete with its PDF file once it is done.
+     * Throws IllegalStateException when the queue is full.
+     */
+    public CompletableFuture<Path> submitForDownload(LocalDateTime from, LocalDateTime to, Integer topN, Integer heatmapK) {
+        Job job = submitJob(from, to, topN, heatmapK, Priority.HIGH);
+        return job.completion.thenApply(done -> {
+            Path file = getArtifact(job.id);
+            if (file == null) throw new IllegalStateException("Report " + job.id + " is no longer available");
+            return file;
+        });
+    }
+
+    private Job submitJob(LocalDateTime from, LocalDateTime to, Integer topN, Integer heatmapK, Priority priority) {
+        String params = from + "|" + to + "|" + topN + "|" + heatmapK;
+        long now = System.currentTimeMillis();
+        pruneFailed(now);
+
+        synchronized (jobByParams) {
+            Job existing = jobs.get(jobByParams.getOrDefault(params, ""));
+            // A report with missing sections is handed to the requests that waited for it, not reused
+            if (existing != null && existing.status != Status.FAILED && !existing.partial
+                    && (existing.finishedAt == 0 || now - existing.finishedAt <= reuseMs)) {
+                return existing;
+            }
+            if (workers.getQueue().size() >= maxQueued) {
+                throw new IllegalStateException("Report queue is full, try again later");
+            }
+            Job job = new Job(UUID.randomUUID().toString(), priority, sequence.incrementAndGet(), now,
+                params, from, to, topN, heatmapK);
+            jobs.put(job.id, job);
+            jobByParams.put(params, job.id);
+            workers.execute(job);
+            return job;
+        }
+    }
+
+    public Map<String, Object> getJob(String jobId) {
+        Job job = jobs.get(jobId);
+        return job == null ? null : job.toMap();
+    }
+
+    /**
+     * The finished PDF of a job, or null if the job is unknown, not finished or its file was evicted.
+     */
+    public Path getArtifact(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null || job.status != Status.DONE) return null;
+        Path file = directory.resolve(job.id + ".pdf");
+        return Files.exists(file) ? file : null;
+    }
+
+    private void render(Job job) {
+        job.status = Status.RUNNING;
+        job.startedAt = System.currentTimeMillis();
+        try {
+            ReportService.ReportPdf pdf = reportService.generateDispatchReportPdf(job.from, job.to, job.topN, job.heatmapK);
+            Path file = directory.resolve(job.id + ".pdf");
+            Files.write(file, pdf.bytes());
+            job.sizeBytes = pdf.bytes().length;
+            job.partial = pdf.partial();
+            job.status = Status.DONE;
+        } catch (Exception e) {
+            job.error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            job.status = Status.FAILED;
+            System.err.println("[ReportJobService] Report job " + job.id + " failed: " + job.error);
+        }
+        job.finishedAt = System.currentTimeMillis();
+        if (job.status == Status.DONE) {
+            enforceDiskLimit();
+            job.completion.complete(null);
+        } else {
+            job.completion.completeExceptionally(new IllegalStateException(job.error));
+        }
+        messagingTemplate.convertAndSend("/topic/reports", (Object) job.toMap());
+    }
+
+    /**
+     * Delete the oldest finished artifacts (and forget their jobs) until the total fits the limit.
+     */
+    private synchronized void enforceDiskLimit() {
+        long limit = maxDiskMb * 1024 * 1024;
+        List<Job> done = new ArrayList<>();
+        long total = 0;
+        for (Job job : jobs.values()) {
+            if (job.status == Status.DONE) {
+                done.add(job);
+                total += job.sizeBytes;
+            }
+        }
+        done.sort(Comparator.comparingLong(job -> job.finishedAt));
+        for (Job job : done) {
+            if (total <= limit) break;
+            try {
+                Files.deleteIfExists(directory.resolve(job.id + ".pdf"));
+            } catch (IOException e) {
+                System.err.println("[ReportJobService] Failed to delete report " + job.id + ": " + e.getMessage());
+            }
+            forget(job);
+            total -= job.sizeBytes;
+        }
+    }
+
+    private void pruneFailed(long now) {
+        for (Job job : jobs.values()) {
+            if (job.status == Status.FAILED && now - job.finishedAt > FAILED_RETENTION_MS) {
+                forget(job);
+            }
+        }
+    }
+
+    private void forget(Job job) {
+        jobs.remove(job.id);
+        // Only if no newer job has taken over these parameters
+        jobByParams.remove(job.params, job.id);
+    }
+
+    /**
+     * One queued render. Ordered by priority, then by submission, in the worker queue.
+     */
+    private final class Job implements Runnable, Comparable<Job> {
+        final String id;
+        final Priority priority;
+        final long seq;
+        final long submittedAt;
+        final String params;
+        final LocalDateTime from;
+        final LocalDateTime to;
+        final Integer topN;
+        final Integer heatmapK;
+        volatile Status status = Status.QUEUED;
+        volatile long startedAt;
+        volatile long finishedAt;
+        volatile long sizeBytes;
+        volatile boolean partial;
+        volatile String error;
+        // Completes when the render finishes, exceptionally if it failed
+        final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+        Job(String id, Priority priority, long seq, long submittedAt, String params,
+            LocalDateTime from, LocalDateTime to, Integer topN, Integer heatmapK) {
+            this.id = id;
+            this.priority = priority;
+            this.seq = seq;
+            this.submittedAt = submittedAt;
+            this.params = params;
+            this.from = from;
+            this.to = to;
+            this.topN = topN;
+            this.heatmapK = heatmapK;
+        }
+
+        @Override
+        public void run() {
+            render(this);
+        }
+
+        @Override
+        public int compareTo(Job other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(seq, other.seq);
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("jobId", id);
+            map.put("status", status);
+            map.put("priority", priority);
+            map.put("submittedAt", submittedAt);
+            map.put("startedAt", startedAt == 0 ? null : startedAt);
+            map.put("finishedAt", finishedAt == 0 ? null : finishedAt);
+            map.put("sizeBytes", status == Status.DONE ? sizeBytes : null);
+            map.put("partial", status == Status.DONE ? partial : null);
+            map.put("error", error);
+            if (status == Status.DONE) {
+                map.put("downloadUrl", "/api/reports/dispatch/jobs/" + id + "/pdf");
+            }
+            return map;
+        }
+    }
+}
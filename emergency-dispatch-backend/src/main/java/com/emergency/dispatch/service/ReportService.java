@@ -1,17 +1,39 @@
 package com.emergency.dispatch.service;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
-import java.sql.Date;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.emergency.dispatch.config.CacheConfig;
 import com.emergency.dispatch.dto.ReportRow;
 
-import lombok.AllArgsConstructor;
+import jakarta.annotation.PreDestroy;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
@@ -22,245 +44,313 @@ import net.sf.jasperreports.engine.JasperFillManager;
 import net.sf.jasperreports.engine.JasperPrint;
 import net.sf.jasperreports.engine.JasperReport;
 import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
+import net.sf.jasperreports.engine.util.JRLoader;
 
 @Service
-@AllArgsConstructor
 public class ReportService {
 
-    private final JdbcTemplate jdbcTemplate;
+    // Bucket size of the hourly rollups; report ranges are widened to it
+    private static final long HOUR_MS = 3_600_000L;
+
+    // Resolution statistics in days over assignment_rollup_hourly rows
+    private static final String RESOLUTION_DAYS_COLUMNS =
+        "SUM(total_resolution_ms)/SUM(completed)/1000/60/60/24 AS avgDays, " +
+        "MIN(min_resolution_ms)/1000/60/60/24 AS minDays, " +
+        "MAX(max_resolution_ms)/1000/60/60/24 AS maxDays ";
+
+    // Range filters over the raw tables; each must stay an index range scan on the time-first indexes
+    static final String INCIDENTS_BY_STATUS_IN_RANGE =
+        "SELECT status, COUNT(*) AS cnt FROM incident WHERE reported_time >= ? AND reported_time < ? GROUP BY status";
+    static final String INCIDENTS_BY_SEVERITY_IN_RANGE =
+        "SELECT severity_level AS severity, COUNT(*) AS cnt FROM incident WHERE reported_time >= ? AND reported_time < ? GROUP BY severity_level";
+    static final String ACTIVE_ASSIGNMENTS_IN_RANGE =
+        "SELECT COUNT(*) FROM assignment WHERE assignment_time >= ? AND assignment_time < ? AND is_active = 1";
+    static final String ACTIVE_ASSIGNMENTS_BY_UNIT_IN_RANGE =
+        "SELECT unit_id, COUNT(*) AS cnt FROM assignment WHERE assignment_time >= ? AND assignment_time < ? AND is_active = 1 GROUP BY unit_id";
+
+    // Same data source with a statement timeout, so a section that times out also stops on the database
+    private final JdbcTemplate analyticsJdbc;
+    private final ExecutorService analyticsPool;
+    private final long queryTimeoutMs;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    // Compiled once; filling and exporting are cheap next to compiling the JRXML
+    private volatile JasperReport compiledReport;
+    // This bean's proxy, so the PDF's metrics go through the dispatchMetrics cache like the dashboard's
+    private final ReportService self;
+
+    public ReportService(JdbcTemplate jdbcTemplate,
+                         @Lazy ReportService self,
+                         @Value("${analytics.query-threads:8}") int queryThreads,
+                         @Value("${analytics.query-timeout-ms:10000}") long queryTimeoutMs) {
+        this.self = self;
+        this.queryTimeoutMs = queryTimeoutMs;
+        this.analyticsJdbc = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.analyticsJdbc.setQueryTimeout((int) Math.max(1, (queryTimeoutMs + 999) / 1000));
+        AtomicInteger threadCount = new AtomicInteger();
+        // Bounded pool and queue: concurrent dashboard loads queue up instead of opening more connections
+        this.analyticsPool = new ThreadPoolExecutor(queryThreads, queryThreads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queryThreads * 16), runnable -> {
+                Thread thread = new Thread(runnable, "analytics-query-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
 
+    // Partial results (a section failed or timed out) are not cached
+    @Cacheable(cacheNames = CacheConfig.DISPATCH_METRICS, unless = "#result['partial'] == true")
     public Map<String, Object> getDispatchMetrics(LocalDateTime from, LocalDateTime to, Integer topN, Integer heatmapK) {
     // If no date range provided, get all data
     boolean useAllData = (from == null && to == null);
-    LocalDateTime fromDt = (from == null) ? LocalDateTime.now().minusYears(10) : from;
-    LocalDateTime toDt = (to == null) ? LocalDateTime.now().plusDays(1) : to;
     int topLimit = (topN == null || topN <= 0) ? 5 : Math.min(topN, 50);
     int heatmapLimit = (heatmapK == null || heatmapK <= 0) ? 10 : Math.min(heatmapK, 200);
-
-    Map<String, Object> result = new HashMap<>();
-
-    // Incident counts by type - get all data if no filter
-    List<Map<String, Object>> incidentsByType;
-    if (useAllData) {
-        incidentsByType = jdbcTemplate.queryForList(
-            "SELECT type, COUNT(*) AS cnt FROM incident GROUP BY type");
-    } else {
-        incidentsByType = jdbcTemplate.queryForList(
-            "SELECT type, COUNT(*) AS cnt FROM incident WHERE reported_time BETWEEN ? AND ? GROUP BY type",
-            fromDt, toDt);
-    }
-    result.put("incidentsByType", incidentsByType);
+    // All time columns hold epoch ms, so the range is converted once and every filter compares the bare
+    // column against it (index range scan). The range is widened to whole hours, the hourly rollups'
+    // buckets, so raw-table and rollup sections all cover the same window.
+    long fromMs = (from == null) ? 0L : Math.floorDiv(from.atZone(zone).toInstant().toEpochMilli(), HOUR_MS) * HOUR_MS;
+    long toMs = (to == null) ? Long.MAX_VALUE : -Math.floorDiv(-to.atZone(zone).toInstant().toEpochMilli(), HOUR_MS) * HOUR_MS;
+    // The heatmap rollup is daily: whole days in the window come from it, the partial days at either
+    // end from the raw incidents
+    long fullDaysFrom = (from == null) ? 0L : dayCeil(fromMs);
+    long fullDaysTo = (to == null) ? Long.MAX_VALUE : Math.max(fullDaysFrom, dayFloor(toMs));
+
+    // Each section is independent; they run concurrently and are collected by key below
+    Map<String, Callable<Object>> sections = new LinkedHashMap<>();
+
+    // Incident counts by type, from the hourly rollup
+    sections.put("incidentsByType", () -> analyticsJdbc.queryForList(
+        "SELECT type, SUM(cnt) AS cnt FROM incident_rollup_hourly WHERE bucket_start >= ? AND bucket_start < ? GROUP BY type",
+        fromMs, toMs));
 
     // Incident status distribution
-    List<Map<String, Object>> incidentsByStatus;
-    if (useAllData) {
-        incidentsByStatus = jdbcTemplate.queryForList(
-            "SELECT status, COUNT(*) AS cnt FROM incident GROUP BY status");
-    } else {
-        incidentsByStatus = jdbcTemplate.queryForList(
-            "SELECT status, COUNT(*) AS cnt FROM incident WHERE reported_time BETWEEN ? AND ? GROUP BY status",
-            fromDt, toDt);
-    }
-    result.put("incidentsByStatus", incidentsByStatus);
+    sections.put("incidentsByStatus", () -> useAllData
+        ? analyticsJdbc.queryForList(
+            "SELECT status, COUNT(*) AS cnt FROM incident GROUP BY status")
+        : analyticsJdbc.queryForList(INCIDENTS_BY_STATUS_IN_RANGE, fromMs, toMs));
 
     // Incident severity distribution
-    List<Map<String, Object>> incidentsBySeverity;
-    if (useAllData) {
-        incidentsBySeverity = jdbcTemplate.queryForList(
-            "SELECT severity_level AS severity, COUNT(*) AS cnt FROM incident GROUP BY severity_level");
-    } else {
-        incidentsBySeverity = jdbcTemplate.queryForList(
-            "SELECT severity_level AS severity, COUNT(*) AS cnt FROM incident WHERE reported_time BETWEEN ? AND ? GROUP BY severity_level",
-            fromDt, toDt);
-    }
-    result.put("incidentsBySeverity", incidentsBySeverity);
-
-    // Average resolution days overall (assignments in range)
-    Double avgDaysOverall;
-    if (useAllData) {
-        avgDaysOverall = jdbcTemplate.queryForObject(
-            "SELECT AVG(resolution_time/1000/60/60/24) FROM assignment WHERE resolution_time IS NOT NULL AND assignment_time IS NOT NULL",
-            Double.class);
-    } else {
-        avgDaysOverall = jdbcTemplate.queryForObject(
-            "SELECT AVG(resolution_time/1000/60/60/24) FROM assignment WHERE resolution_time IS NOT NULL AND assignment_time IS NOT NULL AND FROM_UNIXTIME(assignment_time/1000) BETWEEN ? AND ?",
-            Double.class,
-            Date.valueOf(fromDt.toLocalDate()), Date.valueOf(toDt.toLocalDate()));
-    }
-    result.put("avgResolutionDays", avgDaysOverall);
+    sections.put("incidentsBySeverity", () -> useAllData
+        ? analyticsJdbc.queryForList(
+            "SELECT severity_level AS severity, COUNT(*) AS cnt FROM incident GROUP BY severity_level")
+        : analyticsJdbc.queryForList(INCIDENTS_BY_SEVERITY_IN_RANGE, fromMs, toMs));
+
+    // Average resolution days overall (assignments in range), from the hourly rollup
+    sections.put("avgResolutionDays", () -> analyticsJdbc.queryForObject(
+        "SELECT SUM(total_resolution_ms)/SUM(completed)/1000/60/60/24 FROM assignment_rollup_hourly " +
+            "WHERE completed > 0 AND bucket_start >= ? AND bucket_start < ?",
+        Double.class, fromMs, toMs));
 
     // Average/min/max resolution days by incident type
-    List<Map<String, Object>> avgDaysByType;
-    if (useAllData) {
-        avgDaysByType = jdbcTemplate.queryForList(
-            "SELECT i.type, " +
-                "AVG(a.resolution_time/1000/60/60/24) AS avgDays, " +
-                "MIN(a.resolution_time/1000/60/60/24) AS minDays, " +
-                "MAX(a.resolution_time/1000/60/60/24) AS maxDays " +
-                "FROM assignment a JOIN incident i ON a.incident_id = i.incident_id " +
-                "WHERE a.resolution_time IS NOT NULL AND a.assignment_time IS NOT NULL " +
-                "GROUP BY i.type");
-    } else {
-        avgDaysByType = jdbcTemplate.queryForList(
-            "SELECT i.type, " +
-                "AVG(a.resolution_time/1000/60/60/24) AS avgDays, " +
-                "MIN(a.resolution_time/1000/60/60/24) AS minDays, " +
-                "MAX(a.resolution_time/1000/60/60/24) AS maxDays " +
-                "FROM assignment a JOIN incident i ON a.incident_id = i.incident_id " +
-                "WHERE a.resolution_time IS NOT NULL AND a.assignment_time IS NOT NULL AND FROM_UNIXTIME(a.assignment_time/1000) BETWEEN ? AND ? " +
-                "GROUP BY i.type",
-            Date.valueOf(fromDt.toLocalDate()), Date.valueOf(toDt.toLocalDate()));
-    }
-    result.put("responseTimeByType", avgDaysByType);
+    sections.put("responseTimeByType", () -> analyticsJdbc.queryForList(
+        "SELECT incident_type AS type, " + RESOLUTION_DAYS_COLUMNS +
+            "FROM assignment_rollup_hourly " +
+            "WHERE completed > 0 AND bucket_start >= ? AND bucket_start < ? " +
+            "GROUP BY incident_type",
+        fromMs, toMs));
 
     // Response time stats by day
-    List<Map<String, Object>> responseByDay;
-    if (useAllData) {
-        responseByDay = jdbcTemplate.queryForList(
-            "SELECT DATE(FROM_UNIXTIME(a.assignment_time/1000)) AS day, " +
-                "AVG(a.resolution_time/1000/60/60/24) AS avgDays, " +
-                "MIN(a.resolution_time/1000/60/60/24) AS minDays, " +
-                "MAX(a.resolution_time/1000/60/60/24) AS maxDays " +
-                "FROM assignment a " +
-                "WHERE a.resolution_time IS NOT NULL AND a.assignment_time IS NOT NULL " +
-                "GROUP BY DATE(FROM_UNIXTIME(a.assignment_time/1000)) ORDER BY day");
-    } else {
-        responseByDay = jdbcTemplate.queryForList(
-            "SELECT DATE(FROM_UNIXTIME(a.assignment_time/1000)) AS day, " +
-                "AVG(a.resolution_time/1000/60/60/24) AS avgDays, " +
-                "MIN(a.resolution_time/1000/60/60/24) AS minDays, " +
-                "MAX(a.resolution_time/1000/60/60/24) AS maxDays " +
-                "FROM assignment a " +
-                "WHERE a.resolution_time IS NOT NULL AND a.assignment_time IS NOT NULL AND FROM_UNIXTIME(a.assignment_time/1000) BETWEEN ? AND ? " +
-                "GROUP BY DATE(FROM_UNIXTIME(a.assignment_time/1000)) ORDER BY day",
-            Date.valueOf(fromDt.toLocalDate()), Date.valueOf(toDt.toLocalDate()));
-    }
-    result.put("responseTimeByDay", responseByDay);
+    sections.put("responseTimeByDay", () -> analyticsJdbc.queryForList(
+        "SELECT DATE(FROM_UNIXTIME(bucket_start/1000)) AS day, " + RESOLUTION_DAYS_COLUMNS +
+            "FROM assignment_rollup_hourly " +
+            "WHERE completed > 0 AND bucket_start >= ? AND bucket_start < ? " +
+            "GROUP BY DATE(FROM_UNIXTIME(bucket_start/1000)) ORDER BY day",
+        fromMs, toMs));
 
     // Response time stats by month
-    List<Map<String, Object>> responseByMonth;
-    if (useAllData) {
-        responseByMonth = jdbcTemplate.queryForList(
-            "SELECT DATE_FORMAT(FROM_UNIXTIME(a.assignment_time/1000), '%Y-%m') AS month, " +
-                "AVG(a.resolution_time/1000/60/60/24) AS avgDays, " +
-                "MIN(a.resolution_time/1000/60/60/24) AS minDays, " +
-                "MAX(a.resolution_time/1000/60/60/24) AS maxDays " +
-                "FROM assignment a " +
-                "WHERE a.resolution_time IS NOT NULL AND a.assignment_time IS NOT NULL " +
-                "GROUP BY DATE_FORMAT(FROM_UNIXTIME(a.assignment_time/1000), '%Y-%m') ORDER BY month");
-    } else {
-        responseByMonth = jdbcTemplate.queryForList(
-            "SELECT DATE_FORMAT(FROM_UNIXTIME(a.assignment_time/1000), '%Y-%m') AS month, " +
-                "AVG(a.resolution_time/1000/60/60/24) AS avgDays, " +
-                "MIN(a.resolution_time/1000/60/60/24) AS minDays, " +
-                "MAX(a.resolution_time/1000/60/60/24) AS maxDays " +
-                "FROM assignment a " +
-                "WHERE a.resolution_time IS NOT NULL AND a.assignment_time IS NOT NULL AND FROM_UNIXTIME(a.assignment_time/1000) BETWEEN ? AND ? " +
-                "GROUP BY DATE_FORMAT(FROM_UNIXTIME(a.assignment_time/1000), '%Y-%m') ORDER BY month",
-            Date.valueOf(fromDt.toLocalDate()), Date.valueOf(toDt.toLocalDate()));
-    }
-    result.put("responseTimeByMonth", responseByMonth);
+    sections.put("responseTimeByMonth", () -> analyticsJdbc.queryForList(
+        "SELECT DATE_FORMAT(FROM_UNIXTIME(bucket_start/1000), '%Y-%m') AS month, " + RESOLUTION_DAYS_COLUMNS +
+            "FROM assignment_rollup_hourly " +
+            "WHERE completed > 0 AND bucket_start >= ? AND bucket_start < ? " +
+            "GROUP BY DATE_FORMAT(FROM_UNIXTIME(bucket_start/1000), '%Y-%m') ORDER BY month",
+        fromMs, toMs));
 
     // Utilization ratio (active assignments vs capacity)
-    Integer totalActive;
-    if (useAllData) {
-        totalActive = jdbcTemplate.queryForObject(
-            "SELECT COUNT(*) FROM assignment WHERE is_active = 1",
-            Integer.class);
-    } else {
-        totalActive = jdbcTemplate.queryForObject(
-            "SELECT COUNT(*) FROM assignment WHERE is_active = 1 AND assignment_time BETWEEN ? AND ?",
-            Integer.class,
-            Date.valueOf(fromDt.toLocalDate()), Date.valueOf(toDt.toLocalDate()));
+    sections.put("utilizationRatio", () -> {
+        Integer totalActive = useAllData
+            ? analyticsJdbc.queryForObject(
+                "SELECT COUNT(*) FROM assignment WHERE is_active = 1",
+                Integer.class)
+            : analyticsJdbc.queryForObject(ACTIVE_ASSIGNMENTS_IN_RANGE, Integer.class, fromMs, toMs);
+        Integer totalCapacity = analyticsJdbc.queryForObject("SELECT COALESCE(SUM(capacity),0) FROM emergency_unit", Integer.class);
+        return (totalCapacity == null || totalCapacity == 0) ? 0.0 : (double) totalActive / totalCapacity;
+    });
+
+    // Utilization by unit type. Active assignments are counted per unit first, so a unit's capacity
+    // is summed once rather than once per assignment in its history
+    String activeByUnit = useAllData
+        ? "SELECT unit_id, COUNT(*) AS cnt FROM assignment WHERE is_active = 1 GROUP BY unit_id"
+        : ACTIVE_ASSIGNMENTS_BY_UNIT_IN_RANGE;
+    String utilizationSql =
+        "SELECT eu.type AS unitType, " +
+            "COALESCE(SUM(act.cnt), 0) AS activeAssignments, " +
+            "SUM(eu.capacity) AS totalCapacity, " +
+            "CASE WHEN SUM(eu.capacity)=0 THEN 0 ELSE COALESCE(SUM(act.cnt), 0)/SUM(eu.capacity) END AS utilization " +
+            "FROM emergency_unit eu LEFT JOIN (" + activeByUnit + ") act ON act.unit_id = eu.userid " +
+            "GROUP BY eu.type";
+    sections.put("utilizationByUnitType", () -> useAllData
+        ? analyticsJdbc.queryForList(utilizationSql)
+        : analyticsJdbc.queryForList(utilizationSql, fromMs, toMs));
+
+    // Top performing units by avg resolution time (ascending)
+    sections.put("topUnitsByAvgResolution", () -> analyticsJdbc.queryForList(
+        "SELECT unit_id AS unitId, SUM(total_resolution_ms)/SUM(completed)/1000/60/60/24 AS avgDays " +
+            "FROM assignment_rollup_hourly " +
+            "WHERE completed > 0 AND bucket_start >= ? AND bucket_start < ? " +
+            "GROUP BY unit_id ORDER BY avgDays ASC LIMIT " + topLimit,
+        fromMs, toMs));
+
+    // Top units by assignment counts
+    sections.put("topUnitsByAssignmentCount", () -> analyticsJdbc.queryForList(
+        "SELECT unit_id AS unitId, SUM(assigned) AS assignments FROM assignment_rollup_hourly " +
+            "WHERE bucket_start >= ? AND bucket_start < ? " +
+            "GROUP BY unit_id ORDER BY assignments DESC LIMIT " + topLimit,
+        fromMs, toMs));
+
+    // Incident volume trends by day (last range)
+    sections.put("incidentsByDay", () -> analyticsJdbc.queryForList(
+        "SELECT DATE(FROM_UNIXTIME(bucket_start/1000)) AS day, SUM(cnt) AS cnt FROM incident_rollup_hourly " +
+            "WHERE bucket_start >= ? AND bucket_start < ? " +
+            "GROUP BY DATE(FROM_UNIXTIME(bucket_start/1000)) ORDER BY day",
+        fromMs, toMs));
+
+    // Heatmap buckets (lat/lon rounded to 0.01), from the daily cell rollup plus the raw edge days
+    sections.put("incidentHeatmapTop", () -> analyticsJdbc.queryForList(
+        "SELECT lat, lon, SUM(cnt) AS cnt FROM (" +
+            "SELECT lat_cell AS lat, lon_cell AS lon, cnt FROM incident_cell_rollup_daily " +
+            "WHERE bucket_start >= ? AND bucket_start < ? " +
+            "UNION ALL SELECT ROUND(latitude, 2), ROUND(longtitude, 2), 1 FROM incident " +
+            "WHERE ((reported_time >= ? AND reported_time < ?) OR (reported_time >= ? AND reported_time < ?)) " +
+            "AND latitude IS NOT NULL AND longtitude IS NOT NULL" +
+            ") cells GROUP BY lat, lon ORDER BY cnt DESC LIMIT " + heatmapLimit,
+        fullDaysFrom, fullDaysTo, fromMs, Math.min(fullDaysFrom, toMs), fullDaysTo, toMs));
+
+    return runSections(sections);
     }
-    Integer totalCapacity = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(capacity),0) FROM emergency_unit", Integer.class);
-    Double utilization = (totalCapacity == null || totalCapacity == 0) ? 0.0 : (double) totalActive / totalCapacity;
-    result.put("utilizationRatio", utilization);
-
-    // Utilization by unit type
-    List<Map<String, Object>> utilizationByType;
-    if (useAllData) {
-        utilizationByType = jdbcTemplate.queryForList(
-            "SELECT eu.type AS unitType, " +
-                "SUM(CASE WHEN a.is_active = 1 THEN 1 ELSE 0 END) AS activeAssignments, " +
-                "SUM(eu.capacity) AS totalCapacity, " +
-                "CASE WHEN SUM(eu.capacity)=0 THEN 0 ELSE SUM(CASE WHEN a.is_active = 1 THEN 1 ELSE 0 END)/SUM(eu.capacity) END AS utilization " +
-                "FROM emergency_unit eu LEFT JOIN assignment a ON a.unit_id = eu.userid " +
-                "GROUP BY eu.type");
-    } else {
-        utilizationByType = jdbcTemplate.queryForList(
-            "SELECT eu.type AS unitType, " +
-                "SUM(CASE WHEN a.is_active = 1 THEN 1 ELSE 0 END) AS activeAssignments, " +
-                "SUM(eu.capacity) AS totalCapacity, " +
-                "CASE WHEN SUM(eu.capacity)=0 THEN 0 ELSE SUM(CASE WHEN a.is_active = 1 THEN 1 ELSE 0 END)/SUM(eu.capacity) END AS utilization " +
-                "FROM emergency_unit eu LEFT JOIN assignment a ON a.unit_id = eu.userid " +
-                "AND a.assignment_time BETWEEN ? AND ? " +
-                "GROUP BY eu.type",
-            Date.valueOf(fromDt.toLocalDate()), Date.valueOf(toDt.toLocalDate()));
+
+    private long dayFloor(long epochMs) {
+        return Instant.ofEpochMilli(epochMs).atZone(zone).truncatedTo(ChronoUnit.DAYS).toInstant().toEpochMilli();
     }
-    result.put("utilizationByUnitType", utilizationByType);
 
-    // Top performing units by avg resolution time (ascending)
-    List<Map<String, Object>> topUnitsByAvgResolution;
-    if (useAllData) {
-        topUnitsByAvgResolution = jdbcTemplate.queryForList(
-            "SELECT a.unit_id AS unitId, AVG(a.resolution_time/1000/60/60/24) AS avgDays " +
-                "FROM assignment a " +
-                "WHERE a.resolution_time IS NOT NULL AND a.assignment_time IS NOT NULL " +
-                "GROUP BY a.unit_id ORDER BY avgDays ASC LIMIT "+ topLimit);
-    } else {
-        topUnitsByAvgResolution = jdbcTemplate.queryForList(
-            "SELECT a.unit_id AS unitId, AVG(a.resolution_time/1000/60/60/24) AS avgDays " +
-                "FROM assignment a " +
-                "WHERE a.resolution_time IS NOT NULL AND a.assignment_time IS NOT NULL AND FROM_UNIXTIME(a.assignment_time/1000) BETWEEN ? AND ? " +
-                "GROUP BY a.unit_id ORDER BY avgDays ASC LIMIT "+ topLimit,
-            Date.valueOf(fromDt.toLocalDate()), Date.valueOf(toDt.toLocalDate()));
+    private long dayCeil(long epochMs) {
+        long floor = dayFloor(epochMs);
+        return floor == epochMs ? floor : Instant.ofEpochMilli(floor).atZone(zone).plusDays(1).toInstant().toEpochMilli();
     }
-    result.put("topUnitsByAvgResolution", topUnitsByAvgResolution);
 
-    // Top units by assignment counts
-    List<Map<String, Object>> topUnitsByCount;
-    if (useAllData) {
-        topUnitsByCount = jdbcTemplate.queryForList(
-            "SELECT unit_id AS unitId, COUNT(*) AS assignments FROM assignment GROUP BY unit_id ORDER BY assignments DESC LIMIT "+ topLimit);
-    } else {
-        topUnitsByCount = jdbcTemplate.queryForList(
-            "SELECT unit_id AS unitId, COUNT(*) AS assignments FROM assignment WHERE assignment_time BETWEEN ? AND ? GROUP BY unit_id ORDER BY assignments DESC LIMIT "+ topLimit,
-            Date.valueOf(fromDt.toLocalDate()), Date.valueOf(toDt.toLocalDate()));
+    /**
+     * Run every section on the analytics pool and wait for all of them, at most queryTimeoutMs in total.
+     * A section that fails or runs out of time is reported as null, listed under "failedSections" and
+     * marks the result "partial"; the others are still returned. "sectionTimingsMs" holds each section's
+     * own run time so slow ones stand out.
+     */
+    private Map<String, Object> runSections(Map<String, Callable<Object>> sections) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(queryTimeoutMs);
+        Map<String, Long> timings = new ConcurrentHashMap<>();
+        Map<String, Future<Object>> futures = new LinkedHashMap<>();
+        Map<String, String> failed = new LinkedHashMap<>();
+        sections.forEach((key, section) -> {
+            try {
+                futures.put(key, analyticsPool.submit(() -> {
+                    long start = System.nanoTime();
+                    try {
+                        return section.call();
+                    } finally {
+                        timings.put(key, (System.nanoTime() - start) / 1_000_000);
+                    }
+                }));
+            } catch (RejectedExecutionException e) {
+                failed.put(key, "rejected: analytics pool is full");
+            }
+        });
+
+        Map<String, Object> result = new HashMap<>();
+        for (Map.Entry<String, Future<Object>> entry : futures.entrySet()) {
+            String key = entry.getKey();
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                result.put(key, entry.getValue().get(remaining, TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                entry.getValue().cancel(true);
+                failed.put(key, "timed out after " + queryTimeoutMs + " ms");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                failed.put(key, cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                entry.getValue().cancel(true);
+                failed.put(key, "interrupted");
+            }
+        }
+        for (String key : failed.keySet()) {
+            result.put(key, null);
+            System.err.println("[ReportService] Section " + key + " failed: " + failed.get(key));
+        }
+        result.put("partial", !failed.isEmpty());
+        result.put("failedSections", failed);
+        result.put("sectionTimingsMs", new LinkedHashMap<>(timings));
+        return result;
     }
-    result.put("topUnitsByAssignmentCount", topUnitsByCount);
 
-    // Incident volume trends by day (last range)
-    List<Map<String, Object>> incidentsByDay;
-    if (useAllData) {
-        incidentsByDay = jdbcTemplate.queryForList(
-            "SELECT DATE(reported_time) AS day, COUNT(*) AS cnt FROM incident WHERE reported_time IS NOT NULL GROUP BY DATE(reported_time) ORDER BY day");
-    } else {
-        incidentsByDay = jdbcTemplate.queryForList(
-            "SELECT DATE(reported_time) AS day, COUNT(*) AS cnt FROM incident WHERE reported_time IS NOT NULL AND reported_time BETWEEN ? AND ? GROUP BY DATE(reported_time) ORDER BY day",
-            fromDt, toDt);
+    @PreDestroy
+    public void shutdown() {
+        analyticsPool.shutdownNow();
     }
-    result.put("incidentsByDay", incidentsByDay);
-
-    // Heatmap buckets (rounded lat/lon)
-    List<Map<String, Object>> heatmapBuckets;
-    if (useAllData) {
-        heatmapBuckets = jdbcTemplate.queryForList(
-            "SELECT ROUND(latitude,2) AS lat, ROUND(longtitude,2) AS lon, COUNT(*) AS cnt FROM incident " +
-                "GROUP BY ROUND(latitude,2), ROUND(longtitude,2) ORDER BY cnt DESC LIMIT "+ heatmapLimit);
-    } else {
-        heatmapBuckets = jdbcTemplate.queryForList(
-            "SELECT ROUND(latitude,2) AS lat, ROUND(longtitude,2) AS lon, COUNT(*) AS cnt FROM incident " +
-                "WHERE reported_time BETWEEN ? AND ? GROUP BY ROUND(latitude,2), ROUND(longtitude,2) ORDER BY cnt DESC LIMIT "+ heatmapLimit,
-            fromDt, toDt);
+
+    /**
+     * Render the dispatch report as PDF. Rendered PDFs are kept and reused by ReportJobService,
+     * which needs to know whether any section was left out.
+     */
+    public ReportPdf generateDispatchReportPdf(LocalDateTime from, LocalDateTime to, Integer topN, Integer heatmapK) throws JRException {
+        Map<String, Object> metrics = self.getDispatchMetrics(from, to, topN, heatmapK);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JasperExportManager.exportReportToPdfStream(fillDispatchReport(metrics), out);
+        return new ReportPdf(out.toByteArray(), Boolean.TRUE.equals(metrics.get("partial")));
     }
-    result.put("incidentHeatmapTop", heatmapBuckets);
 
-    return result;
+    /**
+     * Compile the report template once at startup so the first download does not pay for it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadReportTemplate() {
+        try {
+            dispatchReportTemplate();
+        } catch (JRException e) {
+            System.err.println("[ReportService] Failed to load report template: " + e.getMessage());
+        }
+    }
+
+    /**
+     * The compiled dispatch report. A precompiled /reports/dispatch_report.jasper is used if the build
+     * provides one, otherwise the JRXML is compiled on first use. Compiled reports are immutable and
+     * shared by all fills.
+     */
+    private JasperReport dispatchReportTemplate() throws JRException {
+        JasperReport report = compiledReport;
+        if (report != null) return report;
+        synchronized (this) {
+            if (compiledReport == null) {
+                long start = System.currentTimeMillis();
+                try (InputStream precompiled = getClass().getResourceAsStream("/reports/dispatch_report.jasper")) {
+                    if (precompiled != null) {
+                        compiledReport = (JasperReport) JRLoader.loadObject(precompiled);
+                    } else {
+                        try (InputStream jrxml = getClass().getResourceAsStream("/reports/dispatch_report.jrxml")) {
+                            if (jrxml == null) {
+                                throw new JRException("Report template not found on classpath: /reports/dispatch_report.jrxml");
+                            }
+                            compiledReport = JasperCompileManager.compileReport(jrxml);
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new JRException(e);
+                }
+                System.out.println("[ReportService] Report template ready in " + (System.currentTimeMillis() - start) + " ms");
+            }
+            return compiledReport;
+        }
     }
 
-    public byte[] generateDispatchReportPdf(LocalDateTime from, LocalDateTime to, Integer topN, Integer heatmapK) throws JRException {
-    Map<String, Object> metrics = getDispatchMetrics(from, to, topN, heatmapK);
+    private JasperPrint fillDispatchReport(Map<String, Object> metrics) throws JRException {
     List<ReportRow> rows = new ArrayList<>();
 
     // Add header info
@@ -368,16 +458,13 @@ public class ReportService {
         }
     }
 
-    // Compile and fill Jasper report
-    InputStream jrxml = getClass().getResourceAsStream("/reports/dispatch_report.jrxml");
-    if (jrxml == null) {
-        throw new JRException("Report template not found on classpath: /reports/dispatch_report.jrxml");
-    }
-    JasperReport jasperReport = JasperCompileManager.compileReport(jrxml);
+    // Fill the cached compiled report
     JRBeanCollectionDataSource dataSource = new JRBeanCollectionDataSource(rows);
     Map<String,Object> params = new HashMap<>();
     params.put("REPORT_TITLE", "Dispatch Efficiency & Analytics Report");
-    JasperPrint jasperPrint = JasperFillManager.fillReport(jasperReport, params, dataSource);
-    return JasperExportManager.exportReportToPdf(jasperPrint);
+    return JasperFillManager.fillReport(dispatchReportTemplate(), params, dataSource);
+    }
+
+    public record ReportPdf(byte[] bytes, boolean partial) {
     }
 }
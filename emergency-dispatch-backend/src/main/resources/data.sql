@@ -13,3 +13,31 @@ ON DUPLICATE KEY UPDATE username=username;
 INSERT INTO user (username, fname, lname, password, role) 
 VALUES ('manager', 'Jane', 'Smith', 'manager123', 'Manager')
 ON DUPLICATE KEY UPDATE username=username;
+
+-- Analytics rollups maintained by AnalyticsRollupService; bucket_start is the epoch ms of the hour/day start
+CREATE TABLE IF NOT EXISTS incident_rollup_hourly (
+    bucket_start BIGINT NOT NULL,
+    type VARCHAR(32) NOT NULL,
+    cnt BIGINT NOT NULL,
+    PRIMARY KEY (bucket_start, type)
+);
+
+CREATE TABLE IF NOT EXISTS incident_cell_rollup_daily (
+    bucket_start BIGINT NOT NULL,
+    lat_cell DECIMAL(6,2) NOT NULL,
+    lon_cell DECIMAL(7,2) NOT NULL,
+    cnt BIGINT NOT NULL,
+    PRIMARY KEY (bucket_start, lat_cell, lon_cell)
+);
+
+CREATE TABLE IF NOT EXISTS assignment_rollup_hourly (
+    bucket_start BIGINT NOT NULL,
+    incident_type VARCHAR(32) NOT NULL,
+    unit_id BIGINT NOT NULL,
+    assigned BIGINT NOT NULL DEFAULT 0,
+    completed BIGINT NOT NULL DEFAULT 0,
+    total_resolution_ms BIGINT NOT NULL DEFAULT 0,
+    min_resolution_ms BIGINT NULL,
+    max_resolution_ms BIGINT NULL,
+    PRIMARY KEY (bucket_start, incident_type, unit_id)
+);
@@ -0,0 +1,65 @@
+package com.emergency.dispatch.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Policy;
+
+public class CacheConfigTest {
+
+    private static final List<String> CACHE_NAMES = List.of(CacheConfig.INCIDENTS, CacheConfig.EMERGENCY_UNITS,
+        CacheConfig.INCIDENTS_MONITOR, CacheConfig.UNITS_MONITOR, CacheConfig.DISPATCH_METRICS);
+
+    @SuppressWarnings("unchecked")
+    private static CacheManager cacheManager(RedisConnectionFactory connectionFactory, MockEnvironment environment) {
+        ObjectProvider<RedisConnectionFactory> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(connectionFactory);
+        return new CacheConfig().cacheManager(provider, new ObjectMapper(), environment);
+    }
+
+    private static Policy<Object, Object> policy(CacheManager cacheManager, String name) {
+        return ((CaffeineCache) cacheManager.getCache(name)).getNativeCache().policy();
+    }
+
+    @Test
+    public void unreachableRedisFallsBackToCaffeineWithTheSameCaches() {
+        RedisConnectionFactory connectionFactory = mock(RedisConnectionFactory.class);
+        when(connectionFactory.getConnection()).thenThrow(new RedisConnectionFailureException("Connection refused"));
+
+        CacheManager cacheManager = cacheManager(connectionFactory, new MockEnvironment());
+
+        assertEquals(CACHE_NAMES, List.copyOf(cacheManager.getCacheNames()));
+        for (String name : CACHE_NAMES) {
+            assertInstanceOf(CaffeineCache.class, cacheManager.getCache(name), name);
+        }
+        assertEquals(Duration.ofSeconds(2), policy(cacheManager, CacheConfig.INCIDENTS).expireAfterWrite().get().getExpiresAfter());
+        assertEquals(Duration.ofSeconds(60), policy(cacheManager, CacheConfig.DISPATCH_METRICS).expireAfterWrite().get().getExpiresAfter());
+        assertEquals(1000L, policy(cacheManager, CacheConfig.INCIDENTS).eviction().get().getMaximum());
+    }
+
+    @Test
+    public void noRedisConnectionFactoryUsesCaffeineWithConfiguredLimits() {
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("cache.ttl-seconds.units-monitor", "5")
+            .withProperty("cache.caffeine.max-entries", "10");
+
+        CacheManager cacheManager = cacheManager(null, environment);
+
+        assertEquals(Duration.ofSeconds(5), policy(cacheManager, CacheConfig.UNITS_MONITOR).expireAfterWrite().get().getExpiresAfter());
+        assertEquals(10L, policy(cacheManager, CacheConfig.UNITS_MONITOR).eviction().get().getMaximum());
+        // Only the known caches exist; a typo in a cache name must not silently create a new one
+        assertNull(cacheManager.getCache("incident"));
+    }
+}
@@ -0,0 +1,124 @@
+package com.emergency.dispatch.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.emergency.dispatch.enums.IncidentStatus;
+
+/**
+ * Live-incident queries against 1M historical incidents in H2, schema and indexes generated from the entities.
+ * Each query is timed against a full read of the table filtered in Java (a lower bound for the old
+ * findAll().stream().filter paths, which also built an entity per row), and its plan must use an index.
+ * Not picked up by a plain mvn test because of its name.
+ *
+ * Run with: mvn test -Dtest=IncidentQueryBenchmark
+ */
+@DataJpaTest(properties = {
+    // USER is a keyword in H2 and the user table is created with the rest of the schema
+    "spring.datasource.url=jdbc:h2:mem:incident-benchmark;NON_KEYWORDS=USER",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.sql.init.mode=never",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class IncidentQueryBenchmark {
+
+    private static final int HISTORY = 1_000_000;
+    // One PENDING and one DISPATCH incident per thousand, everything else COMPLETED
+    private static final int LIVE = 2 * HISTORY / 1000;
+    private static final int RUNS = 10;
+
+    @Autowired
+    private IncidentRepository incidentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void seedHistory() {
+        // Committed outside a test transaction, so the table is seeded once per context
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM incident", Long.class) > 0) return;
+        long start = System.currentTimeMillis();
+        jdbcTemplate.update("INSERT INTO incident (latitude, longtitude, needs, type, reported_time, severity_level, status)"
+            + " SELECT 36.04 + MOD(X, 230) * 0.001, -115.29 + MOD(X, 250) * 0.001, 1 + MOD(X, 5),"
+            + " CASE MOD(X, 3) WHEN 0 THEN 'FIRE' WHEN 1 THEN 'POLICE' ELSE 'AMBULANCE' END,"
+            + " 1700000000000 + X * 1000,"
+            + " CASE MOD(X, 4) WHEN 0 THEN 'CRITICAL' WHEN 1 THEN 'MEDIUM' ELSE 'LOW' END,"
+            + " CASE MOD(X, 1000) WHEN 0 THEN 'PENDING' WHEN 1 THEN 'DISPATCH' ELSE 'COMPLETED' END"
+            + " FROM SYSTEM_RANGE(1, " + HISTORY + ")");
+        jdbcTemplate.execute("ANALYZE");
+        System.out.printf("[IncidentQueryBenchmark] Seeded %d incidents in %d ms%n", HISTORY, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Median of RUNS timed calls after as many warm-up calls; every call must return expectedRows.
+     */
+    private static double medianMs(String label, int expectedRows, IntSupplier query) {
+        for (int i = 0; i < RUNS; i++) {
+            assertEquals(expectedRows, query.getAsInt(), label);
+        }
+        double[] times = new double[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            query.getAsInt();
+            times[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(times);
+        System.out.printf("[IncidentQueryBenchmark] %-40s %9.2f ms%n", label, times[RUNS / 2]);
+        return times[RUNS / 2];
+    }
+
+    private int scanCount(IncidentStatus... wanted) {
+        List<String> statuses = Arrays.stream(wanted).map(Enum::name).toList();
+        AtomicInteger matches = new AtomicInteger();
+        jdbcTemplate.query("SELECT incident_id, status FROM incident", row -> {
+            if (statuses.contains(row.getString("status"))) matches.incrementAndGet();
+        });
+        return matches.get();
+    }
+
+    private String plan(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class).toUpperCase();
+    }
+
+    @Test
+    public void liveIncidentsScaleWithTheWorkingSet() {
+        List<IncidentStatus> live = List.of(IncidentStatus.PENDING, IncidentStatus.DISPATCH);
+        double indexed = medianMs("findByStatusIn(PENDING, DISPATCH)", LIVE, () -> incidentRepository.findByStatusIn(live).size());
+        double scanned = medianMs("full read filtered in Java", LIVE, () -> scanCount(IncidentStatus.PENDING, IncidentStatus.DISPATCH));
+        medianMs("findByStatus(PENDING)", LIVE / 2, () -> incidentRepository.findByStatus(IncidentStatus.PENDING).size());
+
+        String plan = plan("SELECT * FROM incident WHERE status IN ('PENDING', 'DISPATCH')");
+        assertTrue(plan.contains("IDX_INCIDENT_STATUS_TYPE_SEVERITY_TIME"), plan);
+        System.out.printf("[IncidentQueryBenchmark] live working set: %.1fx faster than a full read%n", scanned / indexed);
+    }
+
+    @Test
+    public void deepHistoryPagesCostTheSameAsTheFirst() {
+        int pageSize = 100;
+        double first = medianMs("history page after id 0", pageSize, () -> incidentRepository
+            .findByStatusAndIncidentIdGreaterThanOrderByIncidentIdAsc(IncidentStatus.COMPLETED, 0L, Limit.of(pageSize)).size());
+        double deep = medianMs("history page after id 990000", pageSize, () -> incidentRepository
+            .findByStatusAndIncidentIdGreaterThanOrderByIncidentIdAsc(IncidentStatus.COMPLETED, 990_000L, Limit.of(pageSize)).size());
+
+        String plan = plan("SELECT * FROM incident WHERE status = 'COMPLETED' AND incident_id > 990000 ORDER BY incident_id LIMIT 100");
+        assertTrue(plan.contains("PRIMARY_KEY") || plan.contains("IDX_INCIDENT_STATUS"), plan);
+        System.out.printf("[IncidentQueryBenchmark] keyset paging: deep page %.1fx the cost of the first%n", deep / first);
+    }
+}
@@ -0,0 +1,125 @@
+package com.emergency.dispatch.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.emergency.dispatch.enums.IncidentType;
+import com.emergency.dispatch.model.Assignment;
+import com.emergency.dispatch.model.EmergencyUnit;
+import com.emergency.dispatch.model.Incident;
+
+/**
+ * Editing or deleting an incident must move its counts out of the buckets it was rolled up in,
+ * however old they are. Runs on H2 in MySQL mode with the rollup tables from data.sql.
+ */
+@DataJpaTest(properties = {
+    // USER is a keyword in H2 and the user table is created with the rest of the schema
+    "spring.datasource.url=jdbc:h2:mem:rollup-refresh;MODE=MySQL;NON_KEYWORDS=USER",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.sql.init.mode=never",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(AnalyticsRollupService.class)
+@Sql(statements = {
+    "CREATE TABLE IF NOT EXISTS incident_rollup_hourly (bucket_start BIGINT NOT NULL, type VARCHAR(32) NOT NULL, cnt BIGINT NOT NULL, PRIMARY KEY (bucket_start, type))",
+    "CREATE TABLE IF NOT EXISTS incident_cell_rollup_daily (bucket_start BIGINT NOT NULL, lat_cell DECIMAL(6,2) NOT NULL, lon_cell DECIMAL(7,2) NOT NULL, cnt BIGINT NOT NULL, PRIMARY KEY (bucket_start, lat_cell, lon_cell))",
+    "CREATE TABLE IF NOT EXISTS assignment_rollup_hourly (bucket_start BIGINT NOT NULL, incident_type VARCHAR(32) NOT NULL, unit_id BIGINT NOT NULL,"
+        + " assigned BIGINT NOT NULL DEFAULT 0, completed BIGINT NOT NULL DEFAULT 0, total_resolution_ms BIGINT NOT NULL DEFAULT 0,"
+        + " min_resolution_ms BIGINT NULL, max_resolution_ms BIGINT NULL, PRIMARY KEY (bucket_start, incident_type, unit_id))",
+    "DELETE FROM incident_rollup_hourly", "DELETE FROM incident_cell_rollup_daily", "DELETE FROM assignment_rollup_hourly",
+    "DELETE FROM assignment", "DELETE FROM incident", "DELETE FROM emergency_unit"
+})
+public class AnalyticsRollupServiceTest {
+
+    // A minute into an hour a year back, far outside the nightly reconcile window
+    private static final long REPORTED = (System.currentTimeMillis() - 365L * 86_400_000L) / 3_600_000L * 3_600_000L + 60_000L;
+
+    @Autowired
+    private AnalyticsRollupService analyticsRollupService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Incident incident;
+    private List<Assignment> assignments;
+
+    @BeforeEach
+    public void seed() {
+        jdbcTemplate.update("INSERT INTO emergency_unit (userid, latitude, longtitude, capacity, type, status) VALUES (3, 36.1, -115.1, 1, 'FIRE', FALSE)");
+        // A second FIRE incident in the same hour, which must stay counted
+        jdbcTemplate.update("INSERT INTO incident (incident_id, latitude, longtitude, needs, type, reported_time, severity_level, status)"
+            + " VALUES (1, 36.123, -115.101, 1, 'FIRE', ?, 'LOW', 'COMPLETED'), (2, 36.5, -115.5, 1, 'FIRE', ?, 'LOW', 'PENDING')",
+            REPORTED, REPORTED + 1000);
+        jdbcTemplate.update("INSERT INTO assignment (assignment_time, resolution_time, incident_id, unit_id, is_active) VALUES (?, 60000, 1, 3, FALSE)",
+            REPORTED + 5000);
+        analyticsRollupService.rebuild(REPORTED, REPORTED);
+
+        incident = new Incident();
+        incident.setIncidentId(1L);
+        incident.setType(IncidentType.FIRE);
+        incident.setReportedTime(REPORTED);
+        incident.setLatitude(36.123);
+        incident.setLongtitude(-115.101);
+        EmergencyUnit unit = new EmergencyUnit();
+        unit.setUnitID(3L);
+        Assignment assignment = new Assignment();
+        assignment.setAssignmentTime(REPORTED + 5000);
+        assignment.setEmergencyUnit(unit);
+        assignments = List.of(assignment);
+    }
+
+    private Map<String, Long> hourlyCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        jdbcTemplate.query("SELECT type, cnt FROM incident_rollup_hourly",
+            row -> { counts.put(row.getString("type"), row.getLong("cnt")); });
+        return counts;
+    }
+
+    @Test
+    public void typeChangeMovesTheIncidentAndItsAssignments() {
+        jdbcTemplate.update("UPDATE incident SET type = 'POLICE', latitude = 36.2 WHERE incident_id = 1");
+        Incident after = new Incident();
+        after.setIncidentId(1L);
+        after.setType(IncidentType.POLICE);
+        after.setReportedTime(REPORTED);
+        after.setLatitude(36.2);
+        after.setLongtitude(-115.101);
+
+        analyticsRollupService.refreshIncidentBuckets(incident, after, assignments);
+
+        assertEquals(Map.of("FIRE", 1L, "POLICE", 1L), hourlyCounts());
+        assertEquals(List.of("POLICE"), jdbcTemplate.queryForList("SELECT incident_type FROM assignment_rollup_hourly", String.class));
+        assertEquals(60000L, jdbcTemplate.queryForObject("SELECT max_resolution_ms FROM assignment_rollup_hourly", Long.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM incident_cell_rollup_daily WHERE lat_cell = 36.12", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM incident_cell_rollup_daily WHERE lat_cell = 36.20", Integer.class));
+    }
+
+    @Test
+    public void deleteTakesTheIncidentOutOfEveryBucket() {
+        jdbcTemplate.update("DELETE FROM assignment WHERE incident_id = 1");
+        jdbcTemplate.update("DELETE FROM incident WHERE incident_id = 1");
+
+        analyticsRollupService.refreshIncidentBuckets(incident, null, assignments);
+
+        assertEquals(Map.of("FIRE", 1L), hourlyCounts());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM assignment_rollup_hourly", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM incident_cell_rollup_daily", Integer.class));
+    }
+}
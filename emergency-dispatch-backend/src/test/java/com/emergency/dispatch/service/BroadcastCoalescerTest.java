@@ -0,0 +1,60 @@
+package com.emergency.dispatch.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.emergency.dispatch.dto.BroadcastDelta;
+import com.emergency.dispatch.event.IncidentRemovedEvent;
+import com.emergency.dispatch.event.UnitRemovedEvent;
+import com.emergency.dispatch.repository.AssignmentRepository;
+import com.emergency.dispatch.repository.EmergencyUnitRepository;
+import com.emergency.dispatch.repository.IncidentRepository;
+
+public class BroadcastCoalescerTest {
+
+    private BroadcastCoalescer coalescer;
+    private SimpMessagingTemplate messagingTemplate;
+    private IncidentRepository incidentRepository;
+
+    @BeforeEach
+    public void createCoalescer() {
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        incidentRepository = mock(IncidentRepository.class);
+        coalescer = new BroadcastCoalescer();
+        ReflectionTestUtils.setField(coalescer, "messagingTemplate", messagingTemplate);
+        ReflectionTestUtils.setField(coalescer, "incidentRepository", incidentRepository);
+        ReflectionTestUtils.setField(coalescer, "emergencyUnitRepository", mock(EmergencyUnitRepository.class));
+        ReflectionTestUtils.setField(coalescer, "assignmentRepository", mock(AssignmentRepository.class));
+    }
+
+    private BroadcastDelta sent(String topic) {
+        ArgumentCaptor<Object> delta = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate).convertAndSend(eq(topic), delta.capture());
+        return (BroadcastDelta) delta.getValue();
+    }
+
+    @Test
+    public void deletionsReachDeltaClients() {
+        coalescer.incidentChanged(4L);
+        coalescer.onDispatchEvent(new IncidentRemovedEvent(4L));
+        coalescer.onDispatchEvent(new UnitRemovedEvent(9L));
+
+        coalescer.flush();
+
+        BroadcastDelta incidents = sent(BroadcastCoalescer.INCIDENTS_DELTA_TOPIC);
+        assertEquals(List.of(4L), incidents.removed());
+        // Changed and then deleted in the same window: only the removal is sent
+        assertTrue(incidents.upserts().isEmpty());
+        verifyNoInteractions(incidentRepository);
+        assertEquals(List.of(9L), sent(BroadcastCoalescer.UNITS_DELTA_TOPIC).removed());
+    }
+}
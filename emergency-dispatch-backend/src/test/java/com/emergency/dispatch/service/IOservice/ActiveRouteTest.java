@@ -0,0 +1,90 @@
+package com.emergency.dispatch.service.IOservice;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.emergency.dispatch.enums.EmergencyUnitType;
+
+public class ActiveRouteTest {
+
+    private static final RoutePath PATH = RoutePath.wrap(new double[] {0.0, 0.0, 0.0, 0.01, 0.0, 0.03});
+    private static final long START = 1_000_000L;
+    private static final long TRAVEL = 60_000L;
+
+    private static ActiveRoute route() {
+        return new ActiveRoute(PATH, 5L, EmergencyUnitType.FIRE, START, TRAVEL);
+    }
+
+    @Test
+    public void startsAtTheFirstPoint() {
+        ActiveRoute route = route();
+        assertEquals(0.0, route.currentLon(), 0.0);
+        assertFalse(route.finished());
+
+        // A tick before the start time keeps the unit at the first point
+        route.moveTo(START - 5_000);
+        assertEquals(0.0, route.currentLon(), 0.0);
+        assertFalse(route.finished());
+    }
+
+    @Test
+    public void positionFollowsElapsedTime() {
+        ActiveRoute route = route();
+        route.moveTo(START + TRAVEL / 2);
+        assertEquals(0.015, route.currentLon(), 1e-6);
+        assertFalse(route.finished());
+
+        route.moveTo(START + TRAVEL / 3);
+        assertEquals(0.01, route.currentLon(), 1e-6);
+    }
+
+    @Test
+    public void finishesExactlyAtArrival() {
+        ActiveRoute route = route();
+        assertEquals(START + TRAVEL, route.arrivalAtMillis());
+
+        route.moveTo(START + TRAVEL - 1);
+        assertFalse(route.finished());
+
+        route.moveTo(START + TRAVEL);
+        assertTrue(route.finished());
+        assertEquals(0.03, route.currentLon(), 1e-9);
+
+        // Late ticks stay at the destination
+        route.moveTo(START + 10 * TRAVEL);
+        assertTrue(route.finished());
+        assertEquals(0.03, route.currentLon(), 1e-9);
+    }
+
+    @Test
+    public void resumeContinuesFromWhereThePauseLeftOff() {
+        ActiveRoute route = route();
+        route.moveTo(START + TRAVEL / 2);
+
+        // Paused halfway for ten minutes
+        long resumedAt = START + TRAVEL / 2 + 600_000;
+        route.resume(START + TRAVEL / 2, resumedAt);
+        route.moveTo(resumedAt);
+        assertEquals(0.015, route.currentLon(), 1e-6);
+        assertEquals(resumedAt + TRAVEL / 2, route.arrivalAtMillis());
+
+        // Routed while paused: starts when the simulation resumes
+        ActiveRoute late = route();
+        late.resume(START - 5_000, START + 20_000);
+        late.moveTo(START + 20_000);
+        assertEquals(0.0, late.currentLon(), 0.0);
+        assertEquals(START + 20_000 + TRAVEL, late.arrivalAtMillis());
+    }
+
+    @Test
+    public void zeroTravelTimeOrLengthArrivesOnFirstMove() {
+        ActiveRoute instant = new ActiveRoute(PATH, 5L, EmergencyUnitType.FIRE, START, 0);
+        instant.moveTo(START);
+        assertTrue(instant.finished());
+
+        // Unit already at the incident: nothing to drive
+        ActiveRoute here = new ActiveRoute(RoutePath.straightLine(31.2, 29.9, 31.2, 29.9), 5L, EmergencyUnitType.FIRE, START, TRAVEL);
+        assertTrue(here.finished());
+    }
+}
@@ -0,0 +1,139 @@
+package com.emergency.dispatch.service.IOservice;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.jdbc.test.autoconfigure.JdbcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+
+import com.emergency.dispatch.model.EmergencyUnit;
+import com.emergency.dispatch.model.Incident;
+import com.emergency.dispatch.service.AnalyticsRollupService;
+
+/**
+ * A burst of 500 dispatch decisions must reach the database as three JDBC batches
+ * (units, assignments, incidents), not as three statements per decision.
+ */
+@JdbcTest(properties = "spring.sql.init.mode=never")
+@Import({DispatchBatchWriter.class, DispatchBatchWriterTest.CountingDataSourceConfig.class})
+@Sql(statements = {
+    "CREATE TABLE IF NOT EXISTS emergency_unit (userid BIGINT PRIMARY KEY, latitude DOUBLE, longtitude DOUBLE, capacity INT, type VARCHAR(32), status BOOLEAN)",
+    "CREATE TABLE IF NOT EXISTS incident (incident_id BIGINT PRIMARY KEY, latitude DOUBLE, longtitude DOUBLE, needs INT, type VARCHAR(32), reported_time BIGINT, severity_level VARCHAR(32), status VARCHAR(32))",
+    "CREATE TABLE IF NOT EXISTS assignment (assignment_id BIGINT AUTO_INCREMENT PRIMARY KEY, assignment_time BIGINT, resolution_time BIGINT, incident_id BIGINT, unit_id BIGINT, user_id BIGINT, is_active BOOLEAN)"
+})
+public class DispatchBatchWriterTest {
+
+    private static final int BURST = 500;
+
+    @Autowired
+    private DispatchBatchWriter dispatchBatchWriter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private AnalyticsRollupService analyticsRollupService;
+
+    @BeforeEach
+    public void seed() {
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= BURST; id++) {
+            rows.add(new Object[] {id});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO emergency_unit (userid, latitude, longtitude, capacity, type, status) VALUES (?, 31.2, 29.9, 1, 'AMBULANCE', TRUE)", rows);
+        jdbcTemplate.batchUpdate("INSERT INTO incident (incident_id, latitude, longtitude, needs, type, reported_time, severity_level, status) VALUES (?, 31.2, 29.9, 1, 'AMBULANCE', 0, 'LOW', 'PENDING')", rows);
+    }
+
+    @Test
+    public void burstOf500DispatchesIsThreeBatches() {
+        List<DispatchDecision> decisions = new ArrayList<>();
+        for (long id = 1; id <= BURST; id++) {
+            EmergencyUnit unit = new EmergencyUnit();
+            unit.setUnitID(id);
+            Incident incident = new Incident();
+            incident.setIncidentId(id);
+            decisions.add(new DispatchDecision(unit, incident, 1_000L + id));
+        }
+
+        StatementCounter.reset();
+        dispatchBatchWriter.persist(decisions);
+
+        assertEquals(3, StatementCounter.executions.get());
+        assertEquals(3 * BURST, StatementCounter.batchedRows.get());
+
+        assertEquals(BURST, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM assignment WHERE is_active", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM emergency_unit WHERE status", Integer.class));
+        assertEquals(BURST, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM incident WHERE status = 'DISPATCH'", Integer.class));
+    }
+
+    /**
+     * Counts statement executions (each execute* or executeBatch call is one round trip) and batched rows.
+     */
+    static final class StatementCounter {
+        static final AtomicInteger executions = new AtomicInteger();
+        static final AtomicInteger batchedRows = new AtomicInteger();
+
+        static void reset() {
+            executions.set(0);
+            batchedRows.set(0);
+        }
+    }
+
+    @TestConfiguration
+    static class CountingDataSourceConfig {
+
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? proxy(DataSource.class, dataSource) : bean;
+                }
+            };
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target) {
+            InvocationHandler handler = (proxy, method, args) -> {
+                String name = method.getName();
+                if (target instanceof Statement) {
+                    if (name.equals("addBatch")) StatementCounter.batchedRows.incrementAndGet();
+                    if (name.startsWith("execute")) StatementCounter.executions.incrementAndGet();
+                }
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                if (result instanceof Connection connection && name.equals("getConnection")) {
+                    return proxy(Connection.class, connection);
+                }
+                if (result instanceof Statement statement && (name.equals("prepareStatement") || name.equals("createStatement"))) {
+                    return proxy((Class<Statement>) method.getReturnType(), statement);
+                }
+                return result;
+            };
+            return (T) Proxy.newProxyInstance(CountingDataSourceConfig.class.getClassLoader(), new Class<?>[] {type}, handler);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.emergency.dispatch.service.IOservice;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.emergency.dispatch.enums.EmergencyUnitType;
+import com.emergency.dispatch.enums.SeverityLevel;
+import com.emergency.dispatch.model.EmergencyUnit;
+import com.emergency.dispatch.model.Incident;
+
+/**
+ * Greedy versus optimal dispatch for one pass of one unit type: pass latency is measured by JMH,
+ * total travel distance of the resulting matches is printed once per trial.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.emergency.dispatch.service.IOservice.DispatchStrategyBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DispatchStrategyBenchmark {
+
+    private static final EmergencyUnitType TYPE = EmergencyUnitType.AMBULANCE;
+    private static final double MAX_KM = 50.0;
+
+    @Param({"100", "500", "1000"})
+    public int incidents;
+
+    @Param({"1000"})
+    public int fleetSize;
+
+    private List<EmergencyUnit> fleet;
+    private List<Incident> pending;
+    private DispatchStrategy greedy;
+    private DispatchStrategy optimal;
+    private FreeUnitIndex freeUnits;
+
+    @Setup(Level.Trial)
+    public void createScenario() {
+        Random random = new Random(7);
+        fleet = new ArrayList<>(fleetSize);
+        for (int i = 0; i < fleetSize; i++) {
+            fleet.add(OptimalDispatchStrategyTest.unit(i + 1, 31.2 + (random.nextDouble() - 0.5) * 0.3,
+                29.9 + (random.nextDouble() - 0.5) * 0.3));
+        }
+        SeverityLevel[] severities = SeverityLevel.values();
+        pending = new ArrayList<>(incidents);
+        for (int i = 0; i < incidents; i++) {
+            pending.add(OptimalDispatchStrategyTest.incident(i + 1, severities[random.nextInt(severities.length)],
+                31.2 + (random.nextDouble() - 0.5) * 0.3, 29.9 + (random.nextDouble() - 0.5) * 0.3));
+        }
+        // Same priority order the dispatch partition hands to the strategies
+        pending.sort((a, b) -> b.getSeverityLevel().compareTo(a.getSeverityLevel()));
+
+        greedy = new GreedyDispatchStrategy();
+        optimal = OptimalDispatchStrategyTest.strategy(1_000_000);
+        System.out.printf("%n[DispatchStrategyBenchmark] %d incidents, %d units: greedy %.1f km, optimal %.1f km%n",
+            incidents, fleetSize, totalKm(run(greedy)), totalKm(run(optimal)));
+    }
+
+    @Setup(Level.Invocation)
+    public void resetFreeUnits() {
+        freeUnits = new FreeUnitIndex();
+        fleet.forEach(freeUnits::update);
+    }
+
+    private List<DispatchDecision> run(DispatchStrategy strategy) {
+        resetFreeUnits();
+        return strategy.assign(TYPE, pending, incident -> 1, freeUnits, MAX_KM, 0L);
+    }
+
+    private static double totalKm(List<DispatchDecision> decisions) {
+        double km = 0;
+        for (DispatchDecision decision : decisions) {
+            km += GeoMath.haversineKm(decision.incident().getLatitude(), decision.incident().getLongtitude(),
+                decision.unit().getLatitude(), decision.unit().getLongtitude());
+        }
+        return km;
+    }
+
+    @Benchmark
+    public List<DispatchDecision> greedyPass() {
+        return greedy.assign(TYPE, pending, incident -> 1, freeUnits, MAX_KM, 0L);
+    }
+
+    @Benchmark
+    public List<DispatchDecision> optimalPass() {
+        return optimal.assign(TYPE, pending, incident -> 1, freeUnits, MAX_KM, 0L);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DispatchStrategyBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,88 @@
+package com.emergency.dispatch.service.IOservice;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.emergency.dispatch.service.BroadcastCoalescer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class EmergencyUnitGeneratorServiceTest {
+
+    private EmergencyUnitGeneratorService service;
+    private UnitBatchWriter unitBatchWriter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void createService() {
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        unitBatchWriter = mock(UnitBatchWriter.class);
+
+        service = new EmergencyUnitGeneratorService();
+        ReflectionTestUtils.setField(service, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(service, "unitBatchWriter", unitBatchWriter);
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(service, "eventPublisher", mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(service, "broadcastCoalescer", mock(BroadcastCoalescer.class));
+    }
+
+    private Map<String, Object> importText(String text, String filename) throws IOException {
+        return service.importUnits(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), filename);
+    }
+
+    @Test
+    public void geoJsonFeaturesAreReadWhereverTheArraySits() throws IOException {
+        String geoJson = "{\"type\":\"FeatureCollection\",\"name\":\"units\",\"crs\":{\"properties\":{\"name\":\"x\"}},\"features\":["
+            + "{\"type\":\"Feature\",\"geometry\":{\"type\":\"Point\",\"coordinates\":[-115.1,36.1]},\"properties\":{\"type\":\"fire\",\"capacity\":3}},"
+            + "{\"type\":\"Feature\",\"geometry\":{\"type\":\"Point\",\"coordinates\":[-115.2,136.1]},\"properties\":{\"type\":\"police\"}},"
+            + "{\"type\":\"Feature\",\"geometry\":{\"type\":\"LineString\",\"coordinates\":[[0,0],[1,1]]},\"properties\":{\"type\":\"police\"}},"
+            + "{\"type\":\"Feature\",\"geometry\":{\"type\":\"Point\",\"coordinates\":[-115.3,36.2]},\"properties\":{\"type\":\"ambulance\"}}"
+            + "],\"bbox\":[-116,35,-114,37]}";
+
+        Map<String, Object> result = importText(geoJson, "units.geojson");
+
+        assertEquals(2, result.get("inserted"));
+        assertEquals(2, result.get("skipped"));
+        List<?> errors = (List<?>) result.get("errors");
+        assertTrue(errors.get(0).toString().startsWith("feature 1: latitude 136.1"), errors.toString());
+        assertTrue(errors.get(1).toString().startsWith("feature 2: not a Point"), errors.toString());
+        verify(unitBatchWriter, times(1)).insert(any());
+    }
+
+    @Test
+    public void geoJsonWithoutFeaturesIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> importText("{\"type\":\"Feature\"}", "unit.json"));
+        assertThrows(IllegalArgumentException.class, () -> importText("[1,2]", "unit.json"));
+    }
+
+    @Test
+    public void csvRowsOutsideValidCoordinatesAreSkipped() throws IOException {
+        String csv = "type,latitude,longitude\nfire,36.1,-115.1\npolice,36.1,-215.1\nambulance,NaN,-115.1\n";
+
+        Map<String, Object> result = importText(csv, "units.csv");
+
+        assertEquals(1, result.get("inserted"));
+        assertEquals(2, result.get("skipped"));
+        List<?> errors = (List<?>) result.get("errors");
+        assertTrue(errors.get(0).toString().contains("longitude -215.1 is outside"), errors.toString());
+        assertTrue(errors.get(1).toString().contains("latitude NaN is outside"), errors.toString());
+    }
+}
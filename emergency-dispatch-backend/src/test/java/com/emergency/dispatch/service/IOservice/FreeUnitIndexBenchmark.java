@@ -0,0 +1,122 @@
+package com.emergency.dispatch.service.IOservice;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.emergency.dispatch.enums.EmergencyUnitType;
+import com.emergency.dispatch.model.EmergencyUnit;
+
+/**
+ * One dispatch tick (every pending incident takes its nearest free unit) against fleet size:
+ * the old linear scan with a doubling radius versus FreeUnitIndex.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.emergency.dispatch.service.IOservice.FreeUnitIndexBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FreeUnitIndexBenchmark {
+
+    private static final double MAX_KM = 50.0;
+
+    @Param({"1000", "5000", "20000"})
+    public int fleetSize;
+
+    @Param({"200"})
+    public int incidents;
+
+    private List<EmergencyUnit> fleet;
+    private double[] incidentLat;
+    private double[] incidentLon;
+
+    // Rebuilt before every tick because a tick consumes the units it assigns
+    private List<EmergencyUnit> freeList;
+    private FreeUnitIndex index;
+
+    @Setup(Level.Trial)
+    public void createFleet() {
+        Random random = new Random(42);
+        fleet = new ArrayList<>(fleetSize);
+        for (int i = 0; i < fleetSize; i++) {
+            EmergencyUnit unit = new EmergencyUnit();
+            unit.setUnitID((long) i + 1);
+            unit.setType(EmergencyUnitType.AMBULANCE);
+            unit.setStatus(true);
+            unit.setLatitude(31.2 + (random.nextDouble() - 0.5) * 0.4);
+            unit.setLongtitude(29.9 + (random.nextDouble() - 0.5) * 0.4);
+            fleet.add(unit);
+        }
+        incidentLat = new double[incidents];
+        incidentLon = new double[incidents];
+        for (int i = 0; i < incidents; i++) {
+            incidentLat[i] = 31.2 + (random.nextDouble() - 0.5) * 0.4;
+            incidentLon[i] = 29.9 + (random.nextDouble() - 0.5) * 0.4;
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void resetFreeUnits() {
+        freeList = new ArrayList<>(fleet);
+        index = new FreeUnitIndex();
+        fleet.forEach(index::update);
+    }
+
+    @Benchmark
+    public void linearScanTick(Blackhole blackhole) {
+        for (int i = 0; i < incidents && !freeList.isEmpty(); i++) {
+            EmergencyUnit nearest = null;
+            double minDistance = Double.MAX_VALUE;
+            for (double radius = 2.0; nearest == null && radius <= MAX_KM; radius *= 2.0) {
+                for (EmergencyUnit unit : freeList) {
+                    double dist = GeoMath.haversineKm(incidentLat[i], incidentLon[i], unit.getLatitude(), unit.getLongtitude());
+                    if (dist <= radius && dist < minDistance) {
+                        minDistance = dist;
+                        nearest = unit;
+                    }
+                }
+            }
+            if (nearest != null) {
+                freeList.remove(nearest);
+            }
+            blackhole.consume(nearest);
+        }
+    }
+
+    @Benchmark
+    public void indexTick(Blackhole blackhole) {
+        for (int i = 0; i < incidents; i++) {
+            EmergencyUnit nearest = index.nearest(EmergencyUnitType.AMBULANCE, incidentLat[i], incidentLon[i], MAX_KM);
+            if (nearest != null) {
+                index.remove(nearest.getUnitID());
+            }
+            blackhole.consume(nearest);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(FreeUnitIndexBenchmark.class.getSimpleName()).build()).run();
+    }
+}
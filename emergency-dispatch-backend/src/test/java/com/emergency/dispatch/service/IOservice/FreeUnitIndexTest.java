@@ -0,0 +1,137 @@
+package com.emergency.dispatch.service.IOservice;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.emergency.dispatch.enums.EmergencyUnitType;
+import com.emergency.dispatch.model.EmergencyUnit;
+
+/**
+ * FreeUnitIndex answers must match a brute-force scan over the same units.
+ */
+public class FreeUnitIndexTest {
+
+    private static EmergencyUnit unit(long id, EmergencyUnitType type, double lat, double lon) {
+        EmergencyUnit unit = new EmergencyUnit();
+        unit.setUnitID(id);
+        unit.setType(type);
+        unit.setLatitude(lat);
+        unit.setLongtitude(lon);
+        unit.setStatus(true);
+        unit.setCapacity(1);
+        return unit;
+    }
+
+    private static List<EmergencyUnit> bruteForce(List<EmergencyUnit> units, double lat, double lon, double maxKm, int k) {
+        List<EmergencyUnit> inRange = new ArrayList<>();
+        for (EmergencyUnit unit : units) {
+            if (GeoMath.haversineKm(lat, lon, unit.getLatitude(), unit.getLongtitude()) <= maxKm) {
+                inRange.add(unit);
+            }
+        }
+        inRange.sort(Comparator.comparingDouble(unit -> GeoMath.haversineKm(lat, lon, unit.getLatitude(), unit.getLongtitude())));
+        return inRange.subList(0, Math.min(k, inRange.size()));
+    }
+
+    private static List<EmergencyUnit> randomFleet(FreeUnitIndex index, Random random, int count,
+                                                   double lat0, double lon0, double spreadDeg) {
+        List<EmergencyUnit> units = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            EmergencyUnit unit = unit(i + 1, EmergencyUnitType.AMBULANCE,
+                lat0 + (random.nextDouble() - 0.5) * spreadDeg, lon0 + (random.nextDouble() - 0.5) * spreadDeg);
+            units.add(unit);
+            index.update(unit);
+        }
+        return units;
+    }
+
+    @Test
+    public void nearestMatchesBruteForceOnDenseFleet() {
+        FreeUnitIndex index = new FreeUnitIndex();
+        Random random = new Random(1);
+        List<EmergencyUnit> units = randomFleet(index, random, 2000, 31.2, 29.9, 0.5);
+        for (int i = 0; i < 500; i++) {
+            double lat = 31.2 + (random.nextDouble() - 0.5) * 0.6;
+            double lon = 29.9 + (random.nextDouble() - 0.5) * 0.6;
+            double maxKm = 0.5 + random.nextDouble() * 50;
+            List<EmergencyUnit> expected = bruteForce(units, lat, lon, maxKm, 1);
+            EmergencyUnit actual = index.nearest(EmergencyUnitType.AMBULANCE, lat, lon, maxKm);
+            assertEquals(expected.isEmpty() ? null : expected.get(0), actual, "query " + i);
+        }
+    }
+
+    @Test
+    public void kNearestMatchesBruteForceInDistanceOrder() {
+        FreeUnitIndex index = new FreeUnitIndex();
+        Random random = new Random(2);
+        List<EmergencyUnit> units = randomFleet(index, random, 2000, 31.2, 29.9, 0.5);
+        for (int i = 0; i < 300; i++) {
+            double lat = 31.2 + (random.nextDouble() - 0.5) * 0.6;
+            double lon = 29.9 + (random.nextDouble() - 0.5) * 0.6;
+            double maxKm = 0.5 + random.nextDouble() * 50;
+            int k = 1 + random.nextInt(10);
+            assertEquals(bruteForce(units, lat, lon, maxKm, k),
+                index.kNearest(EmergencyUnitType.AMBULANCE, lat, lon, maxKm, k), "query " + i);
+        }
+    }
+
+    @Test
+    public void sparseFleetFallsBackToFullScan() {
+        // A few units tens of km apart: the rings soon cover more cells than are occupied, so the
+        // index switches to scanning every unit, which must give the same answers
+        FreeUnitIndex index = new FreeUnitIndex();
+        List<EmergencyUnit> units = List.of(
+            unit(1, EmergencyUnitType.FIRE, 31.0, 29.6),
+            unit(2, EmergencyUnitType.FIRE, 31.4, 30.1),
+            unit(3, EmergencyUnitType.FIRE, 30.7, 30.3));
+        units.forEach(index::update);
+
+        double lat = 31.15;
+        double lon = 29.95;
+        assertEquals(bruteForce(units, lat, lon, 200, 1).get(0), index.nearest(EmergencyUnitType.FIRE, lat, lon, 200));
+        assertEquals(bruteForce(units, lat, lon, 200, 3), index.kNearest(EmergencyUnitType.FIRE, lat, lon, 200, 3));
+    }
+
+    @Test
+    public void unitsBeyondMaxKmAreNotReturned() {
+        FreeUnitIndex index = new FreeUnitIndex();
+        // About 5.6 km north of the query point
+        EmergencyUnit far = unit(1, EmergencyUnitType.POLICE, 31.05, 29.9);
+        index.update(far);
+        double distance = GeoMath.haversineKm(31.0, 29.9, 31.05, 29.9);
+
+        assertNull(index.nearest(EmergencyUnitType.POLICE, 31.0, 29.9, distance - 0.01));
+        assertTrue(index.kNearest(EmergencyUnitType.POLICE, 31.0, 29.9, distance - 0.01, 3).isEmpty());
+        assertEquals(far, index.nearest(EmergencyUnitType.POLICE, 31.0, 29.9, distance + 0.01));
+        assertEquals(List.of(far), index.kNearest(EmergencyUnitType.POLICE, 31.0, 29.9, distance + 0.01, 3));
+    }
+
+    @Test
+    public void busyMovedAndRetypedUnitsAreTracked() {
+        FreeUnitIndex index = new FreeUnitIndex();
+        EmergencyUnit unit = unit(7, EmergencyUnitType.AMBULANCE, 31.0, 29.9);
+        index.update(unit);
+        assertEquals(1, index.size(EmergencyUnitType.AMBULANCE));
+
+        unit.setStatus(false);
+        index.update(unit);
+        assertNull(index.nearest(EmergencyUnitType.AMBULANCE, 31.0, 29.9, 10));
+
+        unit.setStatus(true);
+        unit.setLatitude(31.3);
+        index.update(unit);
+        assertNull(index.nearest(EmergencyUnitType.AMBULANCE, 31.0, 29.9, 10));
+        assertEquals(unit, index.nearest(EmergencyUnitType.AMBULANCE, 31.3, 29.9, 10));
+
+        unit.setType(EmergencyUnitType.FIRE);
+        index.update(unit);
+        assertEquals(0, index.size(EmergencyUnitType.AMBULANCE));
+        assertEquals(unit, index.nearest(EmergencyUnitType.FIRE, 31.3, 29.9, 10));
+    }
+}
@@ -0,0 +1,73 @@
+package com.emergency.dispatch.service.IOservice;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.emergency.dispatch.model.Incident;
+import com.emergency.dispatch.service.BroadcastCoalescer;
+
+public class IncidentGeneratorServiceTest {
+
+    private IncidentGeneratorService service;
+    private IncidentBatchWriter incidentBatchWriter;
+
+    @BeforeEach
+    public void createService() {
+        incidentBatchWriter = mock(IncidentBatchWriter.class);
+        service = new IncidentGeneratorService();
+        ReflectionTestUtils.setField(service, "incidentBatchWriter", incidentBatchWriter);
+        ReflectionTestUtils.setField(service, "eventPublisher", mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(service, "broadcastCoalescer", mock(BroadcastCoalescer.class));
+        ReflectionTestUtils.setField(service, "loadBatchMs", 10L);
+        ReflectionTestUtils.setField(service, "dispatchTimeoutMs", 600_000L);
+    }
+
+    @AfterEach
+    public void stopLoad() {
+        service.stopLoad();
+    }
+
+    @Test
+    public void restartAfterStopIsNotEndedByTheOldRun() throws Exception {
+        AtomicLong ids = new AtomicLong();
+        CountDownLatch inserting = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            inserting.countDown();
+            List<Incident> batch = invocation.getArgument(0);
+            batch.forEach(incident -> incident.setIncidentId(ids.incrementAndGet()));
+            // Like a JDBC batch, the insert ignores the interrupt and finishes first
+            long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+            while (System.nanoTime() < until) {
+                Thread.onSpinWait();
+            }
+            return null;
+        }).when(incidentBatchWriter).insert(any());
+
+        assertTrue(service.startLoad(10_000, 0, "poisson", 0, 1L));
+        assertTrue(inserting.await(5, TimeUnit.SECONDS));
+        Thread oldRun = (Thread) ReflectionTestUtils.getField(service, "loadThread");
+        service.stopLoad();
+        assertFalse(oldRun.isAlive());
+
+        // Slow enough that the new run has nothing to insert yet
+        assertTrue(service.startLoad(0.001, 0, "poisson", 0, 2L));
+        Thread.sleep(100);
+
+        Map<String, Object> metrics = service.loadMetrics();
+        assertEquals(true, metrics.get("running"));
+        assertEquals(0L, metrics.get("generated"));
+    }
+}
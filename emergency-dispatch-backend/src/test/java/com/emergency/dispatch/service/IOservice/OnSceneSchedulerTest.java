@@ -0,0 +1,68 @@
+package com.emergency.dispatch.service.IOservice;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+import java.util.Map;
+import java.util.Queue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.emergency.dispatch.service.BroadcastCoalescer;
+
+public class OnSceneSchedulerTest {
+
+    private DoneAssignmentService doneAssignmentService;
+    private OnSceneScheduler scheduler;
+
+    @BeforeEach
+    public void createScheduler() {
+        doneAssignmentService = mock(DoneAssignmentService.class);
+        // Batches and retries are driven by hand, so the timer intervals are far beyond the test
+        scheduler = new OnSceneScheduler(3_600_000, 3_600_000);
+        ReflectionTestUtils.setField(scheduler, "doneAssignmentService", doneAssignmentService);
+        ReflectionTestUtils.setField(scheduler, "fleetStateStore", mock(FleetStateStore.class));
+        ReflectionTestUtils.setField(scheduler, "broadcastCoalescer", mock(BroadcastCoalescer.class));
+    }
+
+    private void arriveAndComplete(long... unitIds) throws InterruptedException {
+        for (long unitId : unitIds) {
+            scheduler.schedule(unitId, unitId * 10, 0);
+        }
+        Queue<?> due = (Queue<?>) ReflectionTestUtils.getField(scheduler, "due");
+        while (due.size() < unitIds.length) {
+            Thread.sleep(5);
+        }
+        ReflectionTestUtils.invokeMethod(scheduler, "completeDueJobs");
+    }
+
+    @Test
+    public void failedBatchFallsBackToSingleCompletions() throws InterruptedException {
+        doThrow(new IllegalStateException("deadlock")).when(doneAssignmentService).completeAssignmentsForUnits(anyMap());
+        doThrow(new IllegalStateException("bad row")).when(doneAssignmentService).completeAssignmentForUnit(20L, 2L);
+
+        arriveAndComplete(1, 2, 3);
+
+        verify(doneAssignmentService).completeAssignmentForUnit(10L, 1L);
+        verify(doneAssignmentService).completeAssignmentForUnit(30L, 3L);
+        Map<String, Object> metrics = scheduler.metrics();
+        assertEquals(2L, (long) metrics.get("completed"));
+        // Unit 2 is still on scene, waiting for its retry
+        assertEquals(1, (int) metrics.get("unitsOnScene"));
+        assertEquals(0L, (long) metrics.get("failed"));
+        assertEquals(2, (int) metrics.get("scheduledTasks"));
+    }
+
+    @Test
+    public void successfulBatchCompletesEveryUnit() throws InterruptedException {
+        arriveAndComplete(1, 2);
+
+        verify(doneAssignmentService).completeAssignmentsForUnits(Map.of(1L, 10L, 2L, 20L));
+        verify(doneAssignmentService, never()).completeAssignmentForUnit(anyLong(), anyLong());
+        assertEquals(2L, (long) scheduler.metrics().get("completed"));
+        assertEquals(0, (int) scheduler.metrics().get("unitsOnScene"));
+    }
+}
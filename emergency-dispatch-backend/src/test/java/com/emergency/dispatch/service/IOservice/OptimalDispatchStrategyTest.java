@@ -0,0 +1,117 @@
+package com.emergency.dispatch.service.IOservice;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.emergency.dispatch.enums.EmergencyUnitType;
+import com.emergency.dispatch.enums.SeverityLevel;
+import com.emergency.dispatch.model.EmergencyUnit;
+import com.emergency.dispatch.model.Incident;
+
+public class OptimalDispatchStrategyTest {
+
+    private static final EmergencyUnitType TYPE = EmergencyUnitType.AMBULANCE;
+
+    static OptimalDispatchStrategy strategy(long maxCells) {
+        OptimalDispatchStrategy strategy = new OptimalDispatchStrategy();
+        ReflectionTestUtils.setField(strategy, "maxBatch", 1000);
+        ReflectionTestUtils.setField(strategy, "candidatesPerIncident", 8);
+        ReflectionTestUtils.setField(strategy, "maxCells", maxCells);
+        ReflectionTestUtils.setField(strategy, "unitSpeedProfile", new UnitSpeedProfile(50, 60, 70));
+        return strategy;
+    }
+
+    static EmergencyUnit unit(long id, double lat, double lon) {
+        EmergencyUnit unit = new EmergencyUnit();
+        unit.setUnitID(id);
+        unit.setType(TYPE);
+        unit.setStatus(true);
+        unit.setLatitude(lat);
+        unit.setLongtitude(lon);
+        return unit;
+    }
+
+    static Incident incident(long id, SeverityLevel severity, double lat, double lon) {
+        Incident incident = new Incident();
+        incident.setIncidentId(id);
+        incident.setSeverityLevel(severity);
+        incident.setReportedTime(id);
+        incident.setNeeds(1);
+        incident.setLatitude(lat);
+        incident.setLongtitude(lon);
+        return incident;
+    }
+
+    private static Map<Long, Long> unitByIncident(List<DispatchDecision> decisions) {
+        Map<Long, Long> result = new HashMap<>();
+        for (DispatchDecision decision : decisions) {
+            result.put(decision.incident().getIncidentId(), decision.unit().getUnitID());
+        }
+        return result;
+    }
+
+    @Test
+    public void criticalIncidentKeepsItsOnlyUnitOverTwoLowMatches() {
+        FreeUnitIndex index = new FreeUnitIndex();
+        index.update(unit(1, 31.0, 29.9));
+        index.update(unit(2, 31.0, 29.97));
+        // The critical incident can only reach unit 1; two low incidents could otherwise use both units
+        List<Incident> incidents = List.of(
+            incident(10, SeverityLevel.CRITICAL, 31.027, 29.9),
+            incident(20, SeverityLevel.LOW, 31.0, 29.935),
+            incident(21, SeverityLevel.LOW, 31.0, 29.975));
+
+        Map<Long, Long> assigned = unitByIncident(strategy(1_000_000).assign(TYPE, incidents, incident -> 1, index, 4.0, 0L));
+
+        assertEquals(1L, (long) assigned.get(10L));
+        assertEquals(2L, (long) assigned.get(21L));
+        assertFalse(assigned.containsKey(20L));
+    }
+
+    @Test
+    public void matchingAvoidsTheGreedyLongTrip() {
+        // Greedy gives incident 10 its nearest unit 1 and leaves incident 11, which only reaches unit 1, empty
+        List<Incident> incidents = List.of(
+            incident(10, SeverityLevel.MEDIUM, 31.0, 29.905),
+            incident(11, SeverityLevel.MEDIUM, 31.0, 29.895));
+        FreeUnitIndex index = new FreeUnitIndex();
+        index.update(unit(1, 31.0, 29.9));
+        index.update(unit(2, 31.0, 29.935));
+
+        Map<Long, Long> assigned = unitByIncident(strategy(1_000_000).assign(TYPE, incidents, incident -> 1, index, 3.5, 0L));
+
+        assertEquals(2L, (long) assigned.get(10L));
+        assertEquals(1L, (long) assigned.get(11L));
+        assertEquals(0, index.size(TYPE));
+    }
+
+    @Test
+    public void separateClustersAndOversizedComponentsAreStillFullyDispatched() {
+        List<Incident> incidents = new ArrayList<>();
+        FreeUnitIndex index = new FreeUnitIndex();
+        long id = 1;
+        // Two clusters 50 km apart never share a candidate, so they are solved as separate components
+        for (double lat : new double[] {31.0, 31.45}) {
+            for (int i = 0; i < 5; i++) {
+                index.update(unit(id, lat + i * 0.001, 29.9));
+                incidents.add(incident(100 + id, SeverityLevel.MEDIUM, lat + i * 0.001, 29.901));
+                id++;
+            }
+        }
+        assertEquals(10, unitByIncident(strategy(1_000_000).assign(TYPE, incidents, incident -> 1, index, 5.0, 0L)).size());
+
+        // With a one-cell limit every component falls back to nearest-first, which still staffs everything here
+        FreeUnitIndex fallbackIndex = new FreeUnitIndex();
+        for (long unitId = 1; unitId <= 10; unitId++) {
+            fallbackIndex.update(unit(unitId, (unitId <= 5 ? 31.0 : 31.45) + ((unitId - 1) % 5) * 0.001, 29.9));
+        }
+        assertEquals(10, unitByIncident(strategy(1).assign(TYPE, incidents, incident -> 1, fallbackIndex, 5.0, 0L)).size());
+    }
+}
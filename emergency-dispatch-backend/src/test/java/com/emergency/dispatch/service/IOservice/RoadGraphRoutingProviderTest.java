@@ -0,0 +1,43 @@
+package com.emergency.dispatch.service.IOservice;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+public class RoadGraphRoutingProviderTest {
+
+    private static String graphFile(String content) throws IOException {
+        Path file = Files.createTempFile("road-graph", ".txt");
+        file.toFile().deleteOnExit();
+        Files.writeString(file, content);
+        return file.toString();
+    }
+
+    @Test
+    public void routesAlongTheGraph() throws IOException {
+        // Three nodes in a line, the middle one 1.1 km north of the first
+        String file = graphFile("3 2\n31.00 29.90\n31.01 29.90\n31.02 29.90\n0 1 0\n1 2 0\n");
+        RoutePath path = new RoadGraphRoutingProvider(file).route(31.0, 29.9, 31.02, 29.9);
+
+        assertEquals(GeoMath.haversineKm(31.0, 29.9, 31.02, 29.9), path.totalKm(), 1e-6);
+    }
+
+    @Test
+    public void edgeToMissingNodeIsRejectedAtLoad() throws IOException {
+        String file = graphFile("2 1\n31.00 29.90\n31.01 29.90\n0 2 0\n");
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> new RoadGraphRoutingProvider(file));
+        assertTrue(error.getMessage().contains("outside 0..1"), error.getMessage());
+    }
+
+    @Test
+    public void negativeNodeIndexIsRejectedAtLoad() throws IOException {
+        String file = graphFile("2 1\n31.00 29.90\n31.01 29.90\n-1 1 1\n");
+
+        assertThrows(IllegalStateException.class, () -> new RoadGraphRoutingProvider(file));
+    }
+}
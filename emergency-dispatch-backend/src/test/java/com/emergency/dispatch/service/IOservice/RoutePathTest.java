@@ -0,0 +1,68 @@
+package com.emergency.dispatch.service.IOservice;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class RoutePathTest {
+
+    // Along the equator, so km are linear in longitude; the second segment is twice the first
+    private static final RoutePath PATH = RoutePath.wrap(new double[] {0.0, 0.0, 0.0, 0.01, 0.0, 0.03});
+    private static final double FIRST_KM = GeoMath.haversineKm(0.0, 0.0, 0.0, 0.01);
+    private static final double SECOND_KM = GeoMath.haversineKm(0.0, 0.01, 0.0, 0.03);
+
+    @Test
+    public void totalIsTheSumOfTheSegments() {
+        assertEquals(3, PATH.pointCount());
+        assertEquals(FIRST_KM + SECOND_KM, PATH.totalKm(), 1e-9);
+        assertEquals(2 * FIRST_KM, SECOND_KM, 1e-6);
+    }
+
+    @Test
+    public void segmentLookupAtBoundaries() {
+        assertEquals(0, PATH.segmentAt(-1.0));
+        assertEquals(0, PATH.segmentAt(0.0));
+        assertEquals(0, PATH.segmentAt(FIRST_KM / 2));
+        // Exactly on the middle point: the second segment starts there
+        assertEquals(1, PATH.segmentAt(FIRST_KM));
+        assertEquals(1, PATH.segmentAt(FIRST_KM + SECOND_KM / 2));
+        assertEquals(1, PATH.segmentAt(PATH.totalKm()));
+        assertEquals(1, PATH.segmentAt(PATH.totalKm() + 5));
+    }
+
+    @Test
+    public void positionIsInterpolatedByCumulativeDistance() {
+        double km = FIRST_KM + SECOND_KM / 2;
+        int segment = PATH.segmentAt(km);
+        assertEquals(0.02, PATH.lonAt(km, segment), 1e-9);
+        assertEquals(0.0, PATH.latAt(km, segment), 1e-9);
+
+        // A third of the way is the end of the first (shorter) segment, not a third of the points
+        km = PATH.totalKm() / 3;
+        assertEquals(0.01, PATH.lonAt(km, PATH.segmentAt(km)), 1e-6);
+
+        // Clamped to the route ends
+        assertEquals(0.0, PATH.lonAt(-1.0, 0), 1e-9);
+        assertEquals(0.03, PATH.lonAt(PATH.totalKm() + 1, 1), 1e-9);
+    }
+
+    @Test
+    public void degenerateRoutes() {
+        RoutePath single = RoutePath.wrap(new double[] {31.2, 29.9});
+        assertEquals(0.0, single.totalKm(), 0.0);
+        assertEquals(31.2, single.latAt(0.0, single.segmentAt(0.0)), 0.0);
+        assertEquals(29.9, single.lonAt(0.0, single.segmentAt(0.0)), 0.0);
+
+        assertThrows(IllegalArgumentException.class, () -> RoutePath.wrap(new double[] {31.2, 29.9, 31.3}));
+    }
+
+    @Test
+    public void pairsRoundTrip() {
+        double[][] pairs = PATH.toPairs();
+        assertEquals(3, pairs.length);
+        assertEquals(0.03, pairs[2][1], 0.0);
+        assertEquals(PATH.totalKm(), RoutePath.of(List.of(pairs)).totalKm(), 0.0);
+    }
+}
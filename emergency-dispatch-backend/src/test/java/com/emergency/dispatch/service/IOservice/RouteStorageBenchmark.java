@@ -0,0 +1,163 @@
+package com.emergency.dispatch.service.IOservice;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.emergency.dispatch.enums.EmergencyUnitType;
+
+/**
+ * Memory and GC cost of 5k concurrent routes: the old queue of double[2] points per unit (plus the
+ * list copy kept for the broadcast) against the packed RoutePath/ActiveRoute.
+ * Each op is one movement tick over every route; a finished route is replaced by a fresh one, so
+ * the allocation rate per op (gc.alloc.rate.norm from the GC profiler) covers route churn as well.
+ * The retained heap of each fleet of routes is printed once per trial.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.emergency.dispatch.service.IOservice.RouteStorageBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class RouteStorageBenchmark {
+
+    // The old movement loop consumed this many points per tick
+    private static final int POINTS_PER_TICK = 5;
+    private static final long TICK_MS = 1000;
+    private static final int DISTINCT_POLYLINES = 16;
+
+    @Param({"5000"})
+    public int routes;
+
+    @Param({"1000", "3000"})
+    public int pointsPerRoute;
+
+    private double[][] polylines;
+    private long ticksPerRoute;
+
+    private Queue<double[]>[] legacyRoutes;
+    private List<double[]>[] legacyBroadcastCopies;
+    private ActiveRoute[] packedRoutes;
+    private long now;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void createRoutes() {
+        polylines = new double[DISTINCT_POLYLINES][];
+        for (int p = 0; p < DISTINCT_POLYLINES; p++) {
+            double[] coords = new double[pointsPerRoute * 2];
+            for (int i = 0; i < pointsPerRoute; i++) {
+                coords[2 * i] = 31.2 + p * 0.001 + i * 0.00005;
+                coords[2 * i + 1] = 29.9 + Math.sin(i * 0.01) * 0.001;
+            }
+            polylines[p] = coords;
+        }
+        ticksPerRoute = pointsPerRoute / POINTS_PER_TICK;
+
+        long before = usedHeap();
+        legacyRoutes = new Queue[routes];
+        legacyBroadcastCopies = new List[routes];
+        for (int r = 0; r < routes; r++) {
+            startLegacyRoute(r);
+            // Stagger progress so routes finish on different ticks
+            for (long skip = (r % ticksPerRoute) * POINTS_PER_TICK; skip > 0; skip--) {
+                legacyRoutes[r].poll();
+            }
+        }
+        long legacy = usedHeap() - before;
+
+        before = usedHeap();
+        packedRoutes = new ActiveRoute[routes];
+        for (int r = 0; r < routes; r++) {
+            packedRoutes[r] = startPackedRoute(r, -(r % ticksPerRoute) * TICK_MS);
+        }
+        long packed = usedHeap() - before;
+        System.out.printf("%n[RouteStorageBenchmark] %d routes x %d points retained: queues %.1f MB, packed %.1f MB%n",
+            routes, pointsPerRoute, legacy / 1048576.0, packed / 1048576.0);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private void startLegacyRoute(int r) {
+        double[] coords = polylines[r % DISTINCT_POLYLINES];
+        Queue<double[]> queue = new ConcurrentLinkedQueue<>();
+        List<double[]> copy = new ArrayList<>(pointsPerRoute);
+        for (int i = 0; i < pointsPerRoute; i++) {
+            double[] point = {coords[2 * i], coords[2 * i + 1]};
+            queue.add(point);
+            copy.add(point);
+        }
+        legacyRoutes[r] = queue;
+        legacyBroadcastCopies[r] = copy;
+    }
+
+    private ActiveRoute startPackedRoute(int r, long startedAt) {
+        // Each route fetch returns its own array, as a routing response would
+        RoutePath path = RoutePath.wrap(polylines[r % DISTINCT_POLYLINES].clone());
+        return new ActiveRoute(path, (long) r, EmergencyUnitType.AMBULANCE, startedAt, ticksPerRoute * TICK_MS);
+    }
+
+    @Benchmark
+    public void queueTick(Blackhole blackhole) {
+        for (int r = 0; r < routes; r++) {
+            Queue<double[]> queue = legacyRoutes[r];
+            double[] point = null;
+            for (int i = 0; i < POINTS_PER_TICK && !queue.isEmpty(); i++) {
+                point = queue.poll();
+            }
+            if (queue.isEmpty()) {
+                startLegacyRoute(r);
+            }
+            blackhole.consume(point);
+        }
+    }
+
+    @Benchmark
+    public void packedTick(Blackhole blackhole) {
+        now += TICK_MS;
+        for (int r = 0; r < routes; r++) {
+            ActiveRoute route = packedRoutes[r];
+            route.moveTo(now);
+            if (route.finished()) {
+                packedRoutes[r] = startPackedRoute(r, now);
+            }
+            blackhole.consume(route.currentLat());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(RouteStorageBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
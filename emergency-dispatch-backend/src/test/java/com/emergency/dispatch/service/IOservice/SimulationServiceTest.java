@@ -0,0 +1,67 @@
+package com.emergency.dispatch.service.IOservice;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.emergency.dispatch.enums.IncidentStatus;
+import com.emergency.dispatch.enums.IncidentType;
+import com.emergency.dispatch.event.IncidentChangedEvent;
+import com.emergency.dispatch.model.Incident;
+import com.emergency.dispatch.repository.AssignmentRepository;
+
+public class SimulationServiceTest {
+
+    private SimulationService service;
+    private AssignmentRepository assignmentRepository;
+
+    @BeforeEach
+    public void createService() {
+        assignmentRepository = mock(AssignmentRepository.class);
+        service = new SimulationService(1L);
+        ReflectionTestUtils.setField(service, "assignmentRepository", assignmentRepository);
+    }
+
+    private void apply(Incident incident) {
+        ReflectionTestUtils.invokeMethod(service, "applyEvent", new IncidentChangedEvent(incident));
+    }
+
+    private int pending() {
+        return (int) ReflectionTestUtils.invokeMethod(service, "countPending");
+    }
+
+    @Test
+    public void incidentBackToPendingAfterItsUnitIsDeletedIsDispatchedAgain() {
+        Incident incident = new Incident();
+        incident.setIncidentId(7L);
+        incident.setType(IncidentType.FIRE);
+        incident.setNeeds(1);
+        incident.setStatus(IncidentStatus.DISPATCH);
+        when(assignmentRepository.countByIncident_IncidentId(7L)).thenReturn(1L);
+        apply(incident);
+        assertEquals(0, pending());
+
+        // EmergencyUnitService.deleteEmergencyUnit deletes the incident's assignments and sets it PENDING
+        when(assignmentRepository.countByIncident_IncidentId(7L)).thenReturn(0L);
+        incident.setStatus(IncidentStatus.PENDING);
+        apply(incident);
+
+        assertEquals(1, pending());
+    }
+
+    @Test
+    public void newPendingIncidentIsQueuedWithoutCountingAssignments() {
+        Incident incident = new Incident();
+        incident.setIncidentId(8L);
+        incident.setType(IncidentType.POLICE);
+        incident.setStatus(IncidentStatus.PENDING);
+
+        apply(incident);
+
+        assertEquals(1, pending());
+        verifyNoInteractions(assignmentRepository);
+    }
+}
@@ -0,0 +1,38 @@
+package com.emergency.dispatch.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+
+public class MonitorBoundsTest {
+
+    @Test
+    public void inListsAreBoundInChunks() {
+        // More IDs than MySQL accepts placeholders in one statement
+        List<Long> ids = LongStream.rangeClosed(1, 70_000).boxed().toList();
+        List<Integer> chunkSizes = new ArrayList<>();
+
+        List<Long> results = MonitorBounds.inChunks(ids, chunk -> {
+            chunkSizes.add(chunk.size());
+            return chunk;
+        });
+
+        assertEquals(ids, results);
+        assertEquals(70, chunkSizes.size());
+        assertTrue(chunkSizes.stream().allMatch(size -> size == MonitorBounds.IN_CHUNK));
+    }
+
+    @Test
+    public void smallPagesAreOneQuery() {
+        List<List<Long>> calls = new ArrayList<>();
+        MonitorBounds.inChunks(List.of(1L, 2L, 3L), chunk -> {
+            calls.add(chunk);
+            return List.of();
+        });
+        assertEquals(List.of(List.of(1L, 2L, 3L)), calls);
+    }
+}
@@ -0,0 +1,137 @@
+package com.emergency.dispatch.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * The report job pool with a stubbed renderer: queue order, reuse of identical requests,
+ * and eviction of the oldest PDFs past the disk limit.
+ */
+public class ReportJobServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final LocalDateTime TO = FROM.plusDays(1);
+
+    @TempDir
+    Path jobsDir;
+
+    private ReportJobService service;
+    private ReportService reportService;
+
+    @BeforeEach
+    public void createService() throws Exception {
+        reportService = mock(ReportService.class);
+        service = new ReportJobService();
+        ReflectionTestUtils.setField(service, "reportService", reportService);
+        ReflectionTestUtils.setField(service, "messagingTemplate", mock(SimpMessagingTemplate.class));
+        ReflectionTestUtils.setField(service, "workerThreads", 1);
+        ReflectionTestUtils.setField(service, "maxQueued", 10);
+        ReflectionTestUtils.setField(service, "jobsDir", jobsDir.toString());
+        ReflectionTestUtils.setField(service, "maxDiskMb", 1L);
+        ReflectionTestUtils.setField(service, "reuseMs", 60_000L);
+        service.start();
+    }
+
+    @AfterEach
+    public void stopService() {
+        service.stop();
+    }
+
+    private static ReportService.ReportPdf pdf(int sizeBytes, boolean partial) {
+        return new ReportService.ReportPdf(new byte[sizeBytes], partial);
+    }
+
+    @Test
+    public void queuedJobsRunByPriorityThenBySubmission() throws Exception {
+        CountDownLatch firstRunning = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch allRendered = new CountDownLatch(5);
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        when(reportService.generateDispatchReportPdf(any(), any(), any(), any())).thenAnswer(invocation -> {
+            int topN = invocation.getArgument(2);
+            order.add(topN);
+            if (topN == 1) {
+                firstRunning.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            allRendered.countDown();
+            return pdf(10, false);
+        });
+
+        // The first job occupies the only worker while the rest queue up
+        service.submit(FROM, TO, 1, 10, "low");
+        assertTrue(firstRunning.await(5, TimeUnit.SECONDS));
+        service.submit(FROM, TO, 2, 10, "low");
+        service.submit(FROM, TO, 3, 10, "normal");
+        service.submit(FROM, TO, 4, 10, "low");
+        service.submit(FROM, TO, 5, 10, "high");
+        release.countDown();
+
+        assertTrue(allRendered.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(1, 5, 3, 2, 4), order);
+    }
+
+    @Test
+    public void identicalRequestsShareOneRender() throws Exception {
+        when(reportService.generateDispatchReportPdf(any(), any(), any(), any())).thenReturn(pdf(10, false));
+
+        Path first = service.submitForDownload(FROM, TO, 5, 10).get(5, TimeUnit.SECONDS);
+        Map<String, Object> again = service.submit(FROM, TO, 5, 10, null);
+        Path second = service.submitForDownload(FROM, TO, 5, 10).get(5, TimeUnit.SECONDS);
+
+        assertEquals(first, second);
+        assertEquals(first, service.getArtifact((String) again.get("jobId")));
+        verify(reportService, times(1)).generateDispatchReportPdf(FROM, TO, 5, 10);
+    }
+
+    @Test
+    public void partialReportIsRenderedAgain() throws Exception {
+        when(reportService.generateDispatchReportPdf(any(), any(), any(), any()))
+            .thenReturn(pdf(10, true), pdf(10, false));
+
+        Path first = service.submitForDownload(FROM, TO, 5, 10).get(5, TimeUnit.SECONDS);
+        Path second = service.submitForDownload(FROM, TO, 5, 10).get(5, TimeUnit.SECONDS);
+
+        assertNotEquals(first, second);
+        verify(reportService, times(2)).generateDispatchReportPdf(FROM, TO, 5, 10);
+    }
+
+    @Test
+    public void oldestReportsAreEvictedPastTheDiskLimit() throws Exception {
+        // Three of these exceed the 1 MB limit, two fit
+        when(reportService.generateDispatchReportPdf(any(), any(), any(), any())).thenReturn(pdf(400 * 1024, false));
+
+        Path oldest = service.submitForDownload(FROM, TO, 1, 10).get(5, TimeUnit.SECONDS);
+        Thread.sleep(5);
+        Path middle = service.submitForDownload(FROM, TO, 2, 10).get(5, TimeUnit.SECONDS);
+        Thread.sleep(5);
+        Path newest = service.submitForDownload(FROM, TO, 3, 10).get(5, TimeUnit.SECONDS);
+
+        assertFalse(Files.exists(oldest));
+        assertTrue(Files.exists(middle));
+        assertTrue(Files.exists(newest));
+        assertNull(service.getJob(oldest.getFileName().toString().replace(".pdf", "")));
+
+        // The evicted parameters are rendered again
+        service.submitForDownload(FROM, TO, 1, 10).get(5, TimeUnit.SECONDS);
+        verify(reportService, times(2)).generateDispatchReportPdf(FROM, TO, 1, 10);
+    }
+}
@@ -0,0 +1,89 @@
+package com.emergency.dispatch.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * The report's range queries over a 5M-row assignment table (and 1M incidents): each query over a day
+ * and over a month is timed as written, which the plan test pins to an index range scan, and with
+ * the indexes disabled (USE INDEX ()), which is what a non-sargable filter costs.
+ * Not picked up by a plain mvn test because of its name; seeding takes a few minutes.
+ *
+ * Run with: mvn test -Dtest=ReportRangeQueryBenchmark -DargLine=-Xmx6g
+ */
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:report-benchmark;MODE=MySQL;NON_KEYWORDS=USER",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.sql.init.mode=never",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ReportRangeQueryBenchmark {
+
+    private static final int ASSIGNMENTS = 5_000_000;
+    private static final int INCIDENTS = 1_000_000;
+    private static final long DAY_MS = 86_400_000L;
+    private static final int RUNS = 5;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void seedHistory() {
+        long start = System.currentTimeMillis();
+        ReportRangeQueryPlanTest.seed(jdbcTemplate, INCIDENTS, ASSIGNMENTS);
+        System.out.printf("[ReportRangeQueryBenchmark] Seeded in %d ms%n", System.currentTimeMillis() - start);
+    }
+
+    private double medianMs(String sql, long from, long to) {
+        for (int i = 0; i < RUNS; i++) {
+            jdbcTemplate.queryForList(sql, from, to);
+        }
+        double[] times = new double[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            jdbcTemplate.queryForList(sql, from, to);
+            times[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(times);
+        return times[RUNS / 2];
+    }
+
+    private void compare(String label, String sql, String table, long rangeMs) {
+        // A range in the middle of the assignment history, which the incidents also cover
+        long from = ReportRangeQueryPlanTest.FIRST_MS + INCIDENTS / 2 * 1000L;
+        String scanSql = sql.replace("FROM " + table + " ", "FROM " + table + " USE INDEX () ");
+        assertNotEquals(sql, scanSql);
+        // Groups may come back in a different order without the index
+        assertEquals(new HashSet<>(jdbcTemplate.queryForList(sql, from, from + rangeMs)),
+            new HashSet<>(jdbcTemplate.queryForList(scanSql, from, from + rangeMs)));
+
+        double indexed = medianMs(sql, from, from + rangeMs);
+        double scanned = medianMs(scanSql, from, from + rangeMs);
+        System.out.printf("[ReportRangeQueryBenchmark] %-34s %-5s range scan %9.2f ms, full scan %9.2f ms (%.0fx)%n",
+            label, rangeMs == DAY_MS ? "day" : "month", indexed, scanned, scanned / indexed);
+    }
+
+    @Test
+    public void rangeQueriesOverFiveMillionAssignments() {
+        for (long rangeMs : new long[] {DAY_MS, 30 * DAY_MS}) {
+            compare("active assignments", ReportService.ACTIVE_ASSIGNMENTS_IN_RANGE, "assignment", rangeMs);
+            compare("active assignments by unit", ReportService.ACTIVE_ASSIGNMENTS_BY_UNIT_IN_RANGE, "assignment", rangeMs);
+            compare("incidents by status", ReportService.INCIDENTS_BY_STATUS_IN_RANGE, "incident", rangeMs);
+            compare("incidents by severity", ReportService.INCIDENTS_BY_SEVERITY_IN_RANGE, "incident", rangeMs);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.emergency.dispatch.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * The report's time-range filters over the raw incident and assignment tables must be index range
+ * scans on the time-first indexes declared on the entities, not scans of the whole history.
+ * Runs on H2 in MySQL mode with the schema generated from the entities.
+ */
+@DataJpaTest(properties = {
+    // USER is a keyword in H2 and the user table is created with the rest of the schema
+    "spring.datasource.url=jdbc:h2:mem:report-plans;MODE=MySQL;NON_KEYWORDS=USER",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.sql.init.mode=never",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ReportRangeQueryPlanTest {
+
+    // One assignment and one incident per second from here on
+    static final long FIRST_MS = 1_700_000_000_000L;
+    private static final int ROWS = 20_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Seed one incident and one assignment per second, one active assignment per thousand, spread over 5000 units.
+     */
+    static void seed(JdbcTemplate jdbc, int incidents, int assignments) {
+        if (jdbc.queryForObject("SELECT COUNT(*) FROM assignment", Long.class) > 0) return;
+        jdbc.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        jdbc.update("INSERT INTO emergency_unit (latitude, longtitude, capacity, type, status)"
+            + " SELECT 36.1, -115.1, 1 + MOD(X, 5), CASE MOD(X, 3) WHEN 0 THEN 'FIRE' WHEN 1 THEN 'POLICE' ELSE 'AMBULANCE' END, TRUE"
+            + " FROM SYSTEM_RANGE(1, 5000)");
+        jdbc.update("INSERT INTO incident (latitude, longtitude, needs, type, reported_time, severity_level, status)"
+            + " SELECT 36.1, -115.1, 1, CASE MOD(X, 3) WHEN 0 THEN 'FIRE' WHEN 1 THEN 'POLICE' ELSE 'AMBULANCE' END,"
+            + " " + FIRST_MS + " + X * 1000, CASE MOD(X, 4) WHEN 0 THEN 'CRITICAL' WHEN 1 THEN 'MEDIUM' ELSE 'LOW' END,"
+            + " CASE MOD(X, 1000) WHEN 0 THEN 'PENDING' ELSE 'COMPLETED' END"
+            + " FROM SYSTEM_RANGE(1, " + incidents + ")");
+        jdbc.update("INSERT INTO assignment (assignment_time, resolution_time, incident_id, unit_id, is_active)"
+            + " SELECT " + FIRST_MS + " + X * 1000, 60000 + MOD(X, 3600000), 1 + MOD(X, " + incidents + "), 1 + MOD(X, 5000),"
+            + " MOD(X, 1000) = 0"
+            + " FROM SYSTEM_RANGE(1, " + assignments + ")");
+        jdbc.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        jdbc.execute("ANALYZE");
+    }
+
+    @BeforeEach
+    public void seedRows() {
+        seed(jdbcTemplate, ROWS, ROWS);
+    }
+
+    private String plan(String sql) {
+        // One hour in the middle of the seeded history
+        long from = FIRST_MS + ROWS / 2 * 1000L;
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, from, from + 3_600_000L).toUpperCase();
+    }
+
+    @Test
+    public void incidentRangeCountsUseTheReportedTimeIndex() {
+        for (String sql : new String[] {ReportService.INCIDENTS_BY_STATUS_IN_RANGE, ReportService.INCIDENTS_BY_SEVERITY_IN_RANGE}) {
+            String plan = plan(sql);
+            assertTrue(plan.contains("IDX_INCIDENT_TIME_TYPE_STATUS: REPORTED_TIME >= ?1"), plan);
+        }
+    }
+
+    @Test
+    public void assignmentRangeCountsUseTheAssignmentTimeIndex() {
+        for (String sql : new String[] {ReportService.ACTIVE_ASSIGNMENTS_IN_RANGE, ReportService.ACTIVE_ASSIGNMENTS_BY_UNIT_IN_RANGE}) {
+            String plan = plan(sql);
+            assertTrue(plan.contains("IDX_ASSIGNMENT_TIME_UNIT_RESOLUTION: ASSIGNMENT_TIME >= ?1"), plan);
+        }
+    }
+
+    @Test
+    public void rangeCountsMatchTheSeededRows() {
+        long from = FIRST_MS + 1000L;
+        // The first 2000 seconds hold two active assignments (ids 1000 and 2000)
+        Integer active = jdbcTemplate.queryForObject(ReportService.ACTIVE_ASSIGNMENTS_IN_RANGE, Integer.class, from, from + 2_000_000L);
+        assertEquals(2, (int) active);
+    }
+}
@@ -0,0 +1,144 @@
+package com.emergency.dispatch.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import com.emergency.dispatch.config.CacheConfig;
+import com.emergency.dispatch.enums.IncidentType;
+import com.emergency.dispatch.enums.SeverityLevel;
+import com.emergency.dispatch.model.Incident;
+import com.emergency.dispatch.repository.AssignmentRepository;
+import com.emergency.dispatch.repository.IncidentRepository;
+import com.emergency.dispatch.repository.NotificationRepository;
+import com.emergency.dispatch.repository.UserRepository;
+import com.emergency.dispatch.service.IOservice.IncidentMonService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The cached services through their Spring proxies, on the Caffeine fallback (no Redis in the context):
+ * reads are served from the cache, writes evict it, and the PDF report reuses the cached metrics.
+ */
+@SpringJUnitConfig({CacheConfig.class, IncidentService.class, ReportService.class, ServiceCachingTest.Beans.class})
+public class ServiceCachingTest {
+
+    @TestConfiguration
+    static class Beans {
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+
+        @Bean
+        JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+    }
+
+    @Autowired
+    private IncidentService incidentService;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockitoBean
+    private DataSource dataSource;
+
+    @MockitoBean
+    private IncidentRepository incidentRepository;
+
+    @MockitoBean
+    private IncidentMonService incidentMonService;
+
+    @MockitoBean
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private NotificationRepository notificationRepository;
+
+    @MockitoBean
+    private SimpMessagingTemplate messagingTemplate;
+
+    @MockitoBean
+    private AssignmentRepository assignmentRepository;
+
+    @MockitoBean
+    private AssignmentService assignmentService;
+
+    @MockitoBean
+    private AnalyticsRollupService analyticsRollupService;
+
+    @BeforeEach
+    public void clearCaches() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    public void cacheManagerFallsBackToCaffeineWithoutRedis() {
+        assertInstanceOf(CaffeineCache.class, cacheManager.getCache(CacheConfig.INCIDENTS));
+    }
+
+    @Test
+    public void creatingAnIncidentEvictsTheCachedLists() {
+        when(incidentRepository.findAll()).thenReturn(List.of());
+        when(incidentRepository.findBySeverityLevel(SeverityLevel.LOW)).thenReturn(List.of());
+        when(incidentRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        incidentService.getAllIncidents();
+        incidentService.getAllIncidents();
+        incidentService.getIncidentsBySeverity(SeverityLevel.LOW);
+        incidentService.getIncidentsBySeverity(SeverityLevel.LOW);
+        verify(incidentRepository, times(1)).findAll();
+        verify(incidentRepository, times(1)).findBySeverityLevel(SeverityLevel.LOW);
+        Cache incidents = cacheManager.getCache(CacheConfig.INCIDENTS);
+        assertNotNull(incidents.get("all"));
+        assertNotNull(incidents.get("severity:LOW"));
+
+        Incident incident = new Incident();
+        incident.setType(IncidentType.FIRE);
+        incidentService.createIncident(incident);
+
+        assertNull(incidents.get("all"));
+        assertNull(incidents.get("severity:LOW"));
+        incidentService.getIncidentsBySeverity(SeverityLevel.LOW);
+        verify(incidentRepository, times(2)).findBySeverityLevel(SeverityLevel.LOW);
+    }
+
+    @Test
+    public void pdfReportUsesTheCachedMetrics() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2026, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(1);
+        // What the dashboard's getDispatchMetrics call left in the cache for the same parameters
+        cacheManager.getCache(CacheConfig.DISPATCH_METRICS).put(new SimpleKey(from, to, 5, 10),
+            Map.of("incidentsByType", List.of(Map.of("type", "FIRE", "cnt", 3)), "partial", false));
+
+        byte[] pdf = reportService.generateDispatchReportPdf(from, to, 5, 10).bytes();
+
+        assertTrue(pdf.length > 0);
+        // Any section query would have asked the data source for a connection
+        verifyNoInteractions(dataSource);
+    }
+}
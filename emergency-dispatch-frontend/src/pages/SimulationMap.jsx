@@ -291,6 +291,24 @@ export default function SimulationMap() {
       }
     };
 
+    // Coalesced deltas: only the rows that changed since the previous version
+    const handleUnitsDelta = (delta) => {
+      bumpSimActivity();
+      (delta.upserts || []).forEach(addOrUpdateUnit);
+      (delta.removed || []).forEach(id => {
+        const marker = markersRef.current.units.get(id);
+        if (marker) {
+          try { if (marker._moveAnimation) { marker._moveAnimation.cancelled = true; marker._moveAnimation = null; } mapRef.current.removeLayer(marker); } catch (e) { /* ignore */ }
+          markersRef.current.units.delete(id);
+        }
+      });
+    };
+    const handleIncidentsDelta = (delta) => {
+      (delta.upserts || []).forEach(i => handleIncidentUpdate({ ...i, hasActiveAssignments: (i.status || '').toString().toUpperCase() === 'DISPATCH' }));
+      (delta.removed || []).forEach(id => handleIncidentUpdate({ action: 'deleted', incidentId: id }));
+    };
+    const handleAssignmentsDelta = () => bumpSimActivity();
+
     // Handle unit route path visualization
     const handleUnitRoute = (routeData) => {
       if (!routeData || !routeData.unitId || !routeData.path) return;
@@ -388,6 +406,9 @@ export default function SimulationMap() {
     websocketService.on('incidentUpdate', (i) => { handleIncidentUpdate(i); });
     websocketService.on('assignmentUpdate', (a) => { bumpSimActivity(); handleAssignmentUpdate(a); });
     websocketService.on('assignmentsList', (list) => { handleAssignmentUpdate(list); });
+    websocketService.on('unitsDelta', handleUnitsDelta);
+    websocketService.on('incidentsDelta', handleIncidentsDelta);
+    websocketService.on('assignmentsDelta', handleAssignmentsDelta);
     websocketService.on('connected', handleConnect);
     websocketService.on('disconnected', handleDisconnect);
 
@@ -424,6 +445,9 @@ export default function SimulationMap() {
       websocketService.off('incidentUpdate');
       websocketService.off('assignmentUpdate', handleAssignmentUpdateWithActivity);
       websocketService.off('assignmentsList', handleAssignmentsListWithActivity);
+      websocketService.off('unitsDelta', handleUnitsDelta);
+      websocketService.off('incidentsDelta', handleIncidentsDelta);
+      websocketService.off('assignmentsDelta', handleAssignmentsDelta);
       websocketService.off('connected', handleConnect);
       websocketService.off('disconnected', handleDisconnect);
       // Clean up polylines
@@ -157,8 +157,27 @@ class ApiService {
       if (to) query.append('to', to);
       if (topN) query.append('topN', topN);
       if (heatmapK) query.append('heatmapK', heatmapK);
-      const url = `${API_BASE_URL}/reports/dispatch/pdf`;
-      const response = await fetch(url);
+      // Reports render as background jobs: submit, wait until done, then download the file
+      const submitResponse = await fetch(`${API_BASE_URL}/reports/dispatch/jobs?${query.toString()}`, {
+        method: 'POST',
+      });
+      if (!submitResponse.ok) {
+        const text = await submitResponse.text().catch(() => '');
+        throw new Error(`Failed to queue PDF report (Status: ${submitResponse.status}) ${text}`);
+      }
+      let job = await submitResponse.json();
+      while (job.status === 'QUEUED' || job.status === 'RUNNING') {
+        await new Promise((resolve) => setTimeout(resolve, 1000));
+        const statusResponse = await fetch(`${API_BASE_URL}/reports/dispatch/jobs/${job.jobId}`);
+        if (!statusResponse.ok) {
+          throw new Error(`Failed to check PDF report (Status: ${statusResponse.status})`);
+        }
+        job = await statusResponse.json();
+      }
+      if (job.status !== 'DONE') {
+        throw new Error(`PDF report failed: ${job.error || 'unknown error'}`);
+      }
+      const response = await fetch(`${API_BASE_URL}/reports/dispatch/jobs/${job.jobId}/pdf`);
       if (!response.ok) {
         const text = await response.text().catch(() => '');
         throw new Error(`Failed to download PDF (Status: ${response.status}) ${text}`);
@@ -11,6 +11,8 @@ class WebSocketService {
     this.connecting = false; // Track if connection is in progress
     this.notifications = []; // Store notifications persistently
     this.readNotificationIds = new Set(); // Track read notifications
+    this.deltaVersions = { incidents: null, units: null, assignments: null }; // Last applied delta version per topic
+    this.snapshotPending = null;
   }
 
   connect(url = 'http://localhost:9696/ws') {
@@ -163,6 +165,17 @@ class WebSocketService {
       this.notifyListeners('unitsList', units);
     });
 
+    // Coalesced deltas published by the backend BroadcastCoalescer
+    this.subscribe('/topic/incidents/delta', (message) => {
+      this.handleDelta('incidents', 'incidentsDelta', JSON.parse(message.body));
+    });
+    this.subscribe('/topic/emergency-units/delta', (message) => {
+      this.handleDelta('units', 'unitsDelta', JSON.parse(message.body));
+    });
+    this.subscribe('/topic/assignments/delta', (message) => {
+      this.handleDelta('assignments', 'assignmentsDelta', JSON.parse(message.body));
+    });
+
     // Subscribe to notifications
     this.subscribe('/topic/notifications', (message) => {
       const notification = JSON.parse(message.body);
@@ -194,6 +207,45 @@ class WebSocketService {
     });
   }
 
+  // Apply a delta in order; on a version gap reload the full snapshot instead
+  handleDelta(key, event, delta) {
+    if (!delta || typeof delta.version !== 'number') return;
+    const last = this.deltaVersions[key];
+    if (last !== null && delta.version <= last) return; // already covered by a snapshot
+    if (delta.resync) {
+      // Bulk change on the server: the rows only come with the snapshot
+      this.deltaVersions[key] = delta.version;
+      this.loadSnapshot();
+      return;
+    }
+    if (last !== null && delta.version !== last + 1) {
+      console.warn(`Delta gap on ${key}: expected ${last + 1}, got ${delta.version}; reloading snapshot`);
+      this.loadSnapshot();
+      return;
+    }
+    this.deltaVersions[key] = delta.version;
+    this.notifyListeners(event, delta);
+  }
+
+  loadSnapshot(apiBase = 'http://localhost:9696') {
+    if (this.snapshotPending) return this.snapshotPending;
+    this.snapshotPending = fetch(`${apiBase}/api/simulation/snapshot`)
+      .then(r => r.json())
+      .then(snapshot => {
+        this.deltaVersions = {
+          incidents: snapshot.incidentsVersion,
+          units: snapshot.unitsVersion,
+          assignments: snapshot.assignmentsVersion
+        };
+        this.notifyListeners('incidentsList', snapshot.incidents || []);
+        this.notifyListeners('unitsList', snapshot.units || []);
+        this.notifyListeners('assignmentsList', snapshot.assignments || []);
+      })
+      .catch(e => console.error('Failed to load snapshot', e))
+      .finally(() => { this.snapshotPending = null; });
+    return this.snapshotPending;
+  }
+
   subscribe(topic, callback) {
     if (this.stompClient && this.connected) {
       const subscription = this.stompClient.subscribe(topic, callback);